@@ -0,0 +1,77 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.DomainException;
+import com.example.demo.service.NotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Throughput of rendering a "User not found" response, thrown from below a call stack as deep
+ * as a servlet request's (filters, Spring MVC, transaction and repository proxies).
+ *
+ * <p>{@code legacy} is the previous path: a new {@code RuntimeException} caught in the controller
+ * and turned into a fresh error map. {@code stackless} allocates a new domain exception per miss,
+ * {@code shared} throws the preallocated constant.
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhIncludes=NotFoundPathBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotFoundPathBenchmark {
+
+    @Param({"120"})
+    private int stackDepth;
+
+    private final ApiExceptionHandler handler = new ApiExceptionHandler();
+
+    @Benchmark
+    public ResponseEntity<?> legacy() {
+        try {
+            return ResponseEntity.ok(descend(stackDepth, () -> new RuntimeException("User not found")));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> stackless() {
+        try {
+            return ResponseEntity.ok(descend(stackDepth, () -> new NotFoundException("User not found")));
+        } catch (DomainException e) {
+            return handler.handleDomainException(e);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> shared() {
+        try {
+            return ResponseEntity.ok(descend(stackDepth, () -> NotFoundException.USER));
+        } catch (DomainException e) {
+            return handler.handleDomainException(e);
+        }
+    }
+
+    private static Object descend(int depth, Supplier<? extends RuntimeException> failure) {
+        if (depth == 0) {
+            throw failure.get();
+        }
+        return descend(depth - 1, failure);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of a meeting list with participants embedded in every row (the default)
+ * versus the compact format that side-loads each participant once. Payload sizes are in
+ * {@link PayloadSizeReport}.
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhIncludes=MeetingListSerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeetingListSerializationBenchmark {
+
+    @Param({"200"})
+    private int meetingCount;
+
+    @Param({"1", "20"})
+    private int friendCount;
+
+    // Participants per meeting, organizer and friend included
+    @Param({"2", "50"})
+    private int groupSize;
+
+    private ObjectMapper objectMapper;
+    private List<MeetingDto> meetings;
+
+    @Setup
+    public void setUp() {
+        // Same date handling as the application's Jackson configuration
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        LocalDateTime now = LocalDateTime.of(2025, 1, 6, 9, 0);
+        UserDto organizer = user(1L, now);
+        List<UserDto> friends = new ArrayList<>();
+        for (int i = 0; i < friendCount; i++) {
+            friends.add(user(100L + i, now));
+        }
+        List<UserDto> others = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            others.add(user(1000L + i, now));
+        }
+
+        meetings = new ArrayList<>();
+        for (int i = 0; i < meetingCount; i++) {
+            LocalDateTime start = now.plusHours(i * 3L);
+            UserDto friend = friends.get(i % friendCount);
+            List<ParticipantDto> participants = new ArrayList<>();
+            participants.add(new ParticipantDto(organizer, "ACCEPTED", null));
+            participants.add(new ParticipantDto(friend, "INVITED", null));
+            for (int j = 2; j < groupSize; j++) {
+                participants.add(new ParticipantDto(others.get((i + j) % others.size()), "ACCEPTED", now));
+            }
+            meetings.add(new MeetingDto((long) i, "Coffee catch-up " + i, "Talk about the weekend plans",
+                    start, start.plusHours(1), "Blue Bottle, Market St", organizer,
+                    friend, "SCHEDULED", now, participants));
+        }
+    }
+
+    @Benchmark
+    public byte[] full() throws Exception {
+        return objectMapper.writeValueAsBytes(meetings);
+    }
+
+    @Benchmark
+    public byte[] compact() throws Exception {
+        return objectMapper.writeValueAsBytes(MeetingListDto.from(meetings));
+    }
+
+    private static UserDto user(Long id, LocalDateTime createdAt) {
+        return new UserDto(id, "Friend Number " + id, "friend" + id + "@example.com", "google",
+                "https://lh3.googleusercontent.com/a/ACg8ocJ" + id + "-profile-photo=s96-c", createdAt);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.dto;
+
+import org.openjdk.jmh.annotations.Param;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response sizes for every parameter combination of the serialization benchmarks. Sizes are
+ * deterministic, so they are computed once here instead of inside the timed runs; each
+ * benchmark is set up exactly as JMH would, from its own {@link Param} values.
+ *
+ * <p>Run with {@code ./gradlew jmhPayloadSizes}.
+ */
+public final class PayloadSizeReport {
+
+    private PayloadSizeReport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-48s %12s %12s%n", "MeetingListSerializationBenchmark", "full", "compact");
+        for (MeetingListSerializationBenchmark benchmark : instances(MeetingListSerializationBenchmark.class)) {
+            benchmark.setUp();
+            System.out.printf("%-48s %12d %12d%n", describe(benchmark), benchmark.full().length,
+                    benchmark.compact().length);
+        }
+
+        System.out.printf("%n%-48s %12s%n", "ResponseEncodingBenchmark", "bytes");
+        for (ResponseEncodingBenchmark benchmark : instances(ResponseEncodingBenchmark.class)) {
+            benchmark.setUp();
+            System.out.printf("%-48s %12d%n", describe(benchmark), benchmark.serialize().length);
+        }
+    }
+
+    // One instance per combination of the @Param fields
+    private static <T> List<T> instances(Class<T> type) throws ReflectiveOperationException {
+        List<T> instances = new ArrayList<>();
+        instances.add(type.getDeclaredConstructor().newInstance());
+        for (Field field : params(type)) {
+            List<T> expanded = new ArrayList<>();
+            for (T instance : instances) {
+                for (String value : field.getAnnotation(Param.class).value()) {
+                    T copy = type.getDeclaredConstructor().newInstance();
+                    for (Field set : params(type)) {
+                        set.set(copy, set.get(instance));
+                    }
+                    field.set(copy, field.getType() == int.class ? Integer.parseInt(value) : value);
+                    expanded.add(copy);
+                }
+            }
+            instances = expanded;
+        }
+        return instances;
+    }
+
+    private static String describe(Object benchmark) throws ReflectiveOperationException {
+        List<String> values = new ArrayList<>();
+        for (Field field : params(benchmark.getClass())) {
+            values.add(field.getName() + "=" + field.get(benchmark));
+        }
+        return String.join(", ", values);
+    }
+
+    private static List<Field> params(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Param.class)) {
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side serialization throughput of a 200-meeting response in each negotiable encoding,
+ * for the full and compact meeting formats. Response sizes are in
+ * {@link PayloadSizeReport}.
+ *
+ * <p>Run with {@code ./gradlew jmh -PjmhIncludes=ResponseEncodingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String encoding;
+
+    @Param({"full", "compact"})
+    private String view;
+
+    private ObjectMapper objectMapper;
+    private Object body;
+
+    @Setup
+    public void setUp() {
+        JsonFactory factory = switch (encoding) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = new ObjectMapper(factory)
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        LocalDateTime now = LocalDateTime.of(2025, 1, 6, 9, 0);
+        UserDto organizer = new UserDto(1L, "Organizer One", "organizer@example.com", "google",
+                "https://lh3.googleusercontent.com/a/ACg8ocJ1-profile-photo=s96-c", now);
+        List<MeetingDto> meetings = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            long friendId = 100L + i % 20;
+            UserDto friend = new UserDto(friendId, "Friend Number " + friendId, "friend" + friendId + "@example.com",
+                    "google", "https://lh3.googleusercontent.com/a/ACg8ocJ" + friendId + "-profile-photo=s96-c", now);
+            LocalDateTime start = now.plusHours(i * 3L);
+            meetings.add(new MeetingDto((long) i, "Coffee catch-up " + i, "Talk about the weekend plans",
+                    start, start.plusHours(1), "Blue Bottle, Market St", organizer, friend, "SCHEDULED", now,
+                    List.of(new ParticipantDto(organizer, "ACCEPTED", null), new ParticipantDto(friend, "INVITED", null))));
+        }
+        body = "compact".equals(view) ? MeetingListDto.from(meetings) : meetings;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(body);
+    }
+}
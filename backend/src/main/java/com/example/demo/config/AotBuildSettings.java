@@ -0,0 +1,98 @@
+package com.example.demo.config;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Spring AOT evaluates profiles and {@code @ConditionalOnProperty} at build time, so an optimized
+ * jar keeps the bean choices of the build environment whatever the runtime configuration says.
+ * During AOT processing this records the settings those choices depend on; at startup with
+ * {@code spring.aot.enabled=true} it compares them with the runtime environment and refuses to
+ * start on any difference, instead of silently running the build-time configuration.
+ */
+public class AotBuildSettings implements BeanFactoryInitializationAotProcessor, EnvironmentPostProcessor, Ordered {
+
+    static final String RESOURCE = "META-INF/friendscheduler/aot-build-settings.properties";
+
+    // Properties read by @ConditionalOnProperty; URLs only count as set or unset, like the condition
+    private static final List<String> VALUE_PROPERTIES = List.of(
+            "app.events.transport", "app.reminders.enabled", "app.reminders.sink", "app.tracing.enabled");
+    private static final List<String> PRESENCE_PROPERTIES = List.of("app.datasource.replica.url");
+
+    static Map<String, String> capture(Environment environment) {
+        Map<String, String> settings = new TreeMap<>();
+        settings.put("profiles", String.join(",", environment.getActiveProfiles()));
+        for (String name : VALUE_PROPERTIES) {
+            settings.put(name, environment.getProperty(name, ""));
+        }
+        for (String name : PRESENCE_PROPERTIES) {
+            String value = environment.getProperty(name);
+            settings.put(name, value != null && !"false".equalsIgnoreCase(value) ? "set" : "unset");
+        }
+        return settings;
+    }
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        Properties properties = new Properties();
+        properties.putAll(capture(beanFactory.getBean(Environment.class)));
+        StringWriter content = new StringWriter();
+        try {
+            properties.store(content, "Settings the AOT-generated bean definitions were built with");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return (generationContext, code) -> generationContext.getGeneratedFiles().addResourceFile(RESOURCE, content.toString());
+    }
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        ClassPathResource resource = new ClassPathResource(RESOURCE);
+        if (!AotDetector.useGeneratedArtifacts() || !resource.exists()) {
+            return;
+        }
+        Properties built = new Properties();
+        try (InputStream in = resource.getInputStream()) {
+            built.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<String> differences = new ArrayList<>();
+        capture(environment).forEach((name, value) -> {
+            String builtValue = built.getProperty(name, "");
+            if (!builtValue.equals(value)) {
+                differences.add(name + " is '" + value + "' but the jar was built with '" + builtValue + "'");
+            }
+        });
+        if (!differences.isEmpty()) {
+            throw new IllegalStateException("This AOT-optimized build does not match the runtime configuration: "
+                    + String.join("; ", differences)
+                    + ". Rebuild it with these settings or start without -Dspring.aot.enabled=true.");
+        }
+    }
+
+    // After config data, so application.properties and profile-specific files are included
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
@@ -6,11 +6,17 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.client.endpoint.DefaultOAuth2TokenRequestParametersConverter;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AuthorizationCodeGrantRequest;
+import org.springframework.security.oauth2.client.endpoint.RestClientAuthorizationCodeTokenResponseClient;
 import org.springframework.security.oauth2.client.registration.ClientRegistration;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.util.MultiValueMap;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -42,12 +48,32 @@ public class AppleOAuthConfig {
         return new InMemoryClientRegistrationRepository(registrations);
     }
 
+    /**
+     * Apple client secrets are short-lived JWTs, so the one captured in the registration at
+     * startup goes stale. Swap in the current cached secret on every Apple token request.
+     */
+    @Bean
+    public OAuth2AccessTokenResponseClient<OAuth2AuthorizationCodeGrantRequest> authorizationCodeTokenResponseClient() {
+        DefaultOAuth2TokenRequestParametersConverter<OAuth2AuthorizationCodeGrantRequest> defaultParameters =
+                new DefaultOAuth2TokenRequestParametersConverter<>();
+        
+        RestClientAuthorizationCodeTokenResponseClient client = new RestClientAuthorizationCodeTokenResponseClient();
+        client.setParametersConverter(grantRequest -> {
+            MultiValueMap<String, String> parameters = defaultParameters.convert(grantRequest);
+            if ("apple".equals(grantRequest.getClientRegistration().getRegistrationId())) {
+                parameters.set(OAuth2ParameterNames.CLIENT_SECRET, appleJwtService.generateClientSecret());
+            }
+            return parameters;
+        });
+        return client;
+    }
+
     private ClientRegistration googleClientRegistration() {
         return ClientRegistration.withRegistrationId("google")
                 .clientId(googleClientId)
                 .clientSecret(googleClientSecret)
                 .scope("openid", "profile", "email", "https://www.googleapis.com/auth/calendar.readonly")
-                .authorizationUri("https://accounts.google.com/o/oauth2/v2/auth")
+                .authorizationUri("https://accounts.google.com/o/oauth2/v2/auth?access_type=offline")
                 .tokenUri("https://www.googleapis.com/oauth2/v4/token")
                 .userInfoUri("https://www.googleapis.com/oauth2/v2/userinfo")
                 .userNameAttributeName("sub")
@@ -0,0 +1,101 @@
+package com.example.demo.config;
+
+import com.example.demo.service.AccessTokenService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Keeps the in-flight OAuth authorization request in a signed cookie instead of the HTTP
+ * session, so the provider callback can land on any node.
+ */
+public class CookieOAuth2AuthorizationRequestRepository implements AuthorizationRequestRepository<OAuth2AuthorizationRequest> {
+
+    private static final String COOKIE_NAME = "oauth2_auth_request";
+    private static final Duration COOKIE_MAX_AGE = Duration.ofMinutes(5);
+    private static final ObjectInputFilter DESERIALIZATION_FILTER =
+            ObjectInputFilter.Config.createFilter("org.springframework.security.**;java.**;!*");
+
+    private final AccessTokenService accessTokenService;
+
+    public CookieOAuth2AuthorizationRequestRepository(AccessTokenService accessTokenService) {
+        this.accessTokenService = accessTokenService;
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        return Arrays.stream(cookies)
+                .filter(cookie -> COOKIE_NAME.equals(cookie.getName()))
+                .findFirst()
+                .flatMap(cookie -> accessTokenService.verifyPayload(cookie.getValue()))
+                .map(CookieOAuth2AuthorizationRequestRepository::deserialize)
+                .orElse(null);
+    }
+
+    @Override
+    public void saveAuthorizationRequest(OAuth2AuthorizationRequest authorizationRequest, HttpServletRequest request,
+                                         HttpServletResponse response) {
+        if (authorizationRequest == null) {
+            writeCookie(request, response, "", Duration.ZERO);
+            return;
+        }
+        writeCookie(request, response, accessTokenService.signPayload(serialize(authorizationRequest)), COOKIE_MAX_AGE);
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest removeAuthorizationRequest(HttpServletRequest request, HttpServletResponse response) {
+        OAuth2AuthorizationRequest authorizationRequest = loadAuthorizationRequest(request);
+        if (authorizationRequest != null) {
+            writeCookie(request, response, "", Duration.ZERO);
+        }
+        return authorizationRequest;
+    }
+
+    private static void writeCookie(HttpServletRequest request, HttpServletResponse response, String value, Duration maxAge) {
+        // Apple posts the callback cross-site (response_mode=form_post), which needs SameSite=None
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+                .path("/")
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite(request.isSecure() ? "None" : "Lax")
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private static byte[] serialize(OAuth2AuthorizationRequest authorizationRequest) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(authorizationRequest);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize authorization request", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static OAuth2AuthorizationRequest deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            in.setObjectInputFilter(DESERIALIZATION_FILTER);
+            return (OAuth2AuthorizationRequest) in.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            return null;
+        }
+    }
+}
@@ -1,14 +1,25 @@
 package com.example.demo.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
     
+    // Only present with the "seed" profile
+    @Autowired
+    private ObjectProvider<DataSeeder> dataSeeder;
+    
     @Override
     public void run(String... args) throws Exception {
         // Database schema will be automatically created by JPA/Hibernate
+        DataSeeder seeder = dataSeeder.getIfAvailable();
+        if (seeder != null) {
+            seeder.seed();
+            return;
+        }
         // No sample data will be pre-loaded
         System.out.println("Database initialized successfully - no sample data loaded");
     }
@@ -0,0 +1,382 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.Friendship;
+import com.example.demo.entity.Meeting;
+import com.example.demo.entity.MeetingParticipant;
+import com.example.demo.service.AvailabilityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Fills an empty database with a synthetic, production-sized dataset for performance testing.
+ * Enabled with the {@code seed} profile; volumes are set by {@code app.seed.*}.
+ *
+ * <p>Friendship degrees follow a power law: a few users have thousands of friends, most have a
+ * handful. Meetings are spread over the past years and the coming weeks, always between accepted
+ * friends; a small share are group meetings with extra participants drawn from all users.
+ *
+ * <p>Rows are written with plain JDBC batches rather than JPA, and each phase draws from its own
+ * random stream derived from {@code app.seed.random-seed}, so the same settings always produce
+ * the same data.
+ */
+@Component
+@Profile("seed")
+public class DataSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSeeder.class);
+
+    private static final String[] FIRST_NAMES = {"Alex", "Sam", "Jordan", "Taylor", "Morgan", "Casey", "Riley",
+            "Jamie", "Avery", "Quinn", "Harper", "Rowan", "Emerson", "Finley", "Hayden", "Kai", "Logan", "Noa",
+            "Parker", "Reese", "Sasha", "Tatum", "Robin", "Charlie", "Dakota", "Elliot", "Frankie", "Jesse"};
+    private static final String[] LAST_NAMES = {"Garcia", "Smith", "Kim", "Nguyen", "Müller", "Rossi", "Novak",
+            "Silva", "Johansson", "Kowalski", "Okafor", "Tanaka", "Dubois", "Hughes", "Patel", "Cohen", "Ivanova",
+            "Moreau", "Jensen", "Lopez", "Schmidt", "Yilmaz", "Brown", "Costa", "O'Brien", "Haddad", "Larsen"};
+    private static final String[] MEETING_TITLES = {"Coffee", "Lunch", "Dinner", "Run", "Climbing", "Movie night",
+            "Board games", "Catch-up call", "Study session", "Concert", "Brunch", "Walk"};
+    private static final String[] LOCATIONS = {"Downtown Cafe", "Central Park", "Riverside Gym", "Main Street Diner",
+            "City Library", "Online", "Harbor View", "Old Town Square"};
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (name, email, oauth_provider, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_FRIENDSHIP =
+            "INSERT INTO friendships (user_id, friend_id, status, is_close_friend, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_MEETING =
+            "INSERT INTO meetings (title, description, start_time, end_time, location, organizer_id, friend_id, status, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Participant IDs are assigned here (2n - 1 and 2n for meeting n's organizer and friend), and
+    // the sequence is moved past them afterwards
+    private static final String INSERT_PAIR_PARTICIPANTS =
+            "INSERT INTO meeting_participants (id, meeting_id, user_id, rsvp_status, start_time, end_time, created_at) "
+                    + "SELECT 2 * id - 1, id, organizer_id, 'ACCEPTED', start_time, end_time, created_at FROM meetings "
+                    + "UNION ALL SELECT 2 * id, id, friend_id, CASE WHEN status = 'SCHEDULED' THEN 'INVITED' ELSE 'ACCEPTED' END, "
+                    + "start_time, end_time, created_at FROM meetings";
+    // Copies the meeting's times; inserts nothing if the drawn user is already the organizer or friend
+    private static final String INSERT_GROUP_PARTICIPANT =
+            "INSERT INTO meeting_participants (id, meeting_id, user_id, rsvp_status, start_time, end_time, created_at) "
+                    + "SELECT ?, id, ?, ?, start_time, end_time, created_at FROM meetings "
+                    + "WHERE id = ? AND organizer_id <> ? AND friend_id <> ?";
+    private static final MeetingParticipant.RsvpStatus[] GROUP_RSVPS = MeetingParticipant.RsvpStatus.values();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Value("${app.seed.users:100000}")
+    private int userCount;
+
+    @Value("${app.seed.friendships:1000000}")
+    private int friendshipCount;
+
+    @Value("${app.seed.meetings:500000}")
+    private int meetingCount;
+
+    @Value("${app.seed.group-meeting-percent:2}")
+    private int groupMeetingPercent;
+
+    @Value("${app.seed.max-group-size:60}")
+    private int maxGroupSize;
+
+    @Value("${app.seed.history-years:3}")
+    private int historyYears;
+
+    // Larger is more skewed: with 1.0 the best-connected user has roughly 10x the friends of the 10th
+    @Value("${app.seed.degree-exponent:0.8}")
+    private double degreeExponent;
+
+    @Value("${app.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${app.seed.batch-size:5000}")
+    private int batchSize;
+
+    // Meeting times are offsets from this date; blank means today
+    @Value("${app.seed.anchor-date:}")
+    private String anchorDate;
+
+    public void seed() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+        if (existing != null && existing > 0) {
+            log.info("Skipping seed: database already has {} users", existing);
+            return;
+        }
+        LocalDateTime anchor = (anchorDate.isBlank() ? LocalDate.now() : LocalDate.parse(anchorDate)).atStartOfDay();
+
+        long start = System.currentTimeMillis();
+        long[] userIds = seedUsers(anchor);
+        log.info("Seeded {} users in {} ms", userIds.length, System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        long[] pairs = samplePairs(userIds.length);
+        long[] acceptedPairs = seedFriendships(pairs, userIds, anchor);
+        log.info("Seeded {} friendships in {} ms", pairs.length, System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        int meetings = seedMeetings(acceptedPairs, userIds, anchor);
+        log.info("Seeded {} meetings in {} ms", meetings, System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        long participants = seedParticipants(userIds);
+        log.info("Seeded {} meeting participants in {} ms", participants, System.currentTimeMillis() - start);
+
+        // Rows written here bypass MeetingService, so the heatmap is built from them in one pass
+        start = System.currentTimeMillis();
+        int buckets = availabilityService.rebuildMeetingMinutes();
+        log.info("Built {} availability buckets in {} ms", buckets, System.currentTimeMillis() - start);
+    }
+
+    private long[] seedUsers(LocalDateTime anchor) {
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        inBatches(userCount, (statement, i) -> {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            Timestamp createdAt = Timestamp.valueOf(anchor.minusMinutes(random.nextLong(historyYears * 525_600L)));
+            statement.setString(1, first + " " + last);
+            statement.setString(2, "seed." + first.toLowerCase() + "." + i + "@example.com");
+            statement.setString(3, "seed");
+            statement.setTimestamp(4, createdAt);
+            statement.setTimestamp(5, createdAt);
+        }, INSERT_USER);
+        return jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", Long.class).stream()
+                .mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Inserts the friendships and returns the accepted ones as packed user index pairs.
+     */
+    private long[] seedFriendships(long[] pairs, long[] userIds, LocalDateTime anchor) {
+        SplittableRandom random = new SplittableRandom(randomSeed + 2);
+        long[] accepted = new long[pairs.length];
+        int[] acceptedCount = {0};
+        inBatches(pairs.length, (statement, i) -> {
+            long pair = pairs[i];
+            int a = (int) (pair >>> 32);
+            int b = (int) pair;
+            boolean flip = random.nextBoolean();
+            int roll = random.nextInt(100);
+            Friendship.FriendshipStatus status = roll < 85 ? Friendship.FriendshipStatus.ACCEPTED
+                    : roll < 95 ? Friendship.FriendshipStatus.PENDING : Friendship.FriendshipStatus.REJECTED;
+            if (status == Friendship.FriendshipStatus.ACCEPTED) {
+                accepted[acceptedCount[0]++] = pair;
+            }
+            Timestamp createdAt = Timestamp.valueOf(anchor.minusMinutes(random.nextLong(historyYears * 525_600L)));
+            statement.setLong(1, userIds[flip ? b : a]);
+            statement.setLong(2, userIds[flip ? a : b]);
+            statement.setString(3, status.name());
+            statement.setBoolean(4, status == Friendship.FriendshipStatus.ACCEPTED && random.nextInt(10) == 0);
+            statement.setTimestamp(5, createdAt);
+            statement.setTimestamp(6, createdAt);
+        }, INSERT_FRIENDSHIP);
+        return Arrays.copyOf(accepted, acceptedCount[0]);
+    }
+
+    /**
+     * Distinct unordered pairs of user indexes, packed as {@code (low << 32) | high}. Both ends are
+     * drawn from a Zipf-like weighting over a shuffled user order, which gives the power-law degrees.
+     */
+    private long[] samplePairs(int users) {
+        int target = (int) Math.min(friendshipCount, (long) users * (users - 1) / 2);
+        if (target == 0) {
+            return new long[0];
+        }
+        SplittableRandom random = new SplittableRandom(randomSeed + 1);
+        int[] rankOf = new int[users];
+        for (int i = 0; i < users; i++) {
+            rankOf[i] = i;
+        }
+        for (int i = users - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = rankOf[i];
+            rankOf[i] = rankOf[j];
+            rankOf[j] = swap;
+        }
+        double[] cumulative = new double[users];
+        double total = 0;
+        for (int rank = 0; rank < users; rank++) {
+            total += 1.0 / Math.pow(rank + 1, degreeExponent);
+            cumulative[rank] = total;
+        }
+
+        long[] pairs = new long[0];
+        while (pairs.length < target) {
+            // Sample the shortfall plus some slack for duplicates, then dedupe by sorting
+            int wanted = target - pairs.length;
+            long[] batch = Arrays.copyOf(pairs, pairs.length + wanted + wanted / 10 + 16);
+            int size = pairs.length;
+            while (size < batch.length) {
+                int a = rankOf[sample(cumulative, total, random)];
+                int b = rankOf[sample(cumulative, total, random)];
+                if (a != b) {
+                    batch[size++] = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+                }
+            }
+            pairs = distinct(batch);
+        }
+        // Sorted order would cluster rows by user; shuffle so insertion order looks organic
+        long[] result = Arrays.copyOf(pairs, target);
+        for (int i = result.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long swap = result[i];
+            result[i] = result[j];
+            result[j] = swap;
+        }
+        return result;
+    }
+
+    private int seedMeetings(long[] acceptedPairs, long[] userIds, LocalDateTime anchor) {
+        if (acceptedPairs.length == 0) {
+            return 0;
+        }
+        SplittableRandom random = new SplittableRandom(randomSeed + 3);
+        long pastDays = historyYears * 365L;
+        long futureDays = 90;
+        inBatches(meetingCount, (statement, i) -> {
+            long pair = acceptedPairs[random.nextInt(acceptedPairs.length)];
+            boolean flip = random.nextBoolean();
+            int a = (int) (pair >>> 32);
+            int b = (int) pair;
+            // Daytime quarter-hour starts; most meetings are in the past
+            long day = random.nextLong(pastDays + futureDays) - pastDays;
+            LocalDateTime startTime = anchor.plusDays(day).withHour(8 + random.nextInt(13)).withMinute(15 * random.nextInt(4));
+            LocalDateTime endTime = startTime.plusMinutes(30L * (1 + random.nextInt(6)));
+            Meeting.MeetingStatus status;
+            if (startTime.isBefore(anchor)) {
+                status = random.nextInt(10) == 0 ? Meeting.MeetingStatus.CANCELLED : Meeting.MeetingStatus.COMPLETED;
+            } else {
+                status = random.nextInt(3) == 0 ? Meeting.MeetingStatus.CONFIRMED : Meeting.MeetingStatus.SCHEDULED;
+            }
+            Timestamp createdAt = Timestamp.valueOf(startTime.minusDays(1 + random.nextInt(14)));
+            statement.setString(1, MEETING_TITLES[random.nextInt(MEETING_TITLES.length)]);
+            statement.setString(2, null);
+            statement.setTimestamp(3, Timestamp.valueOf(startTime));
+            statement.setTimestamp(4, Timestamp.valueOf(endTime));
+            statement.setString(5, LOCATIONS[random.nextInt(LOCATIONS.length)]);
+            statement.setLong(6, userIds[flip ? b : a]);
+            statement.setLong(7, userIds[flip ? a : b]);
+            statement.setString(8, status.name());
+            statement.setTimestamp(9, createdAt);
+            statement.setTimestamp(10, createdAt);
+        }, INSERT_MEETING);
+        return meetingCount;
+    }
+
+    /**
+     * Adds the organizer and friend of every meeting with one INSERT ... SELECT, then extra
+     * participants for a share of the meetings, and returns the number of participant rows.
+     */
+    private long seedParticipants(long[] userIds) {
+        jdbcTemplate.update(INSERT_PAIR_PARTICIPANTS);
+        long[] meetingIds = jdbcTemplate.queryForList("SELECT id FROM meetings ORDER BY id", Long.class).stream()
+                .mapToLong(Long::longValue).toArray();
+        long lastId = meetingIds.length == 0 ? 0 : 2 * meetingIds[meetingIds.length - 1];
+
+        // Plan the group rows first so they can stream through one batched statement
+        SplittableRandom random = new SplittableRandom(randomSeed + 4);
+        int maxExtra = Math.min(maxGroupSize - 2, userIds.length - 2);
+        long[] rows = new long[0];
+        int rowCount = 0;
+        for (int m = 0; maxExtra > 0 && m < meetingIds.length; m++) {
+            if (random.nextInt(100) >= groupMeetingPercent) {
+                continue;
+            }
+            // Mostly small groups, occasionally close to the maximum
+            double roll = random.nextDouble();
+            int extra = 1 + (int) (roll * roll * maxExtra);
+            long[] members = new long[extra];
+            int size = 0;
+            while (size < extra) {
+                members[size++] = ((long) m << 32) | random.nextInt(userIds.length);
+                // Once full, drop repeated draws and keep drawing until the group is distinct
+                if (size == extra) {
+                    long[] unique = distinct(members);
+                    size = unique.length;
+                    System.arraycopy(unique, 0, members, 0, size);
+                }
+            }
+            if (rowCount + extra > rows.length) {
+                rows = Arrays.copyOf(rows, Math.max(rowCount + extra, rows.length * 2));
+            }
+            System.arraycopy(members, 0, rows, rowCount, extra);
+            rowCount += extra;
+        }
+
+        long[] groupRows = rows;
+        long firstId = lastId + 1;
+        inBatches(rowCount, (statement, i) -> {
+            long meetingId = meetingIds[(int) (groupRows[i] >>> 32)];
+            long userId = userIds[(int) groupRows[i]];
+            statement.setLong(1, firstId + i);
+            statement.setLong(2, userId);
+            statement.setString(3, GROUP_RSVPS[random.nextInt(GROUP_RSVPS.length)].name());
+            statement.setLong(4, meetingId);
+            statement.setLong(5, userId);
+            statement.setLong(6, userId);
+        }, INSERT_GROUP_PARTICIPANT);
+        lastId += rowCount;
+
+        // Hibernate's pooled optimizer hands out the block below each sequence value, so leave a block of room
+        jdbcTemplate.execute("ALTER SEQUENCE meeting_participants_seq RESTART WITH " + (lastId + 50));
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM meeting_participants", Long.class);
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement statement, int index) throws SQLException;
+    }
+
+    /**
+     * Streams {@code count} rows through one prepared statement, executing every {@code batchSize}
+     * rows, so only one batch is ever held in memory.
+     */
+    private void inBatches(int count, RowWriter writer, String sql) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < count; i++) {
+                    writer.write(statement, i);
+                    statement.addBatch();
+                    if ((i + 1) % batchSize == 0 || i == count - 1) {
+                        statement.executeBatch();
+                        connection.commit();
+                    }
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private static int sample(double[] cumulative, double total, SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+        return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+    }
+
+    private static long[] distinct(long[] values) {
+        Arrays.sort(values);
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (size == 0 || values[i] != values[size - 1]) {
+                values[size++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, size);
+    }
+}
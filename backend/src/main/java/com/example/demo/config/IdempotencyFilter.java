@@ -0,0 +1,296 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.IdempotencyRecord;
+import com.example.demo.repository.IdempotencyRecordRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Makes meeting creation and friend requests safe to retry. The first response for an
+ * {@code Idempotency-Key} is kept for a while and replayed to later requests with the same
+ * key from the same user, without calling the controller again. A duplicate that arrives
+ * while the original is still running waits for its result; reusing a key for a different
+ * request body is rejected with 422.
+ *
+ * <p>Keys and responses live in the shared database, so the guarantee holds across nodes. A
+ * duplicate on the node running the original is woken as soon as it finishes; one on another
+ * node polls the database with a growing pause. Each user may hold a bounded number of live
+ * keys; past that, new keys are refused with 429 until old ones expire.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Pattern IDEMPOTENT_PATHS = Pattern.compile("/api/meetings/create|/api/friends/[^/]+/add");
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final long MIN_POLL_MILLIS = 50;
+    private static final long MAX_POLL_MILLIS = 1000;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Value("${app.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${app.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMillis;
+
+    // How long an unfinished claim blocks retries if its node dies mid-request
+    @Value("${app.idempotency.claim-timeout-ms:60000}")
+    private long claimTimeoutMillis;
+
+    @Value("${app.idempotency.max-keys-per-user:1000}")
+    private long maxKeysPerUser;
+
+    // Requests this node is running, by key, released once their outcome is stored
+    private final Map<String, CountDownLatch> running = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !IDEMPOTENT_PATHS.matcher(request.getServletPath()).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        Principal principal = request.getUserPrincipal();
+        if (principal == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid " + IDEMPOTENCY_KEY_HEADER);
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            writeError(response, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "Request body too large");
+            return;
+        }
+
+        // Keys are scoped to the user and endpoint, so one client can't replay another's response
+        String key = sha256((principal.getName() + " " + request.getServletPath() + " " + idempotencyKey)
+                .getBytes(StandardCharsets.UTF_8));
+        String owner = sha256(principal.getName().getBytes(StandardCharsets.UTF_8));
+        String requestHash = sha256(body);
+        long deadline = System.currentTimeMillis() + waitTimeoutMillis;
+        long pause = MIN_POLL_MILLIS;
+        while (true) {
+            Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findLive(key);
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                if (!record.getRequestHash().equals(requestHash)) {
+                    writeError(response, 422, IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+                    return;
+                }
+                if (record.isCompleted()) {
+                    replay(record, response);
+                    return;
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    writeError(response, HttpServletResponse.SC_CONFLICT,
+                            "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress");
+                    return;
+                }
+                await(key, Math.min(pause, deadline - System.currentTimeMillis()));
+                pause = Math.min(pause * 2, MAX_POLL_MILLIS);
+                continue;
+            }
+
+            if (idempotencyRecordRepository.countLiveByOwner(owner) >= maxKeysPerUser) {
+                writeError(response, 429, "Too many " + IDEMPOTENCY_KEY_HEADER + " values in use");
+                return;
+            }
+            if (tryClaim(key, owner, requestHash)) {
+                execute(key, new CachedBodyRequest(request, body), response, filterChain);
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        idempotencyRecordRepository.deleteExpired();
+    }
+
+    private boolean tryClaim(String key, String owner, String requestHash) {
+        try {
+            return idempotencyRecordRepository.tryClaim(key, owner, requestHash, claimTimeoutMillis) == 1;
+        } catch (DataIntegrityViolationException e) {
+            // Another request inserted the same key first
+            return false;
+        }
+    }
+
+    private void execute(String key, HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CountDownLatch done = new CountDownLatch(1);
+        running.put(key, done);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            try {
+                filterChain.doFilter(request, wrapper);
+            } catch (ServletException | IOException | RuntimeException e) {
+                idempotencyRecordRepository.release(key);
+                throw e;
+            }
+
+            // Server errors are transient, so a retry should run the request again
+            if (wrapper.getStatus() >= 500) {
+                idempotencyRecordRepository.release(key);
+            } else {
+                idempotencyRecordRepository.complete(key, wrapper.getStatus(), wrapper.getContentType(),
+                        wrapper.getContentAsByteArray(), ttlMinutes);
+            }
+        } finally {
+            running.remove(key, done);
+            done.countDown();
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    // Waits for the original if it runs on this node, otherwise for the next poll of the database
+    private void await(String key, long pauseMillis) throws ServletException {
+        try {
+            CountDownLatch original = running.get(key);
+            if (original != null) {
+                original.await(pauseMillis, TimeUnit.MILLISECONDS);
+            } else if (pauseMillis > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted while waiting for the original request", e);
+        }
+    }
+
+    private void replay(IdempotencyRecord record, HttpServletResponse response) throws IOException {
+        byte[] body = record.getResponseBody() != null ? record.getResponseBody() : new byte[0];
+        response.setStatus(record.getResponseStatus());
+        if (record.getContentType() != null) {
+            response.setContentType(record.getContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.getOutputStream().write(("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The body was read for hashing, so the controller gets it again from memory
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Everything is in memory, so an async reader can read it all, and is done, at once
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ * Must sit behind a {@code LazyConnectionDataSourceProxy} so the connection is chosen
+ * after the transaction's read-only flag has been set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    // Set for requests by users who wrote recently, so they read their own writes
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && !isPrimaryRequired() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    public static void setPrimaryRequired(boolean required) {
+        if (required) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    /**
+     * Carries the caller's routing preference onto another thread.
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        boolean primaryRequired = isPrimaryRequired();
+        return () -> {
+            setPrimaryRequired(primaryRequired);
+            try {
+                return task.call();
+            } finally {
+                setPrimaryRequired(false);
+            }
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.config;
+
+import com.example.demo.events.ChangeEvent;
+import com.example.demo.events.ChangeEventBus;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users changed data in the last few seconds and pins their requests
+ * to the primary, so replica lag never hides a user's own write from them.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReadYourWritesTracker implements HandlerInterceptor {
+
+    private static final int MAX_TRACKED_USERS = 100_000;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Value("${app.datasource.replica.read-your-writes-ms:5000}")
+    private long stickinessMillis;
+
+    private final Map<Long, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void subscribe() {
+        // Every affected user, not only the actor: an accepted request changes both friend lists
+        changeEventBus.subscribe(this::onChange);
+    }
+
+    private void onChange(ChangeEvent event) {
+        long until = System.currentTimeMillis() + stickinessMillis;
+        for (Long userId : event.userIds()) {
+            recordWrite(userId, until);
+        }
+    }
+
+    public void recordWrite(Long userId) {
+        recordWrite(userId, System.currentTimeMillis() + stickinessMillis);
+    }
+
+    public boolean isSticky(Long userId) {
+        Long until = primaryUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            primaryUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long userId = pathUserId(request);
+        ReadWriteRoutingDataSource.setPrimaryRequired(userId != null && isSticky(userId));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadWriteRoutingDataSource.setPrimaryRequired(false);
+    }
+
+    private void recordWrite(Long userId, long until) {
+        if (userId == null) {
+            return;
+        }
+        if (primaryUntil.size() >= MAX_TRACKED_USERS) {
+            long now = System.currentTimeMillis();
+            primaryUntil.values().removeIf(expiry -> expiry < now);
+        }
+        primaryUntil.merge(userId, until, Math::max);
+    }
+
+    private static Long pathUserId(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (!(variables instanceof Map<?, ?> map) || !(map.get("userId") instanceof String userId)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(userId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
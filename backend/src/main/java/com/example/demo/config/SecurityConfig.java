@@ -1,22 +1,42 @@
 package com.example.demo.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AuthorizationCodeGrantRequest;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import com.example.demo.entity.User;
+import com.example.demo.service.AccessTokenService;
 import com.example.demo.service.CustomOAuth2UserService;
+import com.example.demo.service.GoogleTokenRefreshService;
+import com.example.demo.service.RefreshTokenService;
+import com.example.demo.service.UserService;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @Configuration
 @EnableWebSecurity
@@ -25,20 +45,63 @@ public class SecurityConfig {
     @Autowired
     private CustomOAuth2UserService customOAuth2UserService;
     
+    @Autowired
+    private GoogleTokenRefreshService googleTokenRefreshService;
+    
+    @Autowired
+    private OAuth2AuthorizedClientService authorizedClientService;
+    
+    @Autowired
+    private OAuth2AccessTokenResponseClient<OAuth2AuthorizationCodeGrantRequest> authorizationCodeTokenResponseClient;
+    
+    @Autowired
+    private AccessTokenService accessTokenService;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private UserService userService;
+    
+    // "session" keeps the servlet session; "stateless" authenticates every request by access token
+    @Value("${app.auth.session-mode:session}")
+    private String sessionMode;
+    
+    // Users allowed to read actuator internals (metrics, traces, JFR recordings), by login email
+    @Value("${app.admin.emails:}")
+    private List<String> adminEmails;
+    
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(authz -> authz
+                // Completion of async (SSE) responses was already authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                // Error pages render the status of an already-authorized (or rejected) request; the bearer
+                // token is not re-read on that dispatch, so a 403 would otherwise become a login redirect
+                .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                 .requestMatchers("/", "/oauth2/**", "/login/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
-                .requestMatchers("/actuator/**").permitAll()
+                .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                // Other actuator endpoints expose internals such as SQL text, per-user metrics and JFR dumps
+                .requestMatchers("/actuator/**").access(this::adminOnly)
                 .requestMatchers("/api/auth/oauth2/**").permitAll()
                 .requestMatchers("/api/auth/providers").permitAll()
+                .requestMatchers("/api/auth/token/refresh", "/api/auth/token/revoke").permitAll()
                 .anyRequest().authenticated()
             )
             .oauth2Login(oauth2 -> oauth2
+                .authorizationEndpoint(authorization -> {
+                    if (isStateless()) {
+                        authorization.authorizationRequestRepository(
+                                new CookieOAuth2AuthorizationRequestRepository(accessTokenService));
+                    }
+                })
+                .tokenEndpoint(token -> token
+                    .accessTokenResponseClient(authorizationCodeTokenResponseClient)
+                )
                 .userInfoEndpoint(userInfo -> userInfo
                     .oidcUserService(customOAuth2UserService)
                 )
@@ -52,17 +115,56 @@ public class SecurityConfig {
             )
             .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable()));
         
+        if (isStateless()) {
+            http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(new TokenAuthenticationFilter(accessTokenService), UsernamePasswordAuthenticationFilter.class);
+        }
+        
         return http.build();
     }
     
+    private boolean isStateless() {
+        return "stateless".equalsIgnoreCase(sessionMode);
+    }
+    
+    private AuthorizationDecision adminOnly(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        Authentication current = authentication.get();
+        boolean admin = current != null && current.isAuthenticated()
+                && current.getPrincipal() instanceof OidcUser oidcUser
+                && oidcUser.getEmail() != null
+                && adminEmails.stream().anyMatch(email -> email.trim().equalsIgnoreCase(oidcUser.getEmail()));
+        return new AuthorizationDecision(admin);
+    }
+    
     
     @Bean
     public AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler() {
         return (request, response, authentication) -> {
+            if (authentication instanceof OAuth2AuthenticationToken oauthToken
+                    && oauthToken.getPrincipal() instanceof OidcUser oidcUser) {
+                OAuth2AuthorizedClient authorizedClient = authorizedClientService.loadAuthorizedClient(
+                        oauthToken.getAuthorizedClientRegistrationId(), oauthToken.getName());
+                if (authorizedClient != null) {
+                    googleTokenRefreshService.onLogin(oidcUser.getEmail(), authorizedClient);
+                }
+            }
+            
             String redirectUrl = System.getenv("FRONTEND_URL");
             if (redirectUrl == null || redirectUrl.trim().isEmpty()) {
                 redirectUrl = "http://localhost:19006";
             }
+            
+            // Hand the access token over in the fragment so it never reaches server logs
+            if (isStateless() && authentication instanceof OAuth2AuthenticationToken oauthToken
+                    && oauthToken.getPrincipal() instanceof OidcUser oidcUser) {
+                Optional<User> user = userService.findByEmail(oidcUser.getEmail());
+                if (user.isPresent()) {
+                    String provider = oauthToken.getAuthorizedClientRegistrationId();
+                    String token = accessTokenService.issue(user.get(), provider);
+                    redirectUrl += "#access_token=" + token + "&expires_in=" + accessTokenService.getTokenTtlSeconds()
+                            + "&refresh_token=" + refreshTokenService.issue(user.get().getId(), provider);
+                }
+            }
             response.sendRedirect(redirectUrl);
         };
     }
@@ -93,6 +195,7 @@ public class SecurityConfig {
         
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("ETag", IdempotencyFilter.REPLAYED_HEADER));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
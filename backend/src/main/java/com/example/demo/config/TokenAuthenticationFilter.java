@@ -0,0 +1,68 @@
+package com.example.demo.config;
+
+import com.example.demo.service.AccessTokenService;
+import com.nimbusds.jwt.JWTClaimsSet;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Authenticates requests carrying an {@code Authorization: Bearer} access token issued by
+ * {@link AccessTokenService}. The principal is rebuilt from the token claims as an OIDC user,
+ * so controllers see the same {@code OidcUser} as with session login, with no lookup at all.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AccessTokenService accessTokenService;
+
+    public TokenAuthenticationFilter(AccessTokenService accessTokenService) {
+        this.accessTokenService = accessTokenService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String token = header.substring(BEARER_PREFIX.length()).trim();
+        Optional<JWTClaimsSet> claims = accessTokenService.verify(token);
+        if (claims.isEmpty()) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+
+        JWTClaimsSet claimsSet = claims.get();
+        OidcIdToken idToken = new OidcIdToken(token,
+                claimsSet.getIssueTime().toInstant(),
+                claimsSet.getExpirationTime().toInstant(),
+                claimsSet.getClaims());
+        DefaultOidcUser principal = new DefaultOidcUser(AuthorityUtils.createAuthorityList("OIDC_USER"), idToken);
+        Object provider = claimsSet.getClaim(AccessTokenService.CLAIM_PROVIDER);
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new OAuth2AuthenticationToken(principal, principal.getAuthorities(),
+                provider != null ? provider.toString() : "token"));
+        SecurityContextHolder.setContext(context);
+
+        filterChain.doFilter(request, response);
+    }
+}
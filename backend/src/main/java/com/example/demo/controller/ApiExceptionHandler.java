@@ -0,0 +1,47 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.DomainException;
+import com.example.demo.service.GoogleApiUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Maps service exceptions to error responses for all controllers. Anything not handled here
+ * falls through to Spring's default error handling as a 500.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiExceptionHandler.class);
+
+    @ExceptionHandler(DomainException.class)
+    public ResponseEntity<Map<String, Object>> handleDomainException(DomainException e) {
+        return ResponseEntity.status(e.getStatus()).body(e.getBody());
+    }
+
+    @ExceptionHandler(GoogleApiUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleGoogleApiUnavailable(GoogleApiUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+    }
+
+    // Dates in request parameters and bodies; other bad fields are rejected as InvalidRequestException
+    @ExceptionHandler(DateTimeParseException.class)
+    public ResponseEntity<Map<String, Object>> handleBadDateTime(DateTimeParseException e) {
+        log.debug("Rejected request: {}", e.getMessage());
+        return ResponseEntity.badRequest().body(Map.of("error", "Invalid date or time"));
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String, Object>> handleBadParameter(MethodArgumentTypeMismatchException e) {
+        log.debug("Rejected request: {}", e.getMessage());
+        return ResponseEntity.badRequest().body(Map.of("error", "Invalid " + e.getName()));
+    }
+}
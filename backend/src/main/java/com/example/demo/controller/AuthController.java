@@ -2,92 +2,135 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.UserDto;
 import com.example.demo.entity.User;
+import com.example.demo.service.AccessTokenService;
+import com.example.demo.service.NotFoundException;
+import com.example.demo.service.RefreshTokenService;
 import com.example.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
 public class AuthController {
     
+    // Session mode authenticates by cookie; tokens would not be accepted anywhere
+    private static final ResponseEntity<?> TOKENS_DISABLED = ResponseEntity.status(HttpStatus.NOT_FOUND)
+            .body(Map.of("error", "Access tokens are only issued in stateless session mode"));
+    
     @Autowired
     private UserService userService;
     
     @Autowired
     private ClientRegistrationRepository clientRegistrationRepository;
     
+    @Autowired
+    private AccessTokenService accessTokenService;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
     @GetMapping("/user")
     public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal OidcUser oidcUser) {
-        try {
-            if (oidcUser == null) {
-                return ResponseEntity.badRequest().body(Map.of("error", "User not authenticated"));
-            }
-            
-            String email = oidcUser.getEmail();
-            Optional<User> userOpt = userService.findByEmail(email);
-            
-            if (userOpt.isPresent()) {
-                User user = userOpt.get();
-                UserDto userDto = userService.convertToDto(user);
-                return ResponseEntity.ok(userDto);
-            } else {
-                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
-            }
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        if (oidcUser == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "User not authenticated"));
         }
+        
+        String email = oidcUser.getEmail();
+        User user = userService.findByEmail(email)
+                .orElseThrow(() -> NotFoundException.USER);
+        
+        UserDto userDto = userService.convertToDto(user);
+        return ResponseEntity.ok(userDto);
     }
     
     @GetMapping("/profile/{userId}")
     public ResponseEntity<?> getUserProfile(@PathVariable Long userId) {
-        try {
-            User user = userService.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            UserDto userDto = userService.convertToDto(user);
-            return ResponseEntity.ok(userDto);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        }
+        User user = userService.findById(userId)
+                .orElseThrow(() -> NotFoundException.USER);
+        
+        UserDto userDto = userService.convertToDto(user);
+        return ResponseEntity.ok(userDto);
     }
     
     @GetMapping("/providers")
     public ResponseEntity<?> getAvailableProviders() {
+        List<String> providers = new ArrayList<>();
+        
+        // Check which clients are actually registered
         try {
-            List<String> providers = new ArrayList<>();
-            
-            // Check which clients are actually registered
-            try {
-                var googleReg = clientRegistrationRepository.findByRegistrationId("google");
-                if (googleReg != null) {
-                    providers.add("google");
-                }
-            } catch (Exception e) {
-                // Google not configured
+            var googleReg = clientRegistrationRepository.findByRegistrationId("google");
+            if (googleReg != null) {
+                providers.add("google");
             }
-            
-            try {
-                var appleReg = clientRegistrationRepository.findByRegistrationId("apple");
-                if (appleReg != null) {
-                    providers.add("apple");
-                }
-            } catch (Exception e) {
-                // Apple not configured
+        } catch (Exception e) {
+            // Google not configured
+        }
+        
+        try {
+            var appleReg = clientRegistrationRepository.findByRegistrationId("apple");
+            if (appleReg != null) {
+                providers.add("apple");
             }
-            return ResponseEntity.ok(Map.of("providers", providers));
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            // Apple not configured
+        }
+        return ResponseEntity.ok(Map.of("providers", providers));
+    }
+    
+    @PostMapping("/token")
+    public ResponseEntity<?> issueToken(@AuthenticationPrincipal OidcUser oidcUser,
+                                        OAuth2AuthenticationToken authentication) {
+        if (!accessTokenService.isEnabled()) {
+            return TOKENS_DISABLED;
         }
+        if (oidcUser == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "User not authenticated"));
+        }
+        
+        User user = userService.findByEmail(oidcUser.getEmail())
+                .orElseThrow(() -> NotFoundException.USER);
+        String provider = authentication.getAuthorizedClientRegistrationId();
+        return ResponseEntity.ok(Map.of(
+                "accessToken", accessTokenService.issue(user, provider),
+                "expiresIn", accessTokenService.getTokenTtlSeconds(),
+                "refreshToken", refreshTokenService.issue(user.getId(), provider)));
+    }
+    
+    // Authenticated by the refresh token alone; an expired access token sent along is rejected by the filter
+    @PostMapping("/token/refresh")
+    public ResponseEntity<?> refreshToken(@RequestBody(required = false) Map<String, String> body) {
+        if (!accessTokenService.isEnabled()) {
+            return TOKENS_DISABLED;
+        }
+        String refreshToken = body != null ? body.get("refreshToken") : null;
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Missing refresh token"));
+        }
+        
+        return refreshTokenService.rotate(refreshToken)
+                .<ResponseEntity<?>>map(rotation -> ResponseEntity.ok(Map.of(
+                        "accessToken", accessTokenService.issue(rotation.user(), rotation.provider(),
+                                rotation.authTime().atZone(ZoneId.systemDefault()).toInstant()),
+                        "expiresIn", accessTokenService.getTokenTtlSeconds(),
+                        "refreshToken", rotation.refreshToken())))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Session expired")));
     }
     
+    @PostMapping("/token/revoke")
+    public ResponseEntity<?> revokeToken(@RequestBody(required = false) Map<String, String> body) {
+        refreshTokenService.revoke(body != null ? body.get("refreshToken") : null);
+        return ResponseEntity.noContent().build();
+    }
 }
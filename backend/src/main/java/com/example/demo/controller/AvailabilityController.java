@@ -0,0 +1,39 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.AvailabilityDto;
+import com.example.demo.service.AvailabilityService;
+import com.example.demo.service.NotFoundException;
+import com.example.demo.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@RestController
+@RequestMapping("/api/availability")
+@CrossOrigin(origins = "*")
+public class AvailabilityController {
+    
+    @Autowired
+    private AvailabilityService availabilityService;
+    
+    @Autowired
+    private UserService userService;
+    
+    // Hourly busy minutes from the materialized heatmap; "from" defaults to the current hour
+    @GetMapping("/{userId}")
+    public ResponseEntity<?> getAvailability(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String from,
+            @RequestParam(defaultValue = "14") int days) {
+        if (userService.findById(userId).isEmpty()) {
+            throw NotFoundException.USER;
+        }
+        LocalDateTime start = from != null ? LocalDateTime.parse(from, DateTimeFormatter.ISO_LOCAL_DATE_TIME) : LocalDateTime.now();
+        
+        AvailabilityDto availability = availabilityService.getAvailability(userId, start, days);
+        return ResponseEntity.ok(availability);
+    }
+}
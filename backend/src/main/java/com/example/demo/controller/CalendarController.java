@@ -2,25 +2,32 @@ package com.example.demo.controller;
 
 import com.example.demo.entity.User;
 import com.example.demo.service.GoogleCalendarService;
+import com.example.demo.service.NotFoundException;
 import com.example.demo.service.UserService;
 import com.google.api.services.calendar.model.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.security.GeneralSecurityException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/calendar")
 @CrossOrigin(origins = "*")
 public class CalendarController {
 
+    private static final Logger log = LoggerFactory.getLogger(CalendarController.class);
+
     @Autowired
     private GoogleCalendarService googleCalendarService;
 
@@ -30,64 +37,58 @@ public class CalendarController {
     @GetMapping("/events/upcoming")
     public ResponseEntity<?> getUpcomingEvents(
             @AuthenticationPrincipal OidcUser oidcUser,
-            @RequestParam(defaultValue = "10") int maxResults) {
-        try {
-            if (oidcUser == null) {
-                return ResponseEntity.badRequest().body(Map.of("error", "User not authenticated"));
-            }
-
-            String email = oidcUser.getEmail();
-            Optional<User> userOpt = userService.findByEmail(email);
-
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
-            }
+            @RequestParam(defaultValue = "10") int maxResults) throws GeneralSecurityException, IOException {
+        if (oidcUser == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "User not authenticated"));
+        }
 
-            User user = userOpt.get();
-            List<Event> events = googleCalendarService.getUpcomingEvents(user, maxResults);
+        String email = oidcUser.getEmail();
+        User user = userService.findByEmail(email).orElseThrow(() -> NotFoundException.USER);
+        List<Event> events = googleCalendarService.getUpcomingEvents(user, maxResults);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("events", events);
-            response.put("count", events.size());
+        Map<String, Object> response = new HashMap<>();
+        response.put("events", events);
+        response.put("count", events.size());
 
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        }
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/events/range")
     public ResponseEntity<?> getEventsByDateRange(
             @AuthenticationPrincipal OidcUser oidcUser,
             @RequestParam String startDate,
-            @RequestParam String endDate) {
-        try {
-            if (oidcUser == null) {
-                return ResponseEntity.badRequest().body(Map.of("error", "User not authenticated"));
-            }
-
-            String email = oidcUser.getEmail();
-            Optional<User> userOpt = userService.findByEmail(email);
-
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "User not found"));
-            }
-
-            User user = userOpt.get();
-            LocalDateTime start = LocalDateTime.parse(startDate);
-            LocalDateTime end = LocalDateTime.parse(endDate);
-
-            List<Event> events = googleCalendarService.getUserCalendarEvents(user, start, end);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("events", events);
-            response.put("count", events.size());
-            response.put("startDate", startDate);
-            response.put("endDate", endDate);
-
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            @RequestParam String endDate) throws GeneralSecurityException, IOException {
+        if (oidcUser == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "User not authenticated"));
         }
+
+        String email = oidcUser.getEmail();
+        User user = userService.findByEmail(email).orElseThrow(() -> NotFoundException.USER);
+        LocalDateTime start = LocalDateTime.parse(startDate);
+        LocalDateTime end = LocalDateTime.parse(endDate);
+
+        List<Event> events = googleCalendarService.getUserCalendarEvents(user, start, end);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("events", events);
+        response.put("count", events.size());
+        response.put("startDate", startDate);
+        response.put("endDate", endDate);
+
+        return ResponseEntity.ok(response);
+    }
+
+    // The guard turns failed calls into GoogleApiUnavailableException; these escape while setting a call up
+    @ExceptionHandler(IOException.class)
+    public ResponseEntity<Map<String, Object>> handleGoogleIoFailure(IOException e) {
+        log.warn("Google Calendar request failed: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(Map.of("error", "Google Calendar request failed"));
+    }
+
+    // No trusted transport could be built, so Google cannot be reached from this node at all
+    @ExceptionHandler(GeneralSecurityException.class)
+    public ResponseEntity<Map<String, Object>> handleTransportFailure(GeneralSecurityException e) {
+        log.error("Could not set up a secure connection to Google", e);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Google Calendar is unavailable"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.User;
+import com.example.demo.service.DashboardService;
+import com.example.demo.service.NotFoundException;
+import com.example.demo.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "*")
+public class DashboardController {
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @GetMapping("/{userId}")
+    public ResponseEntity<?> getDashboard(
+            @PathVariable Long userId,
+            @AuthenticationPrincipal OidcUser oidcUser,
+            @RequestParam(defaultValue = "10") int maxEvents) {
+        if (userService.findById(userId).isEmpty()) {
+            throw NotFoundException.USER;
+        }
+        
+        // Calendar events come from the signed-in user's Google account
+        User calendarUser = oidcUser != null ? userService.findByEmail(oidcUser.getEmail()).orElse(null) : null;
+        
+        Map<String, Object> dashboard = dashboardService.getDashboard(userId, calendarUser, maxEvents);
+        return ResponseEntity.ok(dashboard);
+    }
+}
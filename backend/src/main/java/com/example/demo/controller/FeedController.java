@@ -0,0 +1,36 @@
+package com.example.demo.controller;
+
+import com.example.demo.events.ChangeFeedRegistry;
+import com.example.demo.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/feed")
+@CrossOrigin(origins = "*")
+public class FeedController {
+    
+    @Autowired
+    private ChangeFeedRegistry changeFeedRegistry;
+    
+    @Autowired
+    private UserService userService;
+    
+    @GetMapping(value = "/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@PathVariable Long userId, @AuthenticationPrincipal OidcUser oidcUser) {
+        // The feed names friends and meetings, so only its owner may read it
+        boolean owner = oidcUser != null && userService.findByEmail(oidcUser.getEmail())
+                .map(user -> user.getId().equals(userId))
+                .orElse(false);
+        if (!owner) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(changeFeedRegistry.connect(userId));
+    }
+}
@@ -1,10 +1,20 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.FriendDto;
+import com.example.demo.dto.FriendSuggestionDto;
+import com.example.demo.dto.UserSearchResultDto;
+import com.example.demo.service.ForbiddenException;
+import com.example.demo.service.FriendSuggestionService;
 import com.example.demo.service.FriendshipService;
+import com.example.demo.service.UserDataVersionService;
+import com.example.demo.service.UserSearchIndex;
+import com.example.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -17,74 +27,95 @@ public class FriendsController {
     @Autowired
     private FriendshipService friendshipService;
     
+    @Autowired
+    private FriendSuggestionService friendSuggestionService;
+    
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    
+    @Autowired
+    private UserDataVersionService userDataVersionService;
+    
+    @Autowired
+    private UserService userService;
+    
     @GetMapping("/{userId}")
-    public ResponseEntity<List<FriendDto>> getFriends(@PathVariable Long userId) {
-        try {
-            List<FriendDto> friends = friendshipService.getFriends(userId);
-            return ResponseEntity.ok(friends);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+    public ResponseEntity<List<FriendDto>> getFriends(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(userDataVersionService.etag(userId, request))) {
+            return null;
         }
+        List<FriendDto> friends = friendshipService.getFriends(userId);
+        return ResponseEntity.ok(friends);
     }
     
     @GetMapping("/{userId}/close")
-    public ResponseEntity<List<FriendDto>> getCloseFriends(@PathVariable Long userId) {
-        try {
-            List<FriendDto> closeFriends = friendshipService.getCloseFriends(userId);
-            return ResponseEntity.ok(closeFriends);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+    public ResponseEntity<List<FriendDto>> getCloseFriends(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(userDataVersionService.etag(userId, request))) {
+            return null;
         }
+        List<FriendDto> closeFriends = friendshipService.getCloseFriends(userId);
+        return ResponseEntity.ok(closeFriends);
     }
     
     @GetMapping("/{userId}/stats")
-    public ResponseEntity<Map<String, Object>> getDashboardStats(@PathVariable Long userId) {
-        try {
-            Map<String, Object> stats = friendshipService.getDashboardStats(userId);
-            return ResponseEntity.ok(stats);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+    public ResponseEntity<Map<String, Object>> getDashboardStats(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(userDataVersionService.etag(userId, request))) {
+            return null;
         }
+        Map<String, Object> stats = friendshipService.getDashboardStats(userId);
+        return ResponseEntity.ok(stats);
+    }
+    
+    @GetMapping("/{userId}/suggestions")
+    public ResponseEntity<List<FriendSuggestionDto>> getSuggestions(@PathVariable Long userId,
+                                                                    @RequestParam(defaultValue = "10") int limit) {
+        List<FriendSuggestionDto> suggestions = friendSuggestionService.getSuggestions(userId, Math.max(1, Math.min(limit, 50)));
+        return ResponseEntity.ok(suggestions);
+    }
+    
+    @GetMapping("/{userId}/search")
+    public ResponseEntity<List<UserSearchResultDto>> searchUsers(@PathVariable Long userId,
+                                                                 @RequestParam("q") String query,
+                                                                 @RequestParam(defaultValue = "10") int limit) {
+        List<UserSearchResultDto> results = userSearchIndex.search(userId, query, Math.max(1, Math.min(limit, 50)));
+        return ResponseEntity.ok(results);
     }
     
     @PostMapping("/{userId}/add")
     public ResponseEntity<?> addFriend(@PathVariable Long userId, @RequestBody Map<String, String> request) {
-        try {
-            String friendEmail = request.get("email");
-            friendshipService.addFriend(userId, friendEmail);
-            return ResponseEntity.ok(Map.of("message", "Friend request sent successfully"));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        }
+        String friendEmail = request.get("email");
+        friendshipService.addFriend(userId, friendEmail);
+        return ResponseEntity.ok(Map.of("message", "Friend request sent successfully"));
     }
     
     @PutMapping("/{userId}/toggle-close/{friendId}")
     public ResponseEntity<?> toggleCloseFriend(@PathVariable Long userId, @PathVariable Long friendId) {
-        try {
-            friendshipService.toggleCloseFriend(userId, friendId);
-            return ResponseEntity.ok(Map.of("message", "Close friend status updated"));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        }
+        friendshipService.toggleCloseFriend(userId, friendId);
+        return ResponseEntity.ok(Map.of("message", "Close friend status updated"));
     }
     
     @PutMapping("/{userId}/accept/{friendId}")
     public ResponseEntity<?> acceptFriendRequest(@PathVariable Long userId, @PathVariable Long friendId) {
-        try {
-            friendshipService.acceptFriendRequest(userId, friendId);
-            return ResponseEntity.ok(Map.of("message", "Friend request accepted"));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        }
+        friendshipService.acceptFriendRequest(userId, friendId);
+        return ResponseEntity.ok(Map.of("message", "Friend request accepted"));
     }
     
     @PutMapping("/{userId}/reject/{friendId}")
     public ResponseEntity<?> rejectFriendRequest(@PathVariable Long userId, @PathVariable Long friendId) {
-        try {
-            friendshipService.rejectFriendRequest(userId, friendId);
-            return ResponseEntity.ok(Map.of("message", "Friend request rejected"));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        friendshipService.rejectFriendRequest(userId, friendId);
+        return ResponseEntity.ok(Map.of("message", "Friend request rejected"));
+    }
+    
+    @DeleteMapping("/{userId}/remove/{friendId}")
+    public ResponseEntity<?> removeFriend(@PathVariable Long userId, @PathVariable Long friendId,
+                                          @AuthenticationPrincipal OidcUser oidcUser) {
+        boolean owner = oidcUser != null && userService.findByEmail(oidcUser.getEmail())
+                .map(user -> user.getId().equals(userId))
+                .orElse(false);
+        if (!owner) {
+            throw ForbiddenException.NOT_OWNER;
         }
+        friendshipService.removeFriend(userId, friendId);
+        return ResponseEntity.ok(Map.of("message", "Friend removed"));
     }
 }
@@ -1,14 +1,25 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.MeetingConflictDto;
 import com.example.demo.dto.MeetingDto;
+import com.example.demo.dto.MeetingListDto;
 import com.example.demo.entity.Meeting;
+import com.example.demo.entity.MeetingParticipant;
+import com.example.demo.service.InvalidRequestException;
 import com.example.demo.service.MeetingService;
+import com.example.demo.service.NotFoundException;
+import com.example.demo.service.UserDataVersionService;
+import com.example.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -20,73 +31,149 @@ public class MeetingsController {
     @Autowired
     private MeetingService meetingService;
     
+    @Autowired
+    private UserDataVersionService userDataVersionService;
+    
+    @Autowired
+    private UserService userService;
+    
     @GetMapping("/{userId}/upcoming")
-    public ResponseEntity<List<MeetingDto>> getUpcomingMeetings(@PathVariable Long userId) {
-        try {
-            List<MeetingDto> meetings = meetingService.getUpcomingMeetings(userId);
-            return ResponseEntity.ok(meetings);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+    public ResponseEntity<?> getUpcomingMeetings(@PathVariable Long userId,
+                                                 @RequestParam(defaultValue = "full") String view,
+                                                 WebRequest request) {
+        if (request.checkNotModified(userDataVersionService.timeBoundEtag(userId, variant(view), request))) {
+            return null;
         }
+        List<MeetingDto> meetings = meetingService.getUpcomingMeetings(userId);
+        return ResponseEntity.ok(render(meetings, view));
     }
     
     @GetMapping("/{userId}/range")
-    public ResponseEntity<List<MeetingDto>> getMeetingsByDateRange(
+    public ResponseEntity<?> getMeetingsByDateRange(
             @PathVariable Long userId,
             @RequestParam String startDate,
-            @RequestParam String endDate) {
-        try {
-            DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
-            LocalDateTime start = LocalDateTime.parse(startDate, formatter);
-            LocalDateTime end = LocalDateTime.parse(endDate, formatter);
-            
-            List<MeetingDto> meetings = meetingService.getMeetingsByDateRange(userId, start, end);
-            return ResponseEntity.ok(meetings);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+            @RequestParam String endDate,
+            @RequestParam(defaultValue = "full") String view,
+            WebRequest request) {
+        if (request.checkNotModified(userDataVersionService.etag(userId, variant(view), request))) {
+            return null;
+        }
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+        LocalDateTime start = LocalDateTime.parse(startDate, formatter);
+        LocalDateTime end = LocalDateTime.parse(endDate, formatter);
+        
+        List<MeetingDto> meetings = meetingService.getMeetingsByDateRange(userId, start, end);
+        return ResponseEntity.ok(render(meetings, view));
+    }
+    
+    @GetMapping("/conflicts")
+    public ResponseEntity<?> checkConflicts(
+            @RequestParam Long organizerId,
+            @RequestParam(required = false) Long friendId,
+            @RequestParam(required = false) List<Long> participantIds,
+            @RequestParam String startTime,
+            @RequestParam String endTime) {
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+        LocalDateTime start = LocalDateTime.parse(startTime, formatter);
+        LocalDateTime end = LocalDateTime.parse(endTime, formatter);
+        
+        List<Long> userIds = new ArrayList<>();
+        userIds.add(organizerId);
+        if (participantIds != null) {
+            userIds.addAll(participantIds);
+        } else if (friendId != null) {
+            userIds.add(friendId);
+        } else {
+            throw new InvalidRequestException("Missing friendId or participantIds");
         }
+        MeetingConflictDto conflict = meetingService.checkConflicts(userIds, start, end);
+        return ResponseEntity.ok(conflict);
     }
     
     @PostMapping("/create")
     public ResponseEntity<?> createMeeting(@RequestBody Map<String, Object> request) {
-        try {
-            Long organizerId = Long.valueOf(request.get("organizerId").toString());
-            Long friendId = Long.valueOf(request.get("friendId").toString());
-            String title = (String) request.get("title");
-            String description = (String) request.get("description");
-            String location = (String) request.get("location");
-            
-            DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
-            LocalDateTime startTime = LocalDateTime.parse((String) request.get("startTime"), formatter);
-            LocalDateTime endTime = LocalDateTime.parse((String) request.get("endTime"), formatter);
-            
-            MeetingDto meeting = meetingService.createMeeting(organizerId, friendId, title, description, startTime, endTime, location);
-            return ResponseEntity.ok(meeting);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        }
+        Long organizerId = id(required(request, "organizerId"), "organizerId");
+        List<Long> inviteeIds = inviteeIds(request);
+        String title = (String) request.get("title");
+        String description = (String) request.get("description");
+        String location = (String) request.get("location");
+        
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+        LocalDateTime startTime = LocalDateTime.parse(required(request, "startTime").toString(), formatter);
+        LocalDateTime endTime = LocalDateTime.parse(required(request, "endTime").toString(), formatter);
+        
+        MeetingDto meeting = meetingService.createMeeting(organizerId, inviteeIds, title, description, startTime, endTime, location);
+        return ResponseEntity.ok(meeting);
     }
     
     @PutMapping("/{meetingId}/status")
     public ResponseEntity<?> updateMeetingStatus(
             @PathVariable Long meetingId,
             @RequestBody Map<String, String> request) {
-        try {
-            String status = request.get("status");
-            MeetingDto meeting = meetingService.updateMeetingStatus(meetingId, Meeting.MeetingStatus.valueOf(status));
-            return ResponseEntity.ok(meeting);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        }
+        String status = required(request, "status");
+        MeetingDto meeting = meetingService.updateMeetingStatus(meetingId, parse(Meeting.MeetingStatus.class, status, "status"));
+        return ResponseEntity.ok(meeting);
+    }
+    
+    @PutMapping("/{meetingId}/rsvp")
+    public ResponseEntity<?> respond(
+            @PathVariable Long meetingId,
+            @RequestBody Map<String, Object> request,
+            @AuthenticationPrincipal OidcUser oidcUser) {
+        // Only the signed-in user's own RSVP can be changed
+        Long userId = userService.findByEmail(oidcUser.getEmail())
+                .orElseThrow(() -> NotFoundException.USER)
+                .getId();
+        String status = required(request, "status").toString();
+        MeetingDto meeting = meetingService.respond(meetingId, userId, parse(MeetingParticipant.RsvpStatus.class, status, "status"));
+        return ResponseEntity.ok(meeting);
     }
     
     @DeleteMapping("/{meetingId}")
     public ResponseEntity<?> deleteMeeting(@PathVariable Long meetingId) {
+        meetingService.deleteMeeting(meetingId);
+        return ResponseEntity.ok(Map.of("message", "Meeting deleted successfully"));
+    }
+    
+    private static <T> T required(Map<String, T> request, String field) {
+        T value = request.get(field);
+        if (value == null) {
+            throw new InvalidRequestException("Missing " + field);
+        }
+        return value;
+    }
+    
+    private static Long id(Object value, String field) {
+        try {
+            return Long.valueOf(String.valueOf(value));
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid " + field);
+        }
+    }
+    
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, String field) {
         try {
-            meetingService.deleteMeeting(meetingId);
-            return ResponseEntity.ok(Map.of("message", "Meeting deleted successfully"));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid " + field);
+        }
+    }
+    
+    // Group meetings list everyone in "participantIds"; one-on-one clients still send "friendId"
+    private static List<Long> inviteeIds(Map<String, Object> request) {
+        if (request.get("participantIds") instanceof List<?> ids) {
+            return ids.stream().map(id -> id(id, "participantIds")).toList();
         }
+        return List.of(id(required(request, "friendId"), "friendId"));
+    }
+    
+    // "compact" side-loads each participant once instead of embedding them in every meeting
+    private Object render(List<MeetingDto> meetings, String view) {
+        return "compact".equals(view) ? MeetingListDto.from(meetings) : meetings;
+    }
+    
+    // Each view is a different body, so it needs its own ETag
+    private static String variant(String view) {
+        return "compact".equals(view) ? "compact" : "full";
     }
 }
@@ -0,0 +1,56 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hourly busy minutes (0-60) for a user, starting at {@code from}: {@code busyMinutes[i]} is the hour
+ * starting {@code i} hours later.
+ */
+public class AvailabilityDto {
+    private Long userId;
+    private LocalDateTime from;
+    private int bucketMinutes;
+    private int[] busyMinutes;
+    
+    public AvailabilityDto() {}
+    
+    public AvailabilityDto(Long userId, LocalDateTime from, int bucketMinutes, int[] busyMinutes) {
+        this.userId = userId;
+        this.from = from;
+        this.bucketMinutes = bucketMinutes;
+        this.busyMinutes = busyMinutes;
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+    
+    public int getBucketMinutes() {
+        return bucketMinutes;
+    }
+    
+    public void setBucketMinutes(int bucketMinutes) {
+        this.bucketMinutes = bucketMinutes;
+    }
+    
+    public int[] getBusyMinutes() {
+        return busyMinutes;
+    }
+    
+    public void setBusyMinutes(int[] busyMinutes) {
+        this.busyMinutes = busyMinutes;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A meeting that references its participants by ID; see {@link MeetingListDto}.
+ */
+public class CompactMeetingDto {
+    private Long id;
+    private String title;
+    private String description;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String location;
+    private Long organizerId;
+    private Long friendId;
+    private String status;
+    private LocalDateTime createdAt;
+    private List<CompactParticipantDto> participants;
+    
+    public CompactMeetingDto() {}
+    
+    public CompactMeetingDto(Long id, String title, String description, LocalDateTime startTime,
+                             LocalDateTime endTime, String location, Long organizerId, Long friendId,
+                             String status, LocalDateTime createdAt, List<CompactParticipantDto> participants) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.location = location;
+        this.organizerId = organizerId;
+        this.friendId = friendId;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.participants = participants;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+    
+    public String getLocation() {
+        return location;
+    }
+    
+    public void setLocation(String location) {
+        this.location = location;
+    }
+    
+    public Long getOrganizerId() {
+        return organizerId;
+    }
+    
+    public void setOrganizerId(Long organizerId) {
+        this.organizerId = organizerId;
+    }
+    
+    public Long getFriendId() {
+        return friendId;
+    }
+    
+    public void setFriendId(Long friendId) {
+        this.friendId = friendId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public List<CompactParticipantDto> getParticipants() {
+        return participants;
+    }
+    
+    public void setParticipants(List<CompactParticipantDto> participants) {
+        this.participants = participants;
+    }
+}
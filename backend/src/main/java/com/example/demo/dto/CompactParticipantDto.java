@@ -0,0 +1,45 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A participant that references its user by ID; see {@link MeetingListDto}.
+ */
+public class CompactParticipantDto {
+    private Long userId;
+    private String rsvpStatus;
+    private LocalDateTime respondedAt;
+    
+    public CompactParticipantDto() {}
+    
+    public CompactParticipantDto(Long userId, String rsvpStatus, LocalDateTime respondedAt) {
+        this.userId = userId;
+        this.rsvpStatus = rsvpStatus;
+        this.respondedAt = respondedAt;
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getRsvpStatus() {
+        return rsvpStatus;
+    }
+    
+    public void setRsvpStatus(String rsvpStatus) {
+        this.rsvpStatus = rsvpStatus;
+    }
+    
+    public LocalDateTime getRespondedAt() {
+        return respondedAt;
+    }
+    
+    public void setRespondedAt(LocalDateTime respondedAt) {
+        this.respondedAt = respondedAt;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class MeetingConflictDto {
+    private List<MeetingDto> conflicts;
+    private List<TimeSlotDto> suggestions;
+    
+    public MeetingConflictDto() {}
+    
+    public MeetingConflictDto(List<MeetingDto> conflicts, List<TimeSlotDto> suggestions) {
+        this.conflicts = conflicts;
+        this.suggestions = suggestions;
+    }
+    
+    public boolean hasConflicts() {
+        return conflicts != null && !conflicts.isEmpty();
+    }
+    
+    // Getters and Setters
+    public List<MeetingDto> getConflicts() {
+        return conflicts;
+    }
+    
+    public void setConflicts(List<MeetingDto> conflicts) {
+        this.conflicts = conflicts;
+    }
+    
+    public List<TimeSlotDto> getSuggestions() {
+        return suggestions;
+    }
+    
+    public void setSuggestions(List<TimeSlotDto> suggestions) {
+        this.suggestions = suggestions;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.demo.dto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class MeetingDto {
     private Long id;
@@ -13,12 +14,13 @@ public class MeetingDto {
     private UserDto friend;
     private String status;
     private LocalDateTime createdAt;
+    private List<ParticipantDto> participants;
     
     public MeetingDto() {}
     
     public MeetingDto(Long id, String title, String description, LocalDateTime startTime, 
                      LocalDateTime endTime, String location, UserDto organizer, UserDto friend, 
-                     String status, LocalDateTime createdAt) {
+                     String status, LocalDateTime createdAt, List<ParticipantDto> participants) {
         this.id = id;
         this.title = title;
         this.description = description;
@@ -29,6 +31,7 @@ public class MeetingDto {
         this.friend = friend;
         this.status = status;
         this.createdAt = createdAt;
+        this.participants = participants;
     }
     
     // Getters and Setters
@@ -111,4 +114,12 @@ public class MeetingDto {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+    
+    public List<ParticipantDto> getParticipants() {
+        return participants;
+    }
+    
+    public void setParticipants(List<ParticipantDto> participants) {
+        this.participants = participants;
+    }
 }
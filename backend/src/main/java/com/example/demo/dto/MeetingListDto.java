@@ -0,0 +1,69 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Compact meeting list: each participant appears once in {@code users}, keyed by ID,
+ * instead of being embedded in every meeting.
+ */
+public class MeetingListDto {
+    private List<CompactMeetingDto> meetings;
+    private Map<Long, UserDto> users;
+    
+    public MeetingListDto() {}
+    
+    public MeetingListDto(List<CompactMeetingDto> meetings, Map<Long, UserDto> users) {
+        this.meetings = meetings;
+        this.users = users;
+    }
+    
+    public static MeetingListDto from(List<MeetingDto> meetings) {
+        Map<Long, UserDto> users = new LinkedHashMap<>();
+        List<CompactMeetingDto> compactMeetings = meetings.stream()
+                .map(meeting -> {
+                    users.putIfAbsent(meeting.getOrganizer().getId(), meeting.getOrganizer());
+                    users.putIfAbsent(meeting.getFriend().getId(), meeting.getFriend());
+                    List<CompactParticipantDto> participants = new ArrayList<>(meeting.getParticipants().size());
+                    for (ParticipantDto participant : meeting.getParticipants()) {
+                        users.putIfAbsent(participant.getUser().getId(), participant.getUser());
+                        participants.add(new CompactParticipantDto(participant.getUser().getId(),
+                                participant.getRsvpStatus(), participant.getRespondedAt()));
+                    }
+                    return new CompactMeetingDto(
+                            meeting.getId(),
+                            meeting.getTitle(),
+                            meeting.getDescription(),
+                            meeting.getStartTime(),
+                            meeting.getEndTime(),
+                            meeting.getLocation(),
+                            meeting.getOrganizer().getId(),
+                            meeting.getFriend().getId(),
+                            meeting.getStatus(),
+                            meeting.getCreatedAt(),
+                            participants);
+                })
+                .collect(Collectors.toList());
+        return new MeetingListDto(compactMeetings, users);
+    }
+    
+    // Getters and Setters
+    public List<CompactMeetingDto> getMeetings() {
+        return meetings;
+    }
+    
+    public void setMeetings(List<CompactMeetingDto> meetings) {
+        this.meetings = meetings;
+    }
+    
+    public Map<Long, UserDto> getUsers() {
+        return users;
+    }
+    
+    public void setUsers(Map<Long, UserDto> users) {
+        this.users = users;
+    }
+}
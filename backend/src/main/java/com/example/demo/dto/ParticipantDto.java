@@ -0,0 +1,42 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+public class ParticipantDto {
+    private UserDto user;
+    private String rsvpStatus;
+    private LocalDateTime respondedAt;
+    
+    public ParticipantDto() {}
+    
+    public ParticipantDto(UserDto user, String rsvpStatus, LocalDateTime respondedAt) {
+        this.user = user;
+        this.rsvpStatus = rsvpStatus;
+        this.respondedAt = respondedAt;
+    }
+    
+    // Getters and Setters
+    public UserDto getUser() {
+        return user;
+    }
+    
+    public void setUser(UserDto user) {
+        this.user = user;
+    }
+    
+    public String getRsvpStatus() {
+        return rsvpStatus;
+    }
+    
+    public void setRsvpStatus(String rsvpStatus) {
+        this.rsvpStatus = rsvpStatus;
+    }
+    
+    public LocalDateTime getRespondedAt() {
+        return respondedAt;
+    }
+    
+    public void setRespondedAt(LocalDateTime respondedAt) {
+        this.respondedAt = respondedAt;
+    }
+}
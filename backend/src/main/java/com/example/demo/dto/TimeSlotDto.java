@@ -0,0 +1,32 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+public class TimeSlotDto {
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    
+    public TimeSlotDto() {}
+    
+    public TimeSlotDto(LocalDateTime startTime, LocalDateTime endTime) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+    
+    // Getters and Setters
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+    
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+    
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+    
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+}
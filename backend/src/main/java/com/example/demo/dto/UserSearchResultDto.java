@@ -0,0 +1,71 @@
+package com.example.demo.dto;
+
+public class UserSearchResultDto {
+    private Long id;
+    private String name;
+    private String email;
+    private String profilePictureUrl;
+    private String relationship;
+    private Integer mutualFriends;
+    
+    public UserSearchResultDto() {}
+    
+    public UserSearchResultDto(Long id, String name, String email, String profilePictureUrl,
+                               String relationship, Integer mutualFriends) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.profilePictureUrl = profilePictureUrl;
+        this.relationship = relationship;
+        this.mutualFriends = mutualFriends;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getProfilePictureUrl() {
+        return profilePictureUrl;
+    }
+    
+    public void setProfilePictureUrl(String profilePictureUrl) {
+        this.profilePictureUrl = profilePictureUrl;
+    }
+    
+    public String getRelationship() {
+        return relationship;
+    }
+    
+    public void setRelationship(String relationship) {
+        this.relationship = relationship;
+    }
+    
+    public Integer getMutualFriends() {
+        return mutualFriends;
+    }
+    
+    public void setMutualFriends(Integer mutualFriends) {
+        this.mutualFriends = mutualFriends;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Busy minutes for one user in one clock hour, split by source so a calendar sync can correct its
+ * own share without touching meeting deltas. The sums can exceed 60 when events overlap; readers cap them.
+ */
+@Entity
+@Table(name = "availability_buckets",
+        uniqueConstraints = @UniqueConstraint(name = "uk_availability_buckets_user_start", columnNames = {"user_id", "bucket_start"}))
+public class AvailabilityBucket {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "meeting_minutes", nullable = false)
+    private int meetingMinutes;
+    
+    @Column(name = "calendar_minutes", nullable = false)
+    private int calendarMinutes;
+    
+    // Constructors
+    public AvailabilityBucket() {}
+    
+    public AvailabilityBucket(Long userId, LocalDateTime bucketStart, int meetingMinutes, int calendarMinutes) {
+        this.userId = userId;
+        this.bucketStart = bucketStart;
+        this.meetingMinutes = meetingMinutes;
+        this.calendarMinutes = calendarMinutes;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public int getMeetingMinutes() {
+        return meetingMinutes;
+    }
+    
+    public void setMeetingMinutes(int meetingMinutes) {
+        this.meetingMinutes = meetingMinutes;
+    }
+    
+    public int getCalendarMinutes() {
+        return calendarMinutes;
+    }
+    
+    public void setCalendarMinutes(int calendarMinutes) {
+        this.calendarMinutes = calendarMinutes;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "change_events", indexes = @Index(name = "idx_change_events_created_at", columnList = "created_at"))
+public class ChangeEventRecord {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String type;
+    
+    @Column(name = "actor_id")
+    private Long actorId;
+    
+    // Comma-separated user IDs
+    @Column(name = "user_ids", nullable = false)
+    private String userIds;
+    
+    @Column(name = "entity_id")
+    private Long entityId;
+    
+    @Column(name = "origin_node", nullable = false)
+    private String originNode;
+    
+    // Database time, so pruning and event timestamps do not depend on each writer's clock
+    @CreationTimestamp(source = SourceType.DB)
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public ChangeEventRecord() {}
+    
+    public ChangeEventRecord(String type, Long actorId, String userIds, Long entityId, String originNode) {
+        this.type = type;
+        this.actorId = actorId;
+        this.userIds = userIds;
+        this.entityId = entityId;
+        this.originNode = originNode;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public Long getActorId() {
+        return actorId;
+    }
+    
+    public void setActorId(Long actorId) {
+        this.actorId = actorId;
+    }
+    
+    public String getUserIds() {
+        return userIds;
+    }
+    
+    public void setUserIds(String userIds) {
+        this.userIds = userIds;
+    }
+    
+    public Long getEntityId() {
+        return entityId;
+    }
+    
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+    
+    public String getOriginNode() {
+        return originNode;
+    }
+    
+    public void setOriginNode(String originNode) {
+        this.originNode = originNode;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
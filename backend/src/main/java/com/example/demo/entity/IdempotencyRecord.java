@@ -0,0 +1,104 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_idempotency_keys_owner", columnList = "owner_hash, expires_at")
+})
+public class IdempotencyRecord {
+    
+    // SHA-256 of the user, endpoint and client key
+    @Id
+    @Column(name = "key_hash", length = 64)
+    private String keyHash;
+    
+    // SHA-256 of the user, so the keys each user holds can be capped
+    @Column(name = "owner_hash", nullable = false, length = 64)
+    private String ownerHash;
+    
+    // SHA-256 of the request body, so a key reused for a different request is rejected
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+    
+    // 0 while the first request is still running
+    @Column(name = "response_status", nullable = false)
+    private int responseStatus;
+    
+    @Column(name = "content_type")
+    private String contentType;
+    
+    @Lob
+    @Column(name = "response_body")
+    private byte[] responseBody;
+    
+    // Database time; while in progress, when a crashed node's claim lapses
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Constructors
+    public IdempotencyRecord() {}
+    
+    public boolean isCompleted() {
+        return responseStatus != 0;
+    }
+    
+    // Getters and Setters
+    public String getKeyHash() {
+        return keyHash;
+    }
+    
+    public void setKeyHash(String keyHash) {
+        this.keyHash = keyHash;
+    }
+    
+    public String getOwnerHash() {
+        return ownerHash;
+    }
+    
+    public void setOwnerHash(String ownerHash) {
+        this.ownerHash = ownerHash;
+    }
+    
+    public String getRequestHash() {
+        return requestHash;
+    }
+    
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+    
+    public int getResponseStatus() {
+        return responseStatus;
+    }
+    
+    public void setResponseStatus(int responseStatus) {
+        this.responseStatus = responseStatus;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public byte[] getResponseBody() {
+        return responseBody;
+    }
+    
+    public void setResponseBody(byte[] responseBody) {
+        this.responseBody = responseBody;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
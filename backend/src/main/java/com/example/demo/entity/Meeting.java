@@ -4,7 +4,7 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "meetings")
+@Table(name = "meetings", indexes = @Index(name = "idx_meetings_start", columnList = "start_time"))
 public class Meeting {
     
     @Id
@@ -30,6 +30,7 @@ public class Meeting {
     @JoinColumn(name = "organizer_id", nullable = false)
     private User organizer;
     
+    // First invitee; everyone taking part, organizer included, is in meeting_participants
     @ManyToOne
     @JoinColumn(name = "friend_id", nullable = false)
     private User friend;
@@ -0,0 +1,132 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A user invited to a meeting, organizer included, with their RSVP. The meeting's start and end
+ * are copied onto each row so "meetings for user X between Y and Z" is a range scan of the
+ * (user_id, start_time) index without touching the meetings table. Meetings cannot be moved, so
+ * the copies never go stale.
+ */
+@Entity
+@Table(name = "meeting_participants",
+        uniqueConstraints = @UniqueConstraint(name = "uk_meeting_participants_meeting_user", columnNames = {"meeting_id", "user_id"}),
+        indexes = @Index(name = "idx_meeting_participants_user_start", columnList = "user_id, start_time"))
+public class MeetingParticipant {
+
+    // Sequence IDs (unlike IDENTITY) let Hibernate batch the inserts for large groups
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meeting_participants_seq")
+    @SequenceGenerator(name = "meeting_participants_seq", sequenceName = "meeting_participants_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "meeting_id", nullable = false)
+    private Meeting meeting;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rsvp_status", nullable = false)
+    private RsvpStatus rsvpStatus = RsvpStatus.INVITED;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(name = "responded_at")
+    private LocalDateTime respondedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public enum RsvpStatus {
+        INVITED, ACCEPTED, TENTATIVE, DECLINED
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public MeetingParticipant() {}
+
+    public MeetingParticipant(Meeting meeting, User user, RsvpStatus rsvpStatus) {
+        this.meeting = meeting;
+        this.user = user;
+        this.rsvpStatus = rsvpStatus;
+        this.startTime = meeting.getStartTime();
+        this.endTime = meeting.getEndTime();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Meeting getMeeting() {
+        return meeting;
+    }
+
+    public void setMeeting(Meeting meeting) {
+        this.meeting = meeting;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public RsvpStatus getRsvpStatus() {
+        return rsvpStatus;
+    }
+
+    public void setRsvpStatus(RsvpStatus rsvpStatus) {
+        this.rsvpStatus = rsvpStatus;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public LocalDateTime getRespondedAt() {
+        return respondedAt;
+    }
+
+    public void setRespondedAt(LocalDateTime respondedAt) {
+        this.respondedAt = respondedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
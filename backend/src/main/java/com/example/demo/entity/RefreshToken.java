@@ -0,0 +1,129 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+})
+public class RefreshToken {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // SHA-256 of the token; the token itself is only ever known to the client
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+    
+    // All tokens rotated from the same login; reuse of a rotated token revokes the family
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(nullable = false)
+    private String provider;
+    
+    @Column(name = "auth_time", nullable = false)
+    private LocalDateTime authTime;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public RefreshToken() {}
+    
+    public RefreshToken(String tokenHash, String familyId, Long userId, String provider,
+                        LocalDateTime authTime, LocalDateTime expiresAt, LocalDateTime createdAt) {
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.userId = userId;
+        this.provider = provider;
+        this.authTime = authTime;
+        this.expiresAt = expiresAt;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getTokenHash() {
+        return tokenHash;
+    }
+    
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+    
+    public String getFamilyId() {
+        return familyId;
+    }
+    
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getProvider() {
+        return provider;
+    }
+    
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+    
+    public LocalDateTime getAuthTime() {
+        return authTime;
+    }
+    
+    public void setAuthTime(LocalDateTime authTime) {
+        this.authTime = authTime;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public LocalDateTime getUsedAt() {
+        return usedAt;
+    }
+    
+    public void setUsedAt(LocalDateTime usedAt) {
+        this.usedAt = usedAt;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "scheduler_leases")
+public class SchedulerLease {
+    
+    @Id
+    private String name;
+    
+    // Node ID of the current holder
+    @Column(nullable = false)
+    private String owner;
+    
+    // Database time, so node clocks never decide who holds a lease
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Constructors
+    public SchedulerLease() {}
+    
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getOwner() {
+        return owner;
+    }
+    
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
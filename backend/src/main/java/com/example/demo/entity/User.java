@@ -6,7 +6,7 @@ import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_token_expires_at", columnList = "token_expires_at"))
 public class User {
     
     @Id
@@ -35,6 +35,13 @@ public class User {
     @Column(name = "refresh_token")
     private String refreshToken;
     
+    @Column(name = "token_expires_at")
+    private LocalDateTime tokenExpiresAt;
+    
+    // Earliest time the background refresh may try this token again after claiming it
+    @Column(name = "next_refresh_attempt")
+    private LocalDateTime nextRefreshAttempt;
+    
     @Column(name = "profile_picture_url")
     private String profilePictureUrl;
     
@@ -137,6 +144,22 @@ public class User {
         this.refreshToken = refreshToken;
     }
     
+    public LocalDateTime getTokenExpiresAt() {
+        return tokenExpiresAt;
+    }
+    
+    public void setTokenExpiresAt(LocalDateTime tokenExpiresAt) {
+        this.tokenExpiresAt = tokenExpiresAt;
+    }
+    
+    public LocalDateTime getNextRefreshAttempt() {
+        return nextRefreshAttempt;
+    }
+    
+    public void setNextRefreshAttempt(LocalDateTime nextRefreshAttempt) {
+        this.nextRefreshAttempt = nextRefreshAttempt;
+    }
+    
     public String getProfilePictureUrl() {
         return profilePictureUrl;
     }
@@ -0,0 +1,44 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Per-user counter bumped by every friendship or meeting change that user can see.
+ * Backs the ETags on friend, stats and meeting endpoints.
+ */
+@Entity
+@Table(name = "user_data_versions")
+public class UserDataVersion {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "data_version", nullable = false)
+    private Long dataVersion;
+    
+    // Constructors
+    public UserDataVersion() {}
+    
+    public UserDataVersion(Long userId, Long dataVersion) {
+        this.userId = userId;
+        this.dataVersion = dataVersion;
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getDataVersion() {
+        return dataVersion;
+    }
+    
+    public void setDataVersion(Long dataVersion) {
+        this.dataVersion = dataVersion;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.events;
+
+import java.util.List;
+
+/**
+ * A committed change to users, friendships or meetings.
+ *
+ * @param type       what happened
+ * @param actorId    the user who made the change, if known
+ * @param userIds    every user whose view of the data is affected
+ * @param entityId   ID of the changed user, friendship or meeting
+ * @param originNode node that made the change
+ * @param timestamp  epoch millis when the change was published
+ */
+public record ChangeEvent(Type type, Long actorId, List<Long> userIds, Long entityId, String originNode, long timestamp) {
+
+    public enum Type {
+        USER_UPDATED,
+        USER_DELETED,
+        FRIEND_REQUEST_SENT,
+        FRIEND_REQUEST_ACCEPTED,
+        FRIEND_REQUEST_REJECTED,
+        FRIENDSHIP_REMOVED,
+        CLOSE_FRIEND_TOGGLED,
+        MEETING_CREATED,
+        MEETING_STATUS_CHANGED,
+        MEETING_RSVP_CHANGED,
+        MEETING_DELETED
+    }
+}
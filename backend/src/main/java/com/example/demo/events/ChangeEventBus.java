@@ -0,0 +1,77 @@
+package com.example.demo.events;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Publishes friendship and meeting changes to in-process listeners (caches, indexes, feeds)
+ * on this node and, through the configured {@link ChangeEventTransport}, on every other node.
+ * Local listeners run after the writing transaction commits; remote nodes catch up
+ * asynchronously, bounded by the transport's delivery delay. Writes that must commit or roll
+ * back with the change itself use {@link #subscribeInTransaction}.
+ */
+@Component
+public class ChangeEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeEventBus.class);
+
+    @Autowired
+    private ChangeEventTransport transport;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<ChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<ChangeEvent>> transactionalListeners = new CopyOnWriteArrayList<>();
+
+    public ChangeEventBus() {}
+
+    ChangeEventBus(ChangeEventTransport transport) {
+        this.transport = transport;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        transport.subscribe(nodeId, this::dispatch);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void subscribe(Consumer<ChangeEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Runs the listener inside the publishing transaction, on the publishing node only. A failure
+     * rolls the change back.
+     */
+    public void subscribeInTransaction(Consumer<ChangeEvent> listener) {
+        transactionalListeners.add(listener);
+    }
+
+    public void publish(ChangeEvent.Type type, Long actorId, List<Long> userIds, Long entityId) {
+        ChangeEvent event = new ChangeEvent(type, actorId, List.copyOf(userIds), entityId, nodeId, System.currentTimeMillis());
+        transactionalListeners.forEach(listener -> listener.accept(event));
+        transport.publish(event);
+        AfterCommit.run(() -> dispatch(event));
+    }
+
+    private void dispatch(ChangeEvent event) {
+        for (Consumer<ChangeEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("Change event listener failed for {}", event.type(), e);
+            }
+        }
+    }
+}
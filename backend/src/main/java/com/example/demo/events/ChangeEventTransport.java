@@ -0,0 +1,18 @@
+package com.example.demo.events;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries change events between nodes. {@link #publish} is called inside the writing
+ * transaction when there is one, so a transport can store the event atomically with the
+ * change. Events a node publishes itself are delivered locally by {@link ChangeEventBus}.
+ */
+public interface ChangeEventTransport {
+
+    void publish(ChangeEvent event);
+
+    /**
+     * Registers a listener for events that did not originate from {@code nodeId}.
+     */
+    void subscribe(String nodeId, Consumer<ChangeEvent> listener);
+}
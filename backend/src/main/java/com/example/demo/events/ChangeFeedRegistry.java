@@ -0,0 +1,227 @@
+package com.example.demo.events;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams friendship and meeting changes to connected clients over Server-Sent Events.
+ *
+ * <p>Connections are async servlet responses, so an idle client holds no thread. Each
+ * connection drains its own outbox on a virtual thread, which keeps events in order per
+ * client and stops one slow client from delaying the rest. A client that falls more than
+ * {@code app.feed.max-pending-events} behind is disconnected rather than buffered without limit.
+ *
+ * <p>Events are not stored, so they carry no SSE id and there is no replay: an event sent while a
+ * client was disconnected is lost. Every stream starts with a {@code connected} event, and clients
+ * must refetch the state they show when they receive it on a reconnect.
+ */
+@Component
+public class ChangeFeedRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedRegistry.class);
+
+    private static final Set<ChangeEvent.Type> FEED_TYPES = EnumSet.of(
+            ChangeEvent.Type.FRIEND_REQUEST_SENT,
+            ChangeEvent.Type.FRIEND_REQUEST_ACCEPTED,
+            ChangeEvent.Type.FRIEND_REQUEST_REJECTED,
+            ChangeEvent.Type.FRIENDSHIP_REMOVED,
+            ChangeEvent.Type.CLOSE_FRIEND_TOGGLED,
+            ChangeEvent.Type.MEETING_CREATED,
+            ChangeEvent.Type.MEETING_STATUS_CHANGED,
+            ChangeEvent.Type.MEETING_RSVP_CHANGED,
+            ChangeEvent.Type.MEETING_DELETED);
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Value("${app.feed.connection-timeout-ms:1800000}")
+    private long connectionTimeoutMillis;
+
+    @Value("${app.feed.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${app.feed.max-pending-events:1000}")
+    private int maxPendingEvents;
+
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PostConstruct
+    void subscribe() {
+        changeEventBus.subscribe(this::deliver);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        connections.values().forEach(userConnections -> userConnections.forEach(connection -> connection.emitter.complete()));
+        senders.shutdownNow();
+    }
+
+    public SseEmitter connect(Long userId) {
+        SseEmitter emitter = new SseEmitter(connectionTimeoutMillis);
+        Connection connection = new Connection(userId, emitter);
+
+        Set<Connection> existing = connections.getOrDefault(userId, Set.of());
+        if (existing.size() >= maxConnectionsPerUser) {
+            // Over the cap (e.g. leaked tabs): close an existing stream rather than refuse the new one
+            existing.stream().findAny().ifPresent(this::close);
+        }
+        connections.compute(userId, (id, userConnections) -> {
+            Set<Connection> updated = userConnections != null ? userConnections : ConcurrentHashMap.newKeySet();
+            updated.add(connection);
+            return updated;
+        });
+        connectionCount.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(error -> remove(connection));
+
+        connection.enqueue(SseEmitter.event().name("connected").reconnectTime(5000).data(Map.of("userId", userId)));
+        return emitter;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Sends an event to the user's streams on this node only, for notifications that every node
+     * produces for its own connections rather than publishing through the bus.
+     *
+     * @return whether the user has a stream open on this node
+     */
+    public boolean sendToUser(Long userId, String name, Object data) {
+        Set<Connection> userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return false;
+        }
+        for (Connection connection : userConnections) {
+            connection.enqueue(SseEmitter.event().name(name).data(data));
+        }
+        return true;
+    }
+
+    @Scheduled(fixedRateString = "${app.feed.heartbeat-interval-ms:25000}")
+    public void sendHeartbeats() {
+        // Keeps proxies from closing idle streams and surfaces dead clients
+        for (Set<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                connection.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    private void deliver(ChangeEvent event) {
+        if (!FEED_TYPES.contains(event.type())) {
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("type", event.type().name());
+        data.put("actorId", event.actorId());
+        data.put("entityId", event.entityId());
+        data.put("timestamp", event.timestamp());
+
+        for (Long userId : event.userIds()) {
+            Set<Connection> userConnections = connections.get(userId);
+            if (userConnections == null) {
+                continue;
+            }
+            for (Connection connection : userConnections) {
+                connection.enqueue(SseEmitter.event().name(event.type().name()).data(data));
+            }
+        }
+    }
+
+    private void close(Connection connection) {
+        remove(connection);
+        // complete() waits for a send in progress, which blocks while the client isn't reading
+        senders.execute(connection.emitter::complete);
+    }
+
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.userId, (id, userConnections) -> {
+            if (userConnections.remove(connection)) {
+                connectionCount.decrementAndGet();
+            }
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    private final class Connection {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean dropped = new AtomicBoolean();
+
+        Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (dropped.get()) {
+                return;
+            }
+            if (pending.incrementAndGet() > maxPendingEvents) {
+                // The client stopped reading; it refetches when it reconnects
+                log.debug("Dropping feed connection for user {}: {} events pending", userId, maxPendingEvents);
+                drop();
+                return;
+            }
+            outbox.add(event);
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = outbox.poll()) != null) {
+                    pending.decrementAndGet();
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        log.debug("Dropping feed connection for user {}: {}", userId, e.getMessage());
+                        drop();
+                        return;
+                    }
+                }
+                draining.set(false);
+                // An event may have arrived between the last poll and releasing the flag
+            } while (!outbox.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void drop() {
+            if (dropped.compareAndSet(false, true)) {
+                outbox.clear();
+                close(this);
+            }
+        }
+    }
+}
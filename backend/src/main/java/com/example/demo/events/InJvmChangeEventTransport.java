@@ -0,0 +1,37 @@
+package com.example.demo.events;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transport for a single node, and for tests that simulate several nodes in one JVM by
+ * sharing an instance between buses.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.transport", havingValue = "in-jvm", matchIfMissing = true)
+public class InJvmChangeEventTransport implements ChangeEventTransport {
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(ChangeEvent event) {
+        AfterCommit.run(() -> {
+            for (Subscription subscription : subscriptions) {
+                if (!subscription.nodeId().equals(event.originNode())) {
+                    subscription.listener().accept(event);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(String nodeId, Consumer<ChangeEvent> listener) {
+        subscriptions.add(new Subscription(nodeId, listener));
+    }
+
+    private record Subscription(String nodeId, Consumer<ChangeEvent> listener) {}
+}
@@ -0,0 +1,124 @@
+package com.example.demo.events;
+
+import com.example.demo.entity.ChangeEventRecord;
+import com.example.demo.repository.ChangeEventRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Shares change events through a table that every node polls. Events are inserted in the
+ * writer's transaction, so they become visible exactly when the change commits, and other
+ * nodes see them within one poll interval. Writes never wait for other nodes.
+ *
+ * <p>Polls follow the ID high-water mark rather than timestamps, so clock differences between
+ * nodes do not matter. IDs are assigned at insert but become visible at commit, so a smaller ID
+ * can appear after a larger one; IDs skipped over are re-checked until {@code gap-timeout-ms}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.events.transport", havingValue = "jdbc")
+public class JdbcPollingChangeEventTransport implements ChangeEventTransport {
+
+    // Wider jumps come from identity caching or rollbacks, not from transactions still open
+    private static final long MAX_GAP_SPAN = 1_000;
+
+    @Autowired
+    private ChangeEventRecordRepository changeEventRecordRepository;
+
+    // How long a transaction may stay open between inserting an event and committing it
+    @Value("${app.events.gap-timeout-ms:5000}")
+    private long gapTimeoutMillis;
+
+    @Value("${app.events.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public JdbcPollingChangeEventTransport() {}
+
+    JdbcPollingChangeEventTransport(ChangeEventRecordRepository changeEventRecordRepository, long gapTimeoutMillis) {
+        this.changeEventRecordRepository = changeEventRecordRepository;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.retentionMinutes = 60;
+    }
+
+    @Override
+    public void publish(ChangeEvent event) {
+        String userIds = event.userIds().stream().map(String::valueOf).collect(Collectors.joining(","));
+        changeEventRecordRepository.save(new ChangeEventRecord(event.type().name(), event.actorId(), userIds,
+                event.entityId(), event.originNode()));
+    }
+
+    @Override
+    public synchronized void subscribe(String nodeId, Consumer<ChangeEvent> listener) {
+        subscriptions.add(new Subscription(nodeId, listener, changeEventRecordRepository.findMaxId()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        for (Subscription subscription : subscriptions) {
+            long now = System.nanoTime();
+            Map<Long, Long> gaps = subscription.gapDeadlines;
+
+            if (!gaps.isEmpty()) {
+                for (ChangeEventRecord record : changeEventRecordRepository.findByIds(List.copyOf(gaps.keySet()))) {
+                    gaps.remove(record.getId());
+                    deliver(subscription, record);
+                }
+                gaps.values().removeIf(deadline -> deadline - now < 0);
+            }
+
+            for (ChangeEventRecord record : changeEventRecordRepository.findFirst500ByIdGreaterThanOrderByIdAsc(subscription.highWater)) {
+                for (long id = Math.max(subscription.highWater + 1, record.getId() - MAX_GAP_SPAN); id < record.getId(); id++) {
+                    gaps.put(id, now + gapTimeoutMillis * 1_000_000);
+                }
+                subscription.highWater = record.getId();
+                deliver(subscription, record);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.prune-interval-ms:60000}")
+    public void prune() {
+        changeEventRecordRepository.deleteOlderThanMinutes(retentionMinutes);
+    }
+
+    private static void deliver(Subscription subscription, ChangeEventRecord record) {
+        if (!record.getOriginNode().equals(subscription.nodeId)) {
+            subscription.listener.accept(toEvent(record));
+        }
+    }
+
+    private static ChangeEvent toEvent(ChangeEventRecord record) {
+        List<Long> userIds = record.getUserIds().isEmpty() ? List.of() :
+                Arrays.stream(record.getUserIds().split(",")).map(Long::valueOf).toList();
+        long timestamp = record.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new ChangeEvent(ChangeEvent.Type.valueOf(record.getType()), record.getActorId(), userIds,
+                record.getEntityId(), record.getOriginNode(), timestamp);
+    }
+
+    // Highest ID read so far, plus skipped IDs whose transactions may still commit
+    private static final class Subscription {
+        private final String nodeId;
+        private final Consumer<ChangeEvent> listener;
+        private final Map<Long, Long> gapDeadlines = new HashMap<>();
+        private long highWater;
+
+        Subscription(String nodeId, Consumer<ChangeEvent> listener, long highWater) {
+            this.nodeId = nodeId;
+            this.listener = listener;
+            this.highWater = highWater;
+        }
+    }
+}
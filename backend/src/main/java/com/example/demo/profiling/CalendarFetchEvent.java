@@ -0,0 +1,32 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.demo.CalendarFetch")
+@Label("Google Calendar Fetch")
+@Description("One events.list call to Google Calendar")
+@Category({"Friend Scheduler", "Google"})
+@StackTrace(false)
+public class CalendarFetchEvent extends Event {
+
+    @Label("User ID")
+    public long userId;
+
+    @Label("Window")
+    @Description("Requested time range, or the upcoming-events limit")
+    public String window;
+
+    @Label("Event Count")
+    public int eventCount;
+
+    @Label("Response Size")
+    @Description("Content length reported by Google, -1 when not sent")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,30 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.example.demo.ConflictCheck")
+@Label("Meeting Conflict Check")
+@Description("Overlap search for a proposed meeting, including free-slot suggestions when it conflicts")
+@Category({"Friend Scheduler", "Meetings"})
+@StackTrace(false)
+public class ConflictCheckEvent extends Event {
+
+    @Label("User Count")
+    public int userCount;
+
+    @Label("Meeting Length")
+    @Timespan(Timespan.SECONDS)
+    public long meetingLength;
+
+    @Label("Conflicts")
+    public int conflicts;
+
+    @Label("Suggested Slots")
+    public int suggestions;
+}
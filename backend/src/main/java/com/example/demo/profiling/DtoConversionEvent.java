@@ -0,0 +1,22 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.demo.DtoConversion")
+@Label("DTO Conversion Batch")
+@Description("Entities converted to response DTOs for one call")
+@Category({"Friend Scheduler", "Serialization"})
+@StackTrace(false)
+public class DtoConversionEvent extends Event {
+
+    @Label("DTO Type")
+    public String dtoType;
+
+    @Label("Count")
+    public int count;
+}
@@ -0,0 +1,25 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.demo.FriendGraphQuery")
+@Label("Friend Graph Query")
+@Description("A friend list, stats or suggestions lookup for one user")
+@Category({"Friend Scheduler", "Friends"})
+@StackTrace(false)
+public class FriendGraphQueryEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("User ID")
+    public long userId;
+
+    @Label("Result Count")
+    public int resultCount;
+}
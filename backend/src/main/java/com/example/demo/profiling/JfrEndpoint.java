@@ -0,0 +1,185 @@
+package com.example.demo.profiling;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flight Recorder access through {@code /actuator/jfr}.
+ *
+ * <p>A "continuous" recording with the JDK's low-overhead default settings and the app's own
+ * events runs from startup, keeping the last {@code app.jfr.continuous-max-age-minutes}, so an
+ * incident can be looked at after the fact. {@code POST} starts a time-boxed "profile" recording
+ * with the more detailed profiling settings, {@code DELETE} stops it early, and
+ * {@code GET /actuator/jfr/{continuous|profile}} downloads either as a .jfr file for JDK Mission
+ * Control or {@code jfr print}.
+ *
+ * <p>Neither recording captures the process environment or system properties, which hold secrets
+ * such as the token signing key.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrEndpoint.class);
+
+    private static final List<Class<? extends Event>> APP_EVENTS = List.of(
+            CalendarFetchEvent.class, FriendGraphQueryEvent.class, ConflictCheckEvent.class, DtoConversionEvent.class);
+
+    private static final List<String> SECRET_EVENTS = List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+
+    @Value("${app.jfr.continuous:true}")
+    private boolean continuousEnabled;
+
+    @Value("${app.jfr.continuous-max-age-minutes:60}")
+    private long continuousMaxAgeMinutes;
+
+    @Value("${app.jfr.continuous-max-size-mb:100}")
+    private long continuousMaxSizeMb;
+
+    @Value("${app.jfr.max-profile-seconds:600}")
+    private long maxProfileSeconds;
+
+    private Recording continuous;
+    private Recording profile;
+
+    @PostConstruct
+    void startContinuousRecording() {
+        if (!continuousEnabled || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        try {
+            continuous = newRecording("continuous", "default");
+            continuous.setMaxAge(Duration.ofMinutes(continuousMaxAgeMinutes));
+            continuous.setMaxSize(continuousMaxSizeMb * 1024 * 1024);
+            continuous.start();
+        } catch (Exception e) {
+            log.warn("Could not start continuous JFR recording: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (continuous != null) {
+            continuous.close();
+        }
+        if (profile != null) {
+            profile.close();
+        }
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> recordings() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("continuous", describe(continuous));
+        result.put("profile", describe(profile));
+        return result;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Long durationSeconds) throws Exception {
+        if (profile != null) {
+            if (profile.getState() == RecordingState.RUNNING) {
+                return Map.of("error", "A profile recording is already running", "profile", describe(profile));
+            }
+            profile.close();
+        }
+        // A zero duration would mean "until stopped" to JFR
+        if (durationSeconds != null && durationSeconds <= 0) {
+            throw new InvalidEndpointRequestException("durationSeconds must be positive", "durationSeconds must be positive");
+        }
+        long seconds = Math.min(durationSeconds != null ? durationSeconds : 60, maxProfileSeconds);
+        profile = newRecording("profile", "profile");
+        profile.setDuration(Duration.ofSeconds(seconds));
+        // Keep the data once the duration ends, until it is downloaded or replaced
+        profile.setToDisk(true);
+        profile.start();
+        return describe(profile);
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (profile != null && profile.getState() == RecordingState.RUNNING) {
+            profile.stop();
+        }
+        return describe(profile);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized Resource download(@Selector String recording) throws IOException {
+        Recording source = switch (recording) {
+            case "continuous" -> continuous;
+            case "profile" -> profile;
+            default -> null;
+        };
+        if (source == null) {
+            return null;
+        }
+        Path file = Files.createTempFile("friendscheduler-" + recording + "-", ".jfr");
+        try {
+            // Dumping a running recording takes a snapshot; it keeps recording
+            source.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        // Each download gets its own snapshot, removed once it has been streamed
+        return new FileSystemResource(file) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+            }
+        };
+    }
+
+    private static Recording newRecording(String name, String settings) throws Exception {
+        Recording recording = new Recording(Configuration.getConfiguration(settings));
+        recording.setName(name);
+        for (Class<? extends Event> event : APP_EVENTS) {
+            recording.enable(event).withThreshold(Duration.ZERO);
+        }
+        for (String event : SECRET_EVENTS) {
+            recording.disable(event);
+        }
+        return recording;
+    }
+
+    private static Map<String, Object> describe(Recording recording) {
+        if (recording == null) {
+            return Map.of("state", "NONE");
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("state", recording.getState());
+        result.put("startedAt", recording.getStartTime());
+        result.put("duration", recording.getDuration());
+        result.put("sizeBytes", recording.getSize());
+        return result;
+    }
+}
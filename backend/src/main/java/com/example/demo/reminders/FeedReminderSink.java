@@ -0,0 +1,39 @@
+package com.example.demo.reminders;
+
+import com.example.demo.events.ChangeFeedRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pushes reminders to the user's change feed streams on this node. Every node schedules the same
+ * reminders, and each only reaches its own connections, so a client gets each reminder once.
+ *
+ * <p>Reminders are not stored: a user with no open stream misses them and sees the meeting on
+ * their dashboard instead. Each node counts the reminders it could not push as
+ * {@code reminders.not_connected}, tagged with its node ID. That includes users whose stream is
+ * open on another node, so a reminder was missed only if every node counted it; with one node
+ * the count is exact. {@code reminders.delivered}, summed over nodes, is exact either way.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reminders.sink", havingValue = "feed", matchIfMissing = true)
+public class FeedReminderSink implements ReminderSink {
+
+    public static final String EVENT_NAME = "MEETING_REMINDER";
+
+    @Autowired
+    private ChangeFeedRegistry changeFeedRegistry;
+
+    @Override
+    public boolean deliver(Reminder reminder) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("type", EVENT_NAME);
+        data.put("entityId", reminder.meetingId());
+        data.put("title", reminder.title());
+        data.put("startTime", reminder.startTime().toString());
+        return changeFeedRegistry.sendToUser(reminder.userId(), EVENT_NAME, data);
+    }
+}
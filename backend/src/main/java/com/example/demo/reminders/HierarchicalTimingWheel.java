@@ -0,0 +1,183 @@
+package com.example.demo.reminders;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (Varghese and Lauck). Each level has 64 slots; a slot on level
+ * {@code n} spans 64<sup>n</sup> ticks. A timeout goes straight into the slot that matches its
+ * deadline, and is moved down a level when the wheel below wraps around to it. Scheduling and
+ * cancelling are O(1), and advancing costs O(1) per tick plus the timeouts it touches.
+ *
+ * <p>Not thread-safe: callers confine a wheel to one thread or lock around it.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    private final Slot<T>[][] wheels;
+    private long currentTick;
+    private int size;
+
+    public static final class Timeout<T> {
+
+        private final T task;
+        private final long deadlineTick;
+        private Slot<T> slot;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(T task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T task() {
+            return task;
+        }
+
+        public boolean isPending() {
+            return slot != null;
+        }
+    }
+
+    // Doubly linked so a timeout can unlink itself on cancel
+    private static final class Slot<T> {
+
+        private Timeout<T> head;
+
+        void add(Timeout<T> timeout) {
+            timeout.slot = this;
+            timeout.previous = null;
+            timeout.next = head;
+            if (head != null) {
+                head.previous = timeout;
+            }
+            head = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.slot = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        Timeout<T> takeAll() {
+            Timeout<T> all = head;
+            head = null;
+            return all;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int levels, long startMillis) {
+        if (tickMillis <= 0 || levels < 1 || levels * SLOT_BITS >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Invalid timing wheel: tick " + tickMillis + " ms, " + levels + " levels");
+        }
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.currentTick = startMillis / tickMillis;
+        this.wheels = new Slot[levels][SLOTS];
+        for (int level = 0; level < levels; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new Slot<>();
+            }
+        }
+    }
+
+    /**
+     * Schedules {@code task} to expire at {@code deadlineMillis}, rounded down to a tick. Deadlines
+     * that have already passed expire on the next tick.
+     */
+    public Timeout<T> schedule(T task, long deadlineMillis) {
+        long deadlineTick = Math.max(deadlineMillis / tickMillis, currentTick + 1);
+        if (deadlineTick - currentTick >= 1L << (SLOT_BITS * levels)) {
+            throw new IllegalArgumentException("Deadline is beyond the wheel's range of " + getMaxDelayMillis() + " ms");
+        }
+        Timeout<T> timeout = new Timeout<>(task, deadlineTick);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.slot == null) {
+            return false;
+        }
+        timeout.slot.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis}, handing each expired task to {@code expired}
+     * in deadline order (tick by tick). Returns the number of tasks that expired.
+     */
+    public int advanceTo(long nowMillis, Consumer<T> expired) {
+        long targetTick = nowMillis / tickMillis;
+        int count = 0;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Timeout<T> timeout = wheels[0][(int) (currentTick & SLOT_MASK)].takeAll();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.slot = null;
+                timeout.previous = null;
+                timeout.next = null;
+                size--;
+                count++;
+                expired.accept(timeout.task);
+                timeout = next;
+            }
+        }
+        return count;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getMaxDelayMillis() {
+        return ((1L << (SLOT_BITS * levels)) - 1) * tickMillis;
+    }
+
+    /**
+     * When the lower levels wrap around, the higher-level slot for the new period is due: its
+     * timeouts are redistributed, highest level first so they can fall through several levels.
+     */
+    private void cascade() {
+        int top = 0;
+        while (top + 1 < levels && (currentTick & ((1L << (SLOT_BITS * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            Timeout<T> timeout = wheels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)].takeAll();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                place(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        int level = 0;
+        while (level + 1 < levels && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        wheels[level][(int) ((timeout.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK)].add(timeout);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.reminders;
+
+import java.time.LocalDateTime;
+
+/**
+ * One reminder for one participant of a meeting.
+ *
+ * @param remindAt when it is due: the meeting start minus one of the configured lead times
+ */
+public record Reminder(Long meetingId, Long userId, String title, LocalDateTime startTime, LocalDateTime remindAt) {}
@@ -0,0 +1,235 @@
+package com.example.demo.reminders;
+
+import com.example.demo.events.ChangeEvent;
+import com.example.demo.events.ChangeEventBus;
+import com.example.demo.repository.MeetingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires meeting reminders from a {@link HierarchicalTimingWheel} on one thread per node.
+ *
+ * <p>Only reminders due within {@code app.reminders.horizon-hours} are held. The horizon is
+ * extended one slice at a time as it runs down, so the database is read once per slice rather
+ * than polled. Meeting changes from the {@link ChangeEventBus}, from this node or others, reload
+ * just the affected meeting. All wheel state is confined to the ticker thread; bus listeners only
+ * queue meeting IDs for it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reminders.enabled", havingValue = "true", matchIfMissing = true)
+public class ReminderDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderDispatcher.class);
+
+    private static final Set<ChangeEvent.Type> MEETING_TYPES = EnumSet.of(
+            ChangeEvent.Type.MEETING_CREATED,
+            ChangeEvent.Type.MEETING_STATUS_CHANGED,
+            ChangeEvent.Type.MEETING_RSVP_CHANGED,
+            ChangeEvent.Type.MEETING_DELETED);
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Autowired
+    private ReminderSink reminderSink;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.reminders.lead-minutes:15}")
+    private List<Long> leadMinutes;
+
+    @Value("${app.reminders.horizon-hours:24}")
+    private long horizonHours;
+
+    @Value("${app.reminders.slice-minutes:15}")
+    private long sliceMinutes;
+
+    @Value("${app.reminders.tick-ms:1000}")
+    private long tickMillis;
+
+    // Meeting ID -> deleted; the latest change wins over any queued before it
+    private final Map<Long, Boolean> changedMeetings = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private ScheduledExecutorService ticker;
+    private Counter delivered;
+    private Counter notConnected;
+
+    // Ticker thread only
+    private HierarchicalTimingWheel<Reminder> wheel;
+    private final Map<Long, List<HierarchicalTimingWheel.Timeout<Reminder>>> timeoutsByMeeting = new HashMap<>();
+    private LocalDateTime loadedUntil;
+    private long minLead;
+    private long maxLead;
+
+    @PostConstruct
+    void init() {
+        minLead = Collections.min(leadMinutes);
+        maxLead = Collections.max(leadMinutes);
+        delivered = meterRegistry.counter("reminders.delivered");
+        // Every node fires every reminder, so only a miss on all of them is a missed reminder
+        notConnected = Counter.builder("reminders.not_connected")
+                .description("Reminders fired on this node for users with no stream open on this node")
+                .tag("node", changeEventBus.getNodeId())
+                .register(meterRegistry);
+        Gauge.builder("reminders.pending", pending, AtomicInteger::get).register(meterRegistry);
+        // Subscribed early so changes made during startup are not missed; they wait for the first tick
+        changeEventBus.subscribe(event -> {
+            if (MEETING_TYPES.contains(event.type()) && event.entityId() != null) {
+                changedMeetings.merge(event.entityId(), event.type() == ChangeEvent.Type.MEETING_DELETED, Boolean::logicalOr);
+            }
+        });
+    }
+
+    // After startup data loading, so the first horizon load sees it
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        LocalDateTime now = LocalDateTime.now();
+        wheel = new HierarchicalTimingWheel<>(tickMillis, 4, toMillis(now));
+        if (TimeUnit.MINUTES.toMillis(horizonHours * 60 + sliceMinutes) > wheel.getMaxDelayMillis()) {
+            throw new IllegalStateException("Reminder horizon exceeds the timing wheel's range of "
+                    + wheel.getMaxDelayMillis() + " ms; use a longer app.reminders.tick-ms");
+        }
+        loadedUntil = now;
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, 0, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    private void tick() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            extendHorizon(now);
+            reloadChangedMeetings(now);
+            wheel.advanceTo(toMillis(now), this::deliver);
+            pending.set(wheel.size());
+        } catch (RuntimeException e) {
+            // The next tick retries whatever did not complete
+            log.warn("Reminder tick failed: {}", e.getMessage());
+        }
+    }
+
+    private void extendHorizon(LocalDateTime now) {
+        LocalDateTime horizon = now.plusHours(horizonHours);
+        while (loadedUntil.isBefore(horizon)) {
+            LocalDateTime from = loadedUntil;
+            LocalDateTime to = from.plusMinutes(sliceMinutes);
+            int scheduled = 0;
+            for (Object[] row : meetingRepository.findReminderTargets(from.plusMinutes(minLead), to.plusMinutes(maxLead))) {
+                scheduled += schedule(row, from, to);
+            }
+            loadedUntil = to;
+            log.debug("Loaded {} reminders due before {}", scheduled, to);
+        }
+    }
+
+    /**
+     * Replaces the reminders of each changed meeting with its current ones, limited to the part of
+     * the horizon that is already loaded; later ones arrive with their slice.
+     */
+    private void reloadChangedMeetings(LocalDateTime now) {
+        for (Long meetingId : changedMeetings.keySet()) {
+            Boolean deleted = changedMeetings.remove(meetingId);
+            if (deleted == null) {
+                continue;
+            }
+            List<HierarchicalTimingWheel.Timeout<Reminder>> timeouts = timeoutsByMeeting.remove(meetingId);
+            if (timeouts != null) {
+                timeouts.forEach(wheel::cancel);
+            }
+            if (!deleted) {
+                List<Object[]> rows;
+                try {
+                    rows = meetingRepository.findReminderTargetsByMeetingId(meetingId);
+                } catch (RuntimeException e) {
+                    changedMeetings.merge(meetingId, false, Boolean::logicalOr);
+                    throw e;
+                }
+                for (Object[] row : rows) {
+                    schedule(row, now, loadedUntil);
+                }
+            }
+        }
+    }
+
+    // Schedules the row's reminders that fall in [from, to) and returns how many there were
+    private int schedule(Object[] row, LocalDateTime from, LocalDateTime to) {
+        Long meetingId = (Long) row[0];
+        LocalDateTime startTime = (LocalDateTime) row[3];
+        int scheduled = 0;
+        for (Long lead : leadMinutes) {
+            LocalDateTime remindAt = startTime.minusMinutes(lead);
+            if (remindAt.isBefore(from) || !remindAt.isBefore(to)) {
+                continue;
+            }
+            Reminder reminder = new Reminder(meetingId, (Long) row[1], (String) row[2], startTime, remindAt);
+            timeoutsByMeeting.computeIfAbsent(meetingId, id -> new ArrayList<>())
+                    .add(wheel.schedule(reminder, toMillis(remindAt)));
+            scheduled++;
+        }
+        return scheduled;
+    }
+
+    private void deliver(Reminder reminder) {
+        List<HierarchicalTimingWheel.Timeout<Reminder>> timeouts = timeoutsByMeeting.get(reminder.meetingId());
+        if (timeouts != null) {
+            timeouts.removeIf(timeout -> !timeout.isPending());
+            if (timeouts.isEmpty()) {
+                timeoutsByMeeting.remove(reminder.meetingId());
+            }
+        }
+        try {
+            if (reminderSink.deliver(reminder)) {
+                delivered.increment();
+            } else {
+                notConnected.increment();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not deliver reminder for meeting {} to user {}: {}",
+                    reminder.meetingId(), reminder.userId(), e.getMessage());
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
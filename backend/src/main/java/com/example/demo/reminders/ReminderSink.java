@@ -0,0 +1,14 @@
+package com.example.demo.reminders;
+
+/**
+ * Where due reminders go. Chosen with {@code app.reminders.sink}; called on the dispatcher's
+ * single thread, so implementations should hand off rather than block.
+ */
+public interface ReminderSink {
+
+    /**
+     * @return whether the reminder reached the user; false if it was dropped because the user
+     *         could not be reached
+     */
+    boolean deliver(Reminder reminder);
+}
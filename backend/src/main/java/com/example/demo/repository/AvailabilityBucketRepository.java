@@ -0,0 +1,25 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AvailabilityBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AvailabilityBucketRepository extends JpaRepository<AvailabilityBucket, Long> {
+    
+    @Query("SELECT b FROM AvailabilityBucket b WHERE b.userId = :userId AND b.bucketStart >= :from AND b.bucketStart < :to ORDER BY b.bucketStart")
+    List<AvailabilityBucket> findRange(@Param("userId") Long userId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // Past hours are never shown, and buckets whose deltas cancelled out carry nothing
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AvailabilityBucket b WHERE b.bucketStart < :before OR (b.meetingMinutes = 0 AND b.calendarMinutes = 0)")
+    int deleteObsolete(@Param("before") LocalDateTime before);
+}
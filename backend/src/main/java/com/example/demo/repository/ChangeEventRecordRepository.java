@@ -0,0 +1,34 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.ChangeEventRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ChangeEventRecordRepository extends JpaRepository<ChangeEventRecord, Long> {
+    
+    // The polling queries are read-write so they run on the primary: a lagging replica would
+    // make recent IDs look like gaps
+    @Transactional
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM ChangeEventRecord e")
+    long findMaxId();
+    
+    @Transactional
+    List<ChangeEventRecord> findFirst500ByIdGreaterThanOrderByIdAsc(Long id);
+    
+    @Transactional
+    @Query("SELECT e FROM ChangeEventRecord e WHERE e.id IN :ids ORDER BY e.id ASC")
+    List<ChangeEventRecord> findByIds(@Param("ids") Collection<Long> ids);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM change_events WHERE created_at < DATEADD(MINUTE, -:minutes, LOCALTIMESTAMP)", nativeQuery = true)
+    int deleteOlderThanMinutes(@Param("minutes") long minutes);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,24 @@ public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
     @Query("SELECT f FROM Friendship f WHERE (f.user = :user OR f.friend = :user) AND f.status = 'ACCEPTED'")
     List<Friendship> findAcceptedFriendshipsByUser(@Param("user") User user);
     
+    // Both sides are fetched in the same query so building DTOs needs no further selects
+    @Query("SELECT f FROM Friendship f JOIN FETCH f.user JOIN FETCH f.friend " +
+           "WHERE (f.user.id = :userId OR f.friend.id = :userId) AND f.status = 'ACCEPTED'")
+    List<Friendship> findAcceptedFriendshipsWithUsers(@Param("userId") Long userId);
+    
+    @Query("SELECT f FROM Friendship f JOIN FETCH f.user JOIN FETCH f.friend " +
+           "WHERE (f.user.id = :userId OR f.friend.id = :userId) AND f.status = 'ACCEPTED' AND f.isCloseFriend = true")
+    List<Friendship> findCloseFriendshipsWithUsers(@Param("userId") Long userId);
+    
+    /**
+     * Accepted, close and incoming pending counts in one aggregate row; sums are null when the user has no friendships.
+     */
+    @Query("SELECT SUM(CASE WHEN f.status = 'ACCEPTED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN f.status = 'ACCEPTED' AND f.isCloseFriend = true THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN f.status = 'PENDING' AND f.friend.id = :userId THEN 1 ELSE 0 END) " +
+           "FROM Friendship f WHERE f.user.id = :userId OR f.friend.id = :userId")
+    List<Object[]> countFriendshipStats(@Param("userId") Long userId);
+    
     @Query("SELECT f FROM Friendship f WHERE f.user = :user AND f.status = 'PENDING'")
     List<Friendship> findPendingFriendshipsByUser(@Param("user") User user);
     
@@ -29,4 +48,16 @@ public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
     
     @Query("SELECT f FROM Friendship f WHERE f.user = :user OR f.friend = :user")
     List<Friendship> findByUserOrFriend(@Param("user") User user);
+    
+    @Query("SELECT f.user.id, f.friend.id FROM Friendship f WHERE f.status = 'ACCEPTED'")
+    List<Object[]> findAcceptedFriendshipEdges();
+    
+    // How many of userIds are accepted friends of userId; a pair has at most one row, in either direction
+    @Query("SELECT COUNT(f) FROM Friendship f WHERE f.status = 'ACCEPTED' AND " +
+           "((f.user.id = :userId AND f.friend.id IN :userIds) OR (f.friend.id = :userId AND f.user.id IN :userIds))")
+    long countAcceptedFriendsAmong(@Param("userId") Long userId, @Param("userIds") Collection<Long> userIds);
+    
+    @Query("SELECT CASE WHEN f.user.id = :userId THEN f.friend.id ELSE f.user.id END FROM Friendship f " +
+           "WHERE f.user.id = :userId OR f.friend.id = :userId")
+    List<Long> findConnectedUserIds(@Param("userId") Long userId);
 }
@@ -0,0 +1,63 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    // Read-write so it runs on the primary: a replica may not have the claim yet
+    @Transactional
+    @Query(value = "SELECT * FROM idempotency_keys WHERE key_hash = :keyHash AND expires_at >= LOCALTIMESTAMP",
+            nativeQuery = true)
+    Optional<IdempotencyRecord> findLive(@Param("keyHash") String keyHash);
+    
+    @Transactional
+    @Query(value = "SELECT COUNT(*) FROM idempotency_keys WHERE owner_hash = :ownerHash AND expires_at >= LOCALTIMESTAMP",
+            nativeQuery = true)
+    long countLiveByOwner(@Param("ownerHash") String ownerHash);
+    
+    /**
+     * Claims a key for a request that is about to run, replacing an expired record. Returns 1 if
+     * claimed, 0 if a live record exists; a concurrent first claim fails with a unique-key violation.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "MERGE INTO idempotency_keys k " +
+            "USING (VALUES (CAST(:keyHash AS VARCHAR(64)))) s(key_hash) ON k.key_hash = s.key_hash " +
+            "WHEN MATCHED AND k.expires_at < LOCALTIMESTAMP THEN UPDATE SET " +
+            "owner_hash = :ownerHash, request_hash = :requestHash, response_status = 0, content_type = NULL, response_body = NULL, " +
+            "expires_at = DATEADD(MILLISECOND, :claimMillis, LOCALTIMESTAMP) " +
+            "WHEN NOT MATCHED THEN INSERT (key_hash, owner_hash, request_hash, response_status, expires_at) " +
+            "VALUES (s.key_hash, :ownerHash, :requestHash, 0, DATEADD(MILLISECOND, :claimMillis, LOCALTIMESTAMP))",
+            nativeQuery = true)
+    int tryClaim(@Param("keyHash") String keyHash, @Param("ownerHash") String ownerHash,
+                 @Param("requestHash") String requestHash, @Param("claimMillis") long claimMillis);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET response_status = :status, content_type = :contentType, " +
+            "response_body = :body, expires_at = DATEADD(MINUTE, :ttlMinutes, LOCALTIMESTAMP) " +
+            "WHERE key_hash = :keyHash AND response_status = 0",
+            nativeQuery = true)
+    int complete(@Param("keyHash") String keyHash, @Param("status") int status, @Param("contentType") String contentType,
+                 @Param("body") byte[] body, @Param("ttlMinutes") long ttlMinutes);
+    
+    // Drops an unfinished claim so a retry runs the request again
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.keyHash = :keyHash AND r.responseStatus = 0")
+    int release(@Param("keyHash") String keyHash);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE expires_at < LOCALTIMESTAMP", nativeQuery = true)
+    int deleteExpired();
+}
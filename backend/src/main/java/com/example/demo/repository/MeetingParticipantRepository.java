@@ -0,0 +1,37 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.MeetingParticipant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MeetingParticipantRepository extends JpaRepository<MeetingParticipant, Long> {
+
+    /**
+     * Participants of a whole page of meetings in one statement, instead of one query per meeting.
+     */
+    @Query("SELECT p FROM MeetingParticipant p JOIN FETCH p.user WHERE p.meeting.id IN :meetingIds ORDER BY p.meeting.id, p.id")
+    List<MeetingParticipant> findAllWithUsersByMeetingIds(@Param("meetingIds") Collection<Long> meetingIds);
+
+    @Query("SELECT p.user.id FROM MeetingParticipant p WHERE p.meeting.id = :meetingId ORDER BY p.id")
+    List<Long> findUserIdsByMeetingId(@Param("meetingId") Long meetingId);
+
+    @Query("SELECT p.user.id FROM MeetingParticipant p WHERE p.meeting.id = :meetingId AND p.rsvpStatus <> 'DECLINED' ORDER BY p.id")
+    List<Long> findAttendingUserIdsByMeetingId(@Param("meetingId") Long meetingId);
+
+    @Query("SELECT p FROM MeetingParticipant p WHERE p.meeting.id = :meetingId AND p.user.id = :userId")
+    Optional<MeetingParticipant> findByMeetingIdAndUserId(@Param("meetingId") Long meetingId, @Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MeetingParticipant p WHERE p.meeting.id = :meetingId")
+    int deleteByMeetingId(@Param("meetingId") Long meetingId);
+}
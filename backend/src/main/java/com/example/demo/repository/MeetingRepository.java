@@ -6,19 +6,53 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MeetingRepository extends JpaRepository<Meeting, Long> {
     
-    @Query("SELECT m FROM Meeting m WHERE (m.organizer = :user OR m.friend = :user) AND m.startTime >= :now ORDER BY m.startTime ASC")
+    // Lookups by user go through meeting_participants and its (user_id, start_time) index, so group
+    // meetings are found for every participant, not just the organizer and first invitee
+    @Query("SELECT m FROM Meeting m JOIN FETCH m.organizer JOIN FETCH m.friend JOIN MeetingParticipant p ON p.meeting = m " +
+           "WHERE p.user = :user AND p.startTime >= :now ORDER BY m.startTime ASC, m.id ASC")
     List<Meeting> findUpcomingMeetingsByUser(@Param("user") User user, @Param("now") LocalDateTime now);
     
-    @Query("SELECT m FROM Meeting m WHERE (m.organizer = :user OR m.friend = :user) AND m.startTime >= :startDate AND m.startTime < :endDate ORDER BY m.startTime ASC")
+    @Query("SELECT m FROM Meeting m JOIN FETCH m.organizer JOIN FETCH m.friend JOIN MeetingParticipant p ON p.meeting = m " +
+           "WHERE p.user = :user AND p.startTime >= :startDate AND p.startTime < :endDate ORDER BY m.startTime ASC, m.id ASC")
     List<Meeting> findMeetingsByUserAndDateRange(@Param("user") User user, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT m FROM Meeting m WHERE (m.organizer = :user OR m.friend = :user) AND m.status = 'SCHEDULED' ORDER BY m.startTime ASC")
+    @Query("SELECT m FROM Meeting m JOIN FETCH m.organizer JOIN FETCH m.friend JOIN MeetingParticipant p ON p.meeting = m " +
+           "WHERE p.user = :user AND m.status = 'SCHEDULED' ORDER BY m.startTime ASC, m.id ASC")
     List<Meeting> findScheduledMeetingsByUser(@Param("user") User user);
+    
+    /**
+     * Active meetings that any of the users takes part in (and hasn't declined) overlapping
+     * {@code [start, end)}. The {@code earliestStart} lower bound (start minus the longest allowed
+     * meeting) turns this into a bounded range scan of the (user_id, start_time) participant index.
+     */
+    @Query("SELECT DISTINCT m FROM Meeting m JOIN FETCH m.organizer JOIN FETCH m.friend JOIN MeetingParticipant p ON p.meeting = m " +
+           "WHERE p.user.id IN :userIds AND p.rsvpStatus <> 'DECLINED' AND m.status <> 'CANCELLED' " +
+           "AND p.startTime > :earliestStart AND p.startTime < :end AND p.endTime > :start ORDER BY m.startTime ASC")
+    List<Meeting> findOverlappingByParticipants(@Param("userIds") Collection<Long> userIds,
+                                                @Param("earliestStart") LocalDateTime earliestStart,
+                                                @Param("start") LocalDateTime start,
+                                                @Param("end") LocalDateTime end);
+    
+    /**
+     * Reminder targets as (meeting ID, user ID, title, start time): attending participants of active
+     * meetings starting in {@code [from, to)}, a range scan of the start_time index.
+     */
+    @Query("SELECT m.id, p.user.id, m.title, m.startTime FROM Meeting m JOIN MeetingParticipant p ON p.meeting = m " +
+           "WHERE m.startTime >= :from AND m.startTime < :to AND m.status <> 'CANCELLED' AND p.rsvpStatus <> 'DECLINED'")
+    List<Object[]> findReminderTargets(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // Read-write so it runs on the primary: it follows a change that a replica may not have yet
+    @Transactional
+    @Query("SELECT m.id, p.user.id, m.title, m.startTime FROM Meeting m JOIN MeetingParticipant p ON p.meeting = m " +
+           "WHERE m.id = :meetingId AND m.status <> 'CANCELLED' AND p.rsvpStatus <> 'DECLINED'")
+    List<Object[]> findReminderTargetsByMeetingId(@Param("meetingId") Long meetingId);
 }
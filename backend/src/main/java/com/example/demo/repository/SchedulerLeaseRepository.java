@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+    
+    /**
+     * Takes or renews a lease for {@code durationMillis}. Returns 1 if {@code owner} holds it
+     * afterwards, 0 if another owner's lease has not expired yet.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "MERGE INTO scheduler_leases l " +
+            "USING (VALUES (CAST(:name AS VARCHAR(255)))) s(name) ON l.name = s.name " +
+            "WHEN MATCHED AND (l.owner = :owner OR l.expires_at < LOCALTIMESTAMP) THEN UPDATE SET " +
+            "owner = :owner, expires_at = DATEADD(MILLISECOND, :durationMillis, LOCALTIMESTAMP) " +
+            "WHEN NOT MATCHED THEN INSERT (name, owner, expires_at) " +
+            "VALUES (s.name, :owner, DATEADD(MILLISECOND, :durationMillis, LOCALTIMESTAMP))",
+            nativeQuery = true)
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner, @Param("durationMillis") long durationMillis);
+}
@@ -0,0 +1,37 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.UserDataVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface UserDataVersionRepository extends JpaRepository<UserDataVersion, Long> {
+    
+    @Query("SELECT v.dataVersion FROM UserDataVersion v WHERE v.userId = :userId")
+    Optional<Long> findDataVersion(@Param("userId") Long userId);
+    
+    // Joins the writing transaction; the row lock it takes is held until that commits
+    @Modifying
+    @Transactional
+    @Query(value = "MERGE INTO user_data_versions v " +
+            "USING (VALUES (CAST(:userId AS BIGINT))) s(user_id) ON v.user_id = s.user_id " +
+            "WHEN MATCHED THEN UPDATE SET data_version = v.data_version + 1 " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, data_version) VALUES (s.user_id, 1)",
+            nativeQuery = true)
+    int bump(@Param("userId") Long userId);
+    
+    // Stores the epoch under user ID 0, which no user has, unless another node already did
+    @Modifying
+    @Transactional
+    @Query(value = "MERGE INTO user_data_versions v " +
+            "USING (VALUES (CAST(0 AS BIGINT))) s(user_id) ON v.user_id = s.user_id " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, data_version) VALUES (s.user_id, :epoch)",
+            nativeQuery = true)
+    int initEpoch(@Param("epoch") long epoch);
+}
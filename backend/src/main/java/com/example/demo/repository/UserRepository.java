@@ -1,13 +1,107 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<User> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
     boolean existsByEmail(String email);
+    
+    /**
+     * Up to a page of users whose Google access token expires by {@code horizon} and who are not
+     * backing off from an earlier attempt, as (id, refresh token, expiry), soonest first.
+     * Read-write so it sees the primary's current tokens rather than a lagging replica.
+     */
+    @Transactional
+    @Query("SELECT u.id, u.refreshToken, u.tokenExpiresAt FROM User u WHERE u.refreshToken IS NOT NULL " +
+            "AND (u.tokenExpiresAt IS NULL OR u.tokenExpiresAt <= :horizon) " +
+            "AND (u.nextRefreshAttempt IS NULL OR u.nextRefreshAttempt <= :now) ORDER BY u.tokenExpiresAt")
+    List<Object[]> findDueTokenRefreshes(@Param("horizon") LocalDateTime horizon,
+                                         @Param("now") LocalDateTime now,
+                                         Pageable pageable);
+    
+    // Holds users back from the refresh until retryAt; a successful refresh or a login clears it
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.nextRefreshAttempt = :retryAt WHERE u.id IN :ids")
+    int deferTokenRefresh(@Param("ids") Collection<Long> ids, @Param("retryAt") LocalDateTime retryAt);
+    
+    /**
+     * Stores a refreshed access token, touching only the token columns, and only if the row still
+     * holds the refresh token and expiry the refresh started from. A token saved in the meantime,
+     * e.g. by a login, is newer and is kept. Returns the number of rows updated.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.accessToken = :accessToken, " +
+            "u.refreshToken = COALESCE(:newRefreshToken, u.refreshToken), " +
+            "u.tokenExpiresAt = :expiresAt, u.nextRefreshAttempt = NULL, u.updatedAt = :now " +
+            "WHERE u.id = :id AND u.refreshToken = :refreshToken " +
+            "AND (u.tokenExpiresAt = :previousExpiresAt OR (u.tokenExpiresAt IS NULL AND :previousExpiresAt IS NULL))")
+    int updateRefreshedToken(@Param("id") Long id,
+                             @Param("refreshToken") String refreshToken,
+                             @Param("previousExpiresAt") LocalDateTime previousExpiresAt,
+                             @Param("accessToken") String accessToken,
+                             @Param("newRefreshToken") String newRefreshToken,
+                             @Param("expiresAt") LocalDateTime expiresAt,
+                             @Param("now") LocalDateTime now);
+    
+    // Drops a revoked grant unless a login has stored a new one since
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.refreshToken = NULL WHERE u.id = :id AND u.refreshToken = :refreshToken")
+    int clearRefreshToken(@Param("id") Long id, @Param("refreshToken") String refreshToken);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.refreshToken = :refreshToken, u.nextRefreshAttempt = NULL WHERE u.email = :email")
+    int updateRefreshToken(@Param("email") String email, @Param("refreshToken") String refreshToken);
+    
+    @Query("SELECT u.id, u.name, u.email, u.profilePictureUrl FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findSearchFieldsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Inserts or updates a user from an OAuth login in a single statement and returns its ID.
+     * Blank names and missing pictures keep the stored values; the refresh token is untouched.
+     */
+    @Transactional
+    @Query(value = "SELECT id FROM FINAL TABLE (" +
+            "MERGE INTO users u " +
+            "USING (VALUES (CAST(:email AS VARCHAR(255)))) s(email) ON u.email = s.email " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "name = COALESCE(NULLIF(:name, ''), u.name), " +
+            "oauth_provider = :provider, oauth_id = :oauthId, " +
+            "access_token = :accessToken, token_expires_at = :tokenExpiresAt, next_refresh_attempt = NULL, " +
+            "profile_picture_url = COALESCE(:pictureUrl, u.profile_picture_url), " +
+            "updated_at = :now " +
+            "WHEN NOT MATCHED THEN INSERT " +
+            "(name, email, oauth_provider, oauth_id, access_token, token_expires_at, profile_picture_url, created_at, updated_at) " +
+            "VALUES (:name, s.email, :provider, :oauthId, :accessToken, :tokenExpiresAt, :pictureUrl, :now, :now))",
+            nativeQuery = true)
+    Long upsertOAuthUser(@Param("email") String email,
+                         @Param("name") String name,
+                         @Param("provider") String provider,
+                         @Param("oauthId") String oauthId,
+                         @Param("accessToken") String accessToken,
+                         @Param("tokenExpiresAt") LocalDateTime tokenExpiresAt,
+                         @Param("pictureUrl") String pictureUrl,
+                         @Param("now") LocalDateTime now);
 }
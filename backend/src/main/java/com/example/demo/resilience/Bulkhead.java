@@ -0,0 +1,36 @@
+package com.example.demo.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of concurrent calls into a dependency. Callers wait at most
+ * {@code maxWaitMillis} for a slot before being rejected.
+ */
+public class Bulkhead {
+
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+
+    public Bulkhead(int maxConcurrentCalls, long maxWaitMillis) {
+        this.permits = new Semaphore(maxConcurrentCalls);
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public boolean tryAcquire() {
+        try {
+            return permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.resilience;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row the
+ * circuit opens and rejects calls for {@code openDurationMillis}; it then lets a single probe
+ * through (half-open) and closes again if that probe succeeds.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final BiConsumer<State, State> transitionListener;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private volatile long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openDurationMillis, BiConsumer<State, State> transitionListener) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDurationMillis * 1_000_000L;
+        this.transitionListener = transitionListener;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public boolean tryAcquirePermission() {
+        switch (state.get()) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openDurationNanos) {
+                    return false;
+                }
+                transition(State.OPEN, State.HALF_OPEN);
+                return probeInFlight.compareAndSet(false, true);
+            default:
+                return probeInFlight.compareAndSet(false, true);
+        }
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.get() == State.HALF_OPEN) {
+            transition(State.HALF_OPEN, State.CLOSED);
+            probeInFlight.set(false);
+        }
+    }
+
+    public void onFailure() {
+        State current = state.get();
+        if (current == State.HALF_OPEN) {
+            open(State.HALF_OPEN);
+            probeInFlight.set(false);
+        } else if (current == State.CLOSED && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(State.CLOSED);
+        }
+    }
+
+    /**
+     * Releases a permission that was granted but never resulted in a call, e.g. because a
+     * rate limiter rejected the request afterwards.
+     */
+    public void releasePermission() {
+        if (state.get() == State.HALF_OPEN) {
+            probeInFlight.set(false);
+        }
+    }
+
+    private void open(State from) {
+        openedAt = System.nanoTime();
+        if (transition(from, State.OPEN)) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        if (state.compareAndSet(from, to)) {
+            transitionListener.accept(from, to);
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.resilience;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. The token count and last refill time are kept in a single
+ * immutable snapshot so that refill and consume happen in one compare-and-set.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(double tokensPerSecond, double capacity) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            State current = state.get();
+            long now = System.nanoTime();
+            double available = refill(current, now);
+            if (available < 1d) {
+                return false;
+            }
+            if (state.compareAndSet(current, new State(available - 1d, now))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a token taken by {@link #tryAcquire()} that ended up unused, e.g. because another
+     * limiter rejected the call afterwards.
+     */
+    public void refund() {
+        while (true) {
+            State current = state.get();
+            long now = System.nanoTime();
+            if (state.compareAndSet(current, new State(Math.min(capacity, refill(current, now) + 1d), now))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A full bucket behaves exactly like a freshly created one, so callers may drop it.
+     */
+    public boolean isFull() {
+        return refill(state.get(), System.nanoTime()) >= capacity;
+    }
+
+    private double refill(State current, long now) {
+        return Math.min(capacity, current.tokens + (now - current.timestamp) * tokensPerNano);
+    }
+
+    private record State(double tokens, long timestamp) {}
+}
@@ -0,0 +1,171 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.User;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * Issues and verifies the signed, short-lived access tokens used in stateless session mode.
+ * Tokens carry the internal user ID, so any node can authenticate a request without a
+ * session store or database lookup. All nodes must share the same secret. Tokens are renewed
+ * through {@link RefreshTokenService}, never by presenting an old access token.
+ *
+ * <p>In session mode no tokens are issued, so the secret is not needed.
+ */
+@Service
+public class AccessTokenService {
+
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_NAME = "name";
+    public static final String CLAIM_PROVIDER = "provider";
+    public static final String CLAIM_AUTH_TIME = "auth_time";
+
+    @Value("${app.auth.session-mode:session}")
+    private String sessionMode;
+
+    @Value("${app.auth.token-secret:}")
+    private String tokenSecret;
+
+    @Value("${app.auth.token-ttl-seconds:900}")
+    private long tokenTtlSeconds;
+
+    private MACSigner signer;
+    private MACVerifier verifier;
+
+    private MACSigner payloadSigner;
+    private MACVerifier payloadVerifier;
+
+    @PostConstruct
+    void init() throws JOSEException, GeneralSecurityException {
+        if (!isEnabled()) {
+            return;
+        }
+        if (tokenSecret == null || tokenSecret.isBlank()) {
+            throw new IllegalStateException("app.auth.token-secret (AUTH_TOKEN_SECRET) must be set in stateless "
+                    + "session mode; every node has to sign and verify access tokens with the same secret");
+        }
+        // One key per purpose, so a value signed for one use is never accepted as another
+        byte[] tokenKey = deriveKey("access-token");
+        byte[] payloadKey = deriveKey("signed-payload");
+        signer = new MACSigner(tokenKey);
+        verifier = new MACVerifier(tokenKey);
+        payloadSigner = new MACSigner(payloadKey);
+        payloadVerifier = new MACVerifier(payloadKey);
+    }
+
+    // HS256 needs a 256-bit key: HMAC-SHA256 of the purpose, keyed with a secret of any length
+    private byte[] deriveKey(String purpose) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(tokenSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return mac.doFinal(purpose.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether access tokens are in use, i.e. the app runs in stateless session mode.
+     */
+    public boolean isEnabled() {
+        return "stateless".equalsIgnoreCase(sessionMode);
+    }
+
+    public long getTokenTtlSeconds() {
+        return tokenTtlSeconds;
+    }
+
+    public String issue(User user, String provider) {
+        return issue(user, provider, Instant.now());
+    }
+
+    /**
+     * Issues a token for a login that happened at {@code authTime}, e.g. when refreshing.
+     */
+    public String issue(User user, String provider, Instant authTime) {
+        return issue(user.getId(), user.getEmail(), user.getName(), provider, authTime);
+    }
+
+    /**
+     * Verifies signature and expiry and returns the claims of a valid token.
+     */
+    public Optional<JWTClaimsSet> verify(String token) {
+        return parseSigned(token).filter(claims ->
+                claims.getExpirationTime() != null && claims.getExpirationTime().toInstant().isAfter(Instant.now()));
+    }
+
+    /**
+     * Signs an opaque payload, e.g. for state kept in cookies, with a key of its own.
+     */
+    public String signPayload(byte[] payload) {
+        try {
+            JWSObject jws = new JWSObject(new JWSHeader(JWSAlgorithm.HS256), new Payload(payload));
+            jws.sign(payloadSigner);
+            return jws.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to sign payload", e);
+        }
+    }
+
+    public Optional<byte[]> verifyPayload(String signed) {
+        try {
+            JWSObject jws = JWSObject.parse(signed);
+            return jws.verify(payloadVerifier) ? Optional.of(jws.getPayload().toBytes()) : Optional.empty();
+        } catch (ParseException | JOSEException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String issue(Long userId, String email, String name, String provider, Instant authTime) {
+        if (signer == null) {
+            throw new IllegalStateException("Access tokens are only issued in stateless session mode");
+        }
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(String.valueOf(userId))
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(tokenTtlSeconds)))
+                .claim(CLAIM_EMAIL, email)
+                .claim(CLAIM_NAME, name)
+                .claim(CLAIM_PROVIDER, provider)
+                .claim(CLAIM_AUTH_TIME, Date.from(authTime))
+                .build();
+        try {
+            SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+            jwt.sign(signer);
+            return jwt.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to sign access token", e);
+        }
+    }
+
+    private Optional<JWTClaimsSet> parseSigned(String token) {
+        if (verifier == null) {
+            return Optional.empty();
+        }
+        try {
+            SignedJWT jwt = SignedJWT.parse(token);
+            if (!JWSAlgorithm.HS256.equals(jwt.getHeader().getAlgorithm()) || !jwt.verify(verifier)) {
+                return Optional.empty();
+            }
+            return Optional.of(jwt.getJWTClaimsSet());
+        } catch (ParseException | JOSEException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AvailabilityDto;
+import com.example.demo.entity.AvailabilityBucket;
+import com.example.demo.repository.AvailabilityBucketRepository;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.Event;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the hourly availability heatmap. Meeting changes add or subtract their minutes from
+ * the affected buckets and calendar syncs rewrite only the buckets that changed, so reads never
+ * recompute anything. Only the current hour onwards is tracked: a later removal touches a subset
+ * of the hours its addition did, and past buckets are purged.
+ */
+@Service
+public class AvailabilityService {
+
+    private static final String ADD_MEETING_MINUTES = "MERGE INTO availability_buckets b " +
+            "USING (VALUES (CAST(? AS BIGINT), CAST(? AS TIMESTAMP), CAST(? AS INT))) s(user_id, bucket_start, minutes) " +
+            "ON b.user_id = s.user_id AND b.bucket_start = s.bucket_start " +
+            "WHEN MATCHED THEN UPDATE SET meeting_minutes = b.meeting_minutes + s.minutes " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, bucket_start, meeting_minutes, calendar_minutes) " +
+            "VALUES (s.user_id, s.bucket_start, s.minutes, 0)";
+    private static final String SET_CALENDAR_MINUTES = "MERGE INTO availability_buckets b " +
+            "USING (VALUES (CAST(? AS BIGINT), CAST(? AS TIMESTAMP), CAST(? AS INT))) s(user_id, bucket_start, minutes) " +
+            "ON b.user_id = s.user_id AND b.bucket_start = s.bucket_start " +
+            "WHEN MATCHED THEN UPDATE SET calendar_minutes = s.minutes " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, bucket_start, meeting_minutes, calendar_minutes) " +
+            "VALUES (s.user_id, s.bucket_start, 0, s.minutes)";
+    private static final String ACTIVE_PARTICIPANT_TIMES = "SELECT p.user_id, p.start_time, p.end_time " +
+            "FROM meeting_participants p JOIN meetings m ON m.id = p.meeting_id " +
+            "WHERE p.end_time > ? AND p.rsvp_status <> 'DECLINED' AND m.status <> 'CANCELLED'";
+
+    @Autowired
+    private AvailabilityBucketRepository availabilityBucketRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.availability.max-days:56}")
+    private int maxDays;
+
+    @Value("${app.availability.batch-size:500}")
+    private int batchSize;
+
+    private record Bucket(long userId, LocalDateTime hour, int minutes) {}
+
+    @Transactional(readOnly = true)
+    public AvailabilityDto getAvailability(Long userId, LocalDateTime from, int days) {
+        if (days < 1 || days > maxDays) {
+            throw new InvalidRequestException("days must be between 1 and " + maxDays);
+        }
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        int[] busyMinutes = new int[days * 24];
+        for (AvailabilityBucket bucket : availabilityBucketRepository.findRange(userId, start, start.plusDays(days))) {
+            int total = bucket.getMeetingMinutes() + bucket.getCalendarMinutes();
+            busyMinutes[(int) ChronoUnit.HOURS.between(start, bucket.getBucketStart())] = Math.max(0, Math.min(60, total));
+        }
+        return new AvailabilityDto(userId, start, 60, busyMinutes);
+    }
+
+    /**
+     * Adds a meeting's time to each user's buckets, or takes it away again when {@code sign} is -1.
+     */
+    @Transactional
+    public void applyMeeting(Collection<Long> userIds, LocalDateTime startTime, LocalDateTime endTime, int sign) {
+        Map<LocalDateTime, Integer> minutes = new HashMap<>();
+        addMinutes(minutes, max(startTime, currentHour()), endTime);
+        List<Bucket> deltas = new ArrayList<>();
+        for (Long userId : userIds) {
+            minutes.forEach((hour, busy) -> deltas.add(new Bucket(userId, hour, sign * busy)));
+        }
+        write(ADD_MEETING_MINUTES, deltas);
+    }
+
+    /**
+     * Brings the calendar share of the whole hours inside a fetched window in line with the events
+     * Google returned for it. Only buckets whose value changed are written.
+     */
+    @Transactional
+    public void syncCalendar(Long userId, LocalDateTime windowStart, LocalDateTime windowEnd, List<Event> events) {
+        LocalDateTime from = max(ceilHour(windowStart), currentHour());
+        LocalDateTime to = min(windowEnd.truncatedTo(ChronoUnit.HOURS), currentHour().plusDays(maxDays));
+        if (!from.isBefore(to)) {
+            return;
+        }
+
+        // Merge overlapping events first so no hour counts more than 60 minutes
+        List<LocalDateTime[]> intervals = new ArrayList<>();
+        for (Event event : events) {
+            // All-day events (dates without times), free-time and cancelled events don't block the calendar
+            if (event.getStart() == null || event.getStart().getDateTime() == null
+                    || event.getEnd() == null || event.getEnd().getDateTime() == null
+                    || "transparent".equals(event.getTransparency()) || "cancelled".equals(event.getStatus())) {
+                continue;
+            }
+            LocalDateTime start = max(toLocal(event.getStart().getDateTime()), from);
+            LocalDateTime end = min(toLocal(event.getEnd().getDateTime()), to);
+            if (start.isBefore(end)) {
+                intervals.add(new LocalDateTime[] { start, end });
+            }
+        }
+        intervals.sort(Comparator.comparing(interval -> interval[0]));
+        Map<LocalDateTime, Integer> wanted = new HashMap<>();
+        LocalDateTime[] current = null;
+        for (LocalDateTime[] interval : intervals) {
+            if (current != null && !interval[0].isAfter(current[1])) {
+                current[1] = max(current[1], interval[1]);
+            } else {
+                if (current != null) {
+                    addMinutes(wanted, current[0], current[1]);
+                }
+                current = interval;
+            }
+        }
+        if (current != null) {
+            addMinutes(wanted, current[0], current[1]);
+        }
+
+        List<Bucket> changed = new ArrayList<>();
+        for (AvailabilityBucket bucket : availabilityBucketRepository.findRange(userId, from, to)) {
+            Integer minutes = wanted.remove(bucket.getBucketStart());
+            int target = minutes != null ? minutes : 0;
+            if (target != bucket.getCalendarMinutes()) {
+                changed.add(new Bucket(userId, bucket.getBucketStart(), target));
+            }
+        }
+        wanted.forEach((hour, minutes) -> changed.add(new Bucket(userId, hour, minutes)));
+        write(SET_CALENDAR_MINUTES, changed);
+    }
+
+    /**
+     * Recomputes the meeting share of every bucket from the participant table, for data loaded
+     * without going through {@link MeetingService}. Returns the number of buckets written.
+     */
+    @Transactional
+    public int rebuildMeetingMinutes() {
+        LocalDateTime from = currentHour();
+        jdbcTemplate.update("UPDATE availability_buckets SET meeting_minutes = 0 WHERE meeting_minutes <> 0");
+
+        Map<Long, Map<LocalDateTime, Integer>> minutesByUser = new HashMap<>();
+        jdbcTemplate.query(ACTIVE_PARTICIPANT_TIMES, row -> {
+            addMinutes(minutesByUser.computeIfAbsent(row.getLong(1), userId -> new HashMap<>()),
+                    max(row.getTimestamp(2).toLocalDateTime(), from), row.getTimestamp(3).toLocalDateTime());
+        }, Timestamp.valueOf(from));
+
+        List<Bucket> buckets = new ArrayList<>();
+        minutesByUser.forEach((userId, minutes) ->
+                minutes.forEach((hour, busy) -> buckets.add(new Bucket(userId, hour, busy))));
+        write(ADD_MEETING_MINUTES, buckets);
+        return buckets.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.availability.purge-interval-ms:3600000}")
+    public void purge() {
+        availabilityBucketRepository.deleteObsolete(currentHour());
+    }
+
+    private void write(String sql, List<Bucket> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        // A consistent row order keeps concurrent writers from deadlocking on each other's buckets
+        buckets.sort(Comparator.comparingLong(Bucket::userId).thenComparing(Bucket::hour));
+        jdbcTemplate.batchUpdate(sql, buckets, batchSize, (statement, bucket) -> {
+            statement.setLong(1, bucket.userId());
+            statement.setTimestamp(2, Timestamp.valueOf(bucket.hour()));
+            statement.setInt(3, bucket.minutes());
+        });
+    }
+
+    private static void addMinutes(Map<LocalDateTime, Integer> minutes, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime hour = start.truncatedTo(ChronoUnit.HOURS);
+        while (hour.isBefore(end)) {
+            LocalDateTime next = hour.plusHours(1);
+            long busy = Duration.between(max(start, hour), min(end, next)).toMinutes();
+            if (busy > 0) {
+                minutes.merge(hour, (int) busy, Integer::sum);
+            }
+            hour = next;
+        }
+    }
+
+    private static LocalDateTime currentHour() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static LocalDateTime ceilHour(LocalDateTime time) {
+        LocalDateTime hour = time.truncatedTo(ChronoUnit.HOURS);
+        return hour.equals(time) ? hour : hour.plusHours(1);
+    }
+
+    private static LocalDateTime toLocal(DateTime dateTime) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(dateTime.getValue()), ZoneId.systemDefault());
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
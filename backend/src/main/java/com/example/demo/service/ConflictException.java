@@ -0,0 +1,12 @@
+package com.example.demo.service;
+
+import org.springframework.http.HttpStatus;
+
+public class ConflictException extends DomainException {
+
+    public static final ConflictException FRIENDSHIP_EXISTS = new ConflictException("Friendship already exists");
+
+    public ConflictException(String message) {
+        super(HttpStatus.CONFLICT, message);
+    }
+}
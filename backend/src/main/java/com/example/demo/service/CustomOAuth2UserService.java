@@ -1,7 +1,5 @@
 package com.example.demo.service;
 
-import com.example.demo.entity.User;
-import com.example.demo.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
@@ -9,14 +7,19 @@ import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Map;
-import java.util.Optional;
 
 @Service
 public class CustomOAuth2UserService extends OidcUserService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserService userService;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
 
     @Override
     public OidcUser loadUser(OidcUserRequest userRequest) throws OAuth2AuthenticationException {
@@ -25,7 +28,9 @@ public class CustomOAuth2UserService extends OidcUserService {
         String provider = userRequest.getClientRegistration().getRegistrationId();
         String oauthId = oidcUser.getSubject();
         String accessToken = userRequest.getAccessToken().getTokenValue();
-        String refreshToken = null;
+        Instant accessTokenExpiresAt = userRequest.getAccessToken().getExpiresAt();
+        LocalDateTime tokenExpiresAt = accessTokenExpiresAt != null ?
+                LocalDateTime.ofInstant(accessTokenExpiresAt, ZoneId.systemDefault()) : null;
         
         String email;
         String name;
@@ -56,33 +61,8 @@ public class CustomOAuth2UserService extends OidcUserService {
             profilePictureUrl = oidcUser.getAttribute("picture");
         }
 
-        Optional<User> existingUser = userRepository.findByEmail(email);
-        User user;
-        
-        if (existingUser.isPresent()) {
-            user = existingUser.get();
-            user.setOauthProvider(provider);
-            user.setOauthId(oauthId);
-            user.setAccessToken(accessToken);
-            user.setRefreshToken(refreshToken);
-            if (profilePictureUrl != null) {
-                user.setProfilePictureUrl(profilePictureUrl);
-            }
-            if (name != null && !name.isEmpty()) {
-                user.setName(name);
-            }
-        } else {
-            user = new User();
-            user.setName(name);
-            user.setEmail(email);
-            user.setOauthProvider(provider);
-            user.setOauthId(oauthId);
-            user.setAccessToken(accessToken);
-            user.setRefreshToken(refreshToken);
-            user.setProfilePictureUrl(profilePictureUrl);
-        }
-        
-        userRepository.save(user);
+        Long userId = userService.upsertOAuthUser(email, name, provider, oauthId, accessToken, tokenExpiresAt, profilePictureUrl);
+        userSearchIndex.index(userId, name, email, profilePictureUrl);
         
         return oidcUser;
     }
@@ -0,0 +1,143 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ReadWriteRoutingDataSource;
+import com.example.demo.entity.User;
+import com.example.demo.resilience.Bulkhead;
+import com.example.demo.tracing.Tracer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Builds the whole dashboard in one request. Sections load in parallel on virtual threads;
+ * a section that fails or misses its deadline comes back empty with its status, so the
+ * response time is bounded by the slowest section's timeout rather than the sum of all.
+ * A section that misses its deadline is interrupted, and at most
+ * {@code app.dashboard.max-concurrent-sections} sections run at once across all requests.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    @Autowired
+    private FriendshipService friendshipService;
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Autowired
+    private GoogleCalendarService googleCalendarService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.dashboard.section-timeout-ms:1500}")
+    private long sectionTimeoutMillis;
+
+    @Value("${app.dashboard.calendar-timeout-ms:3000}")
+    private long calendarTimeoutMillis;
+
+    @Value("${app.dashboard.max-concurrent-sections:200}")
+    private int maxConcurrentSections;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private Bulkhead bulkhead;
+
+    @PostConstruct
+    void init() {
+        // A section that can't start within its own deadline would time out anyway
+        bulkhead = new Bulkhead(maxConcurrentSections, sectionTimeoutMillis);
+        Gauge.builder("dashboard.sections.available", bulkhead, Bulkhead::availablePermits)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param calendarUser the signed-in user whose Google calendar to include, or null to skip it
+     */
+    public Map<String, Object> getDashboard(Long userId, User calendarUser, int maxEvents) {
+        long start = System.nanoTime();
+
+        Map<String, Future<Object>> sections = new LinkedHashMap<>();
+        sections.put("stats", submit(() -> friendshipService.getDashboardStats(userId)));
+        sections.put("friends", submit(() -> friendshipService.getFriends(userId)));
+        sections.put("upcomingMeetings", submit(() -> meetingService.getUpcomingMeetings(userId)));
+        if (calendarUser != null && calendarUser.getAccessToken() != null) {
+            sections.put("calendarEvents", submit(() -> googleCalendarService.getUpcomingEvents(calendarUser, maxEvents)));
+        }
+
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        Map<String, String> status = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<Object>> section : sections.entrySet()) {
+            long timeout = "calendarEvents".equals(section.getKey()) ? calendarTimeoutMillis : sectionTimeoutMillis;
+            // Every section started at the same time, so each one only gets what is left of its own budget
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeout) - (System.nanoTime() - start);
+            try {
+                dashboard.put(section.getKey(), section.getValue().get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS));
+                status.put(section.getKey(), "ok");
+            } catch (TimeoutException e) {
+                section.getValue().cancel(true);
+                dashboard.put(section.getKey(), null);
+                status.put(section.getKey(), "timeout");
+            } catch (ExecutionException e) {
+                log.warn("Dashboard section {} failed for user {}: {}", section.getKey(), userId, e.getCause().getMessage());
+                dashboard.put(section.getKey(), null);
+                status.put(section.getKey(), status(e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while loading dashboard", e);
+            }
+        }
+        if (!sections.containsKey("calendarEvents")) {
+            dashboard.put("calendarEvents", null);
+            status.put("calendarEvents", "unavailable");
+        }
+        dashboard.put("sections", status);
+        return dashboard;
+    }
+
+    private static String status(Throwable cause) {
+        if (cause instanceof GoogleApiUnavailableException) {
+            return "unavailable";
+        }
+        return cause instanceof RejectedExecutionException ? "busy" : "error";
+    }
+
+    private Future<Object> submit(Callable<?> task) {
+        // Sections run on other threads; keep the request's replica/primary routing and trace
+        Callable<?> section = Tracer.propagate(ReadWriteRoutingDataSource.propagate(task));
+        // A plain Future, unlike a CompletableFuture, interrupts the section's thread when cancelled
+        return executor.submit(() -> {
+            if (!bulkhead.tryAcquire()) {
+                throw new RejectedExecutionException("Too many dashboard sections running");
+            }
+            try {
+                return section.call();
+            } finally {
+                bulkhead.release();
+            }
+        });
+    }
+}
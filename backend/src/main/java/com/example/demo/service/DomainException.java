@@ -0,0 +1,33 @@
+package com.example.demo.service;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.Map;
+
+/**
+ * Base class for expected business failures, such as a missing user or an invalid time range.
+ *
+ * <p>These are part of normal request handling and are often triggered in bulk by clients probing
+ * random IDs, so they skip stack-trace capture and carry their response body prebuilt. Without a
+ * stack trace or suppressed exceptions an instance is immutable and can be thrown from a shared
+ * constant.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final Map<String, Object> body;
+
+    protected DomainException(HttpStatus status, String message) {
+        super(message, null, false, false);
+        this.status = status;
+        this.body = Map.of("error", message);
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public Map<String, Object> getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+import org.springframework.http.HttpStatus;
+
+public class ForbiddenException extends DomainException {
+
+    public static final ForbiddenException NOT_OWNER = new ForbiddenException("Not allowed to act for this user");
+    public static final ForbiddenException NOT_FRIENDS = new ForbiddenException("Meetings can only include the organizer's friends");
+
+    public ForbiddenException(String message) {
+        super(HttpStatus.FORBIDDEN, message);
+    }
+}
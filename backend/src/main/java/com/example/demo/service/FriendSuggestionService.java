@@ -0,0 +1,478 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.FriendSuggestionDto;
+import com.example.demo.entity.User;
+import com.example.demo.events.ChangeEvent;
+import com.example.demo.events.ChangeEventBus;
+import com.example.demo.repository.FriendshipRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.profiling.FriendGraphQueryEvent;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * "People you may know": ranks non-friends by the number of mutual accepted friendships.
+ *
+ * <p>The friendship graph and two-hop counts are kept in memory and updated incrementally as
+ * friendships are accepted or removed (on this node or, via {@link ChangeEventBus}, on others).
+ * Full rebuilds run at startup and periodically to heal any drift, and fan out over user
+ * partitions with fork/join.
+ *
+ * <p>A friend with more than {@code max-hub-degree} friends connects up to a million pairs, so
+ * hubs are left out of the stored counts, which bounds their size. Hubs are added back when a
+ * user's counts are read, so every count is exact and matches {@link #getMutualFriendCount}; a
+ * candidate who is reachable only through hubs is not suggested.
+ */
+@Service
+public class FriendSuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(FriendSuggestionService.class);
+
+    private static final int USERS_PER_REBUILD_TASK = 512;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Value("${app.suggestions.max-hub-degree:1000}")
+    private int maxHubDegree;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Graph graph = new Graph(new HashMap<>(), new HashMap<>());
+    // Changes made while a rebuild reads the edges, replayed onto its result; null when not rebuilding
+    private List<Consumer<Graph>> pendingChanges;
+
+    @PostConstruct
+    void subscribe() {
+        changeEventBus.subscribe(event -> {
+            switch (event.type()) {
+                case FRIEND_REQUEST_ACCEPTED -> {
+                    if (event.userIds().size() == 2) {
+                        addFriendship(event.userIds().get(0), event.userIds().get(1));
+                    }
+                }
+                case FRIENDSHIP_REMOVED -> {
+                    if (event.userIds().size() == 2) {
+                        removeFriendship(event.userIds().get(0), event.userIds().get(1));
+                    }
+                }
+                case USER_DELETED -> removeUser(event.entityId());
+                default -> {
+                }
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.suggestions.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${app.suggestions.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        beginRebuild();
+
+        Map<Long, Set<Long>> adjacency = new HashMap<>();
+        for (Object[] edge : friendshipRepository.findAcceptedFriendshipEdges()) {
+            Long a = (Long) edge[0];
+            Long b = (Long) edge[1];
+            adjacency.computeIfAbsent(a, id -> new HashSet<>()).add(b);
+            adjacency.computeIfAbsent(b, id -> new HashSet<>()).add(a);
+        }
+
+        finishRebuild(adjacency);
+        log.info("Rebuilt friend suggestions for {} users in {} ms", adjacency.size(), System.currentTimeMillis() - start);
+    }
+
+    void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Replaying is safe for changes the snapshot already contains: adding or removing an edge is idempotent
+    void finishRebuild(Map<Long, Set<Long>> adjacency) {
+        Long[] users = adjacency.keySet().toArray(new Long[0]);
+        Map<Long, Map<Long, Integer>> counts = new ConcurrentHashMap<>(users.length);
+        ForkJoinPool.commonPool().invoke(new CountMutualFriends(adjacency, users, 0, users.length, maxHubDegree, counts));
+        Graph rebuilt = new Graph(adjacency, new HashMap<>(counts));
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            pendingChanges = null;
+            graph = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds an accepted friendship and patches the two-hop counts around it. Idempotent.
+     */
+    public void addFriendship(Long a, Long b) {
+        if (!a.equals(b)) {
+            apply(target -> target.link(a, b));
+        }
+    }
+
+    /**
+     * Removes a friendship, e.g. after an unfriend. Idempotent.
+     */
+    public void removeFriendship(Long a, Long b) {
+        apply(target -> target.unlink(a, b));
+    }
+
+    /**
+     * Removes a deleted user and all of their friendships.
+     */
+    public void removeUser(Long userId) {
+        apply(target -> {
+            for (Long friendId : new ArrayList<>(target.friendsOf(userId))) {
+                target.unlink(userId, friendId);
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<FriendSuggestionDto> getSuggestions(Long userId, int limit) {
+        FriendGraphQueryEvent event = new FriendGraphQueryEvent();
+        event.begin();
+        // Existing friends and pending requests in either direction are not suggestions
+        Set<Long> excluded = new HashSet<>(friendshipRepository.findConnectedUserIds(userId));
+        excluded.add(userId);
+
+        Map<Long, Integer> ranked = topCandidates(getMutualFriendCounts(userId), excluded, limit);
+        List<FriendSuggestionDto> suggestions = List.of();
+        if (!ranked.isEmpty()) {
+            Map<Long, User> users = userRepository.findAllById(ranked.keySet()).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+
+            suggestions = ranked.entrySet().stream()
+                    .filter(entry -> users.containsKey(entry.getKey()))
+                    .map(entry -> {
+                        User user = users.get(entry.getKey());
+                        return new FriendSuggestionDto(user.getId(), user.getName(), user.getEmail(),
+                                user.getProfilePictureUrl(), entry.getValue());
+                    })
+                    .collect(Collectors.toList());
+        }
+
+        event.operation = "suggestions";
+        event.userId = userId;
+        event.resultCount = suggestions.size();
+        event.commit();
+        return suggestions;
+    }
+
+    /**
+     * Number of friends the two users have in common, or 0 if unknown.
+     */
+    public int getMutualFriendCount(Long userId, Long otherUserId) {
+        lock.readLock().lock();
+        try {
+            return countShared(graph.friendsOf(userId), graph.friendsOf(otherUserId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mutual friend counts between the user and each of the candidates, read under one lock.
+     * Candidates with none are left out.
+     */
+    public Map<Long, Integer> getMutualFriendCounts(Long userId, Collection<Long> candidateIds) {
+        lock.readLock().lock();
+        try {
+            Set<Long> mine = graph.friendsOf(userId);
+            Map<Long, Integer> counts = new HashMap<>();
+            for (Long candidateId : candidateIds) {
+                int count = countShared(mine, graph.friendsOf(candidateId));
+                if (count > 0) {
+                    counts.put(candidateId, count);
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Snapshot of the user's friends.
+     */
+    public Set<Long> getFriendIds(Long userId) {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(graph.friendsOf(userId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Everyone two hops away through at least one friend that is not a hub, with the exact number
+     * of mutual friends. May include direct friends.
+     */
+    public Map<Long, Integer> getMutualFriendCounts(Long userId) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> counts = new HashMap<>(graph.mutual.getOrDefault(userId, Map.of()));
+            for (Long friendId : graph.friendsOf(userId)) {
+                Set<Long> friendsOfHub = graph.friendsOf(friendId);
+                if (friendsOfHub.size() <= maxHubDegree) {
+                    continue;
+                }
+                // Only candidates already found; walking the hub's friends is what the bound avoids
+                counts.replaceAll((candidateId, count) -> friendsOfHub.contains(candidateId) ? count + 1 : count);
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean areFriends(Long userId, Long otherUserId) {
+        lock.readLock().lock();
+        try {
+            return graph.friendsOf(userId).contains(otherUserId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int countShared(Set<Long> mine, Set<Long> theirs) {
+        Set<Long> smaller = mine.size() <= theirs.size() ? mine : theirs;
+        Set<Long> larger = smaller == mine ? theirs : mine;
+        int count = 0;
+        for (Long friendId : smaller) {
+            if (larger.contains(friendId)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void apply(Consumer<Graph> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(graph);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<Long, Integer> topCandidates(Map<Long, Integer> counts, Set<Long> excluded, int limit) {
+        Comparator<Map.Entry<Long, Integer>> byCount = Map.Entry.comparingByValue();
+        PriorityQueue<Map.Entry<Long, Integer>> top = new PriorityQueue<>(byCount);
+
+        for (Map.Entry<Long, Integer> candidate : counts.entrySet()) {
+            if (excluded.contains(candidate.getKey())) {
+                continue;
+            }
+            if (top.size() < limit) {
+                top.add(candidate);
+            } else if (candidate.getValue() > top.peek().getValue()) {
+                top.poll();
+                top.add(candidate);
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> ordered = new ArrayList<>(top);
+        ordered.sort(byCount.reversed());
+        Map<Long, Integer> result = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> entry : ordered) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Friendships plus, for each user, how many non-hub friends they share with each person two
+     * hops away. A friend counts for a pair only while they have at most {@code maxHubDegree}
+     * friends, so crossing the limit adds or removes all of their pairs at once.
+     */
+    private final class Graph {
+
+        private final Map<Long, Set<Long>> friends;
+        private final Map<Long, Map<Long, Integer>> mutual;
+
+        Graph(Map<Long, Set<Long>> friends, Map<Long, Map<Long, Integer>> mutual) {
+            this.friends = friends;
+            this.mutual = mutual;
+        }
+
+        Set<Long> friendsOf(Long userId) {
+            return friends.getOrDefault(userId, Set.of());
+        }
+
+        void link(Long a, Long b) {
+            if (friendsOf(a).contains(b)) {
+                return;
+            }
+            join(a, b);
+            join(b, a);
+            friends.computeIfAbsent(a, id -> new HashSet<>()).add(b);
+            friends.computeIfAbsent(b, id -> new HashSet<>()).add(a);
+        }
+
+        void unlink(Long a, Long b) {
+            if (!friendsOf(a).contains(b)) {
+                return;
+            }
+            leave(a, b);
+            leave(b, a);
+            for (Long[] pair : new Long[][] {{a, b}, {b, a}}) {
+                Set<Long> adjacent = friends.get(pair[0]);
+                if (adjacent.remove(pair[1]) && adjacent.isEmpty()) {
+                    friends.remove(pair[0]);
+                }
+            }
+        }
+
+        // Called before newcomer is added to middle's friends
+        private void join(Long middle, Long newcomer) {
+            Set<Long> current = friendsOf(middle);
+            if (current.size() < maxHubDegree) {
+                for (Long friendId : current) {
+                    adjust(newcomer, friendId, 1);
+                }
+            } else if (current.size() == maxHubDegree) {
+                // Becomes a hub: its pairs no longer count
+                adjustAllPairs(current, -1);
+            }
+        }
+
+        // Called while leaver is still among middle's friends
+        private void leave(Long middle, Long leaver) {
+            Set<Long> current = friendsOf(middle);
+            if (current.size() <= maxHubDegree) {
+                for (Long friendId : current) {
+                    if (!friendId.equals(leaver)) {
+                        adjust(leaver, friendId, -1);
+                    }
+                }
+            } else if (current.size() == maxHubDegree + 1) {
+                // No longer a hub: the pairs among its remaining friends count again
+                List<Long> remaining = new ArrayList<>(current);
+                remaining.remove(leaver);
+                adjustAllPairs(remaining, 1);
+            }
+        }
+
+        private void adjustAllPairs(Collection<Long> users, int delta) {
+            Long[] ids = users.toArray(new Long[0]);
+            for (int i = 0; i < ids.length; i++) {
+                for (int j = i + 1; j < ids.length; j++) {
+                    adjust(ids[i], ids[j], delta);
+                }
+            }
+        }
+
+        private void adjust(Long a, Long b, int delta) {
+            adjustOne(a, b, delta);
+            adjustOne(b, a, delta);
+        }
+
+        private void adjustOne(Long userId, Long candidateId, int delta) {
+            Map<Long, Integer> counts = mutual.computeIfAbsent(userId, id -> new HashMap<>());
+            if (counts.merge(candidateId, delta, Integer::sum) == 0) {
+                counts.remove(candidateId);
+                if (counts.isEmpty()) {
+                    mutual.remove(userId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes two-hop counts for a slice of users. Each task owns its users' rows,
+     * so tasks never write to the same map.
+     */
+    private static class CountMutualFriends extends RecursiveAction {
+
+        private final Map<Long, Set<Long>> adjacency;
+        private final Long[] users;
+        private final int from;
+        private final int to;
+        private final int maxHubDegree;
+        private final Map<Long, Map<Long, Integer>> counts;
+
+        CountMutualFriends(Map<Long, Set<Long>> adjacency, Long[] users, int from, int to, int maxHubDegree,
+                           Map<Long, Map<Long, Integer>> counts) {
+            this.adjacency = adjacency;
+            this.users = users;
+            this.from = from;
+            this.to = to;
+            this.maxHubDegree = maxHubDegree;
+            this.counts = counts;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= USERS_PER_REBUILD_TASK) {
+                for (int i = from; i < to; i++) {
+                    countFor(users[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new CountMutualFriends(adjacency, users, from, middle, maxHubDegree, counts),
+                    new CountMutualFriends(adjacency, users, middle, to, maxHubDegree, counts));
+        }
+
+        private void countFor(Long userId) {
+            Map<Long, Integer> userCounts = new HashMap<>();
+            for (Long friend : adjacency.get(userId)) {
+                Set<Long> friendsOfFriend = adjacency.get(friend);
+                if (friendsOfFriend.size() > maxHubDegree) {
+                    continue;
+                }
+                for (Long friendOfFriend : friendsOfFriend) {
+                    if (!friendOfFriend.equals(userId)) {
+                        userCounts.merge(friendOfFriend, 1, Integer::sum);
+                    }
+                }
+            }
+            if (!userCounts.isEmpty()) {
+                counts.put(userId, userCounts);
+            }
+        }
+    }
+}
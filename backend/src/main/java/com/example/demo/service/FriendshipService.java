@@ -3,10 +3,15 @@ package com.example.demo.service;
 import com.example.demo.dto.FriendDto;
 import com.example.demo.entity.Friendship;
 import com.example.demo.entity.User;
+import com.example.demo.events.ChangeEvent;
+import com.example.demo.events.ChangeEventBus;
+import com.example.demo.profiling.DtoConversionEvent;
+import com.example.demo.profiling.FriendGraphQueryEvent;
 import com.example.demo.repository.FriendshipRepository;
 import com.example.demo.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.List;
@@ -25,142 +30,193 @@ public class FriendshipService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private ChangeEventBus changeEventBus;
+    
+    @Transactional(readOnly = true)
     public List<FriendDto> getFriends(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!userRepository.existsById(userId)) {
+            throw NotFoundException.USER;
+        }
         
-        List<Friendship> friendships = friendshipRepository.findAcceptedFriendshipsByUser(user);
+        FriendGraphQueryEvent event = new FriendGraphQueryEvent();
+        event.begin();
+        List<Friendship> friendships = friendshipRepository.findAcceptedFriendshipsWithUsers(userId);
+        List<FriendDto> friends = convertAll(friendships, userId);
         
-        return friendships.stream()
-                .map(friendship -> {
-                    User friend = friendship.getUser().getId().equals(userId) ? 
-                            friendship.getFriend() : friendship.getUser();
-                    return new FriendDto(
-                            friend.getId(),
-                            friend.getName(),
-                            friend.getEmail(),
-                            friendship.getIsCloseFriend(),
-                            friendship.getCreatedAt()
-                    );
-                })
-                .collect(Collectors.toList());
+        event.operation = "friends";
+        event.userId = userId;
+        event.resultCount = friends.size();
+        event.commit();
+        return friends;
     }
     
+    @Transactional(readOnly = true)
     public List<FriendDto> getCloseFriends(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!userRepository.existsById(userId)) {
+            throw NotFoundException.USER;
+        }
         
-        List<Friendship> friendships = friendshipRepository.findCloseFriendshipsByUser(user);
+        FriendGraphQueryEvent event = new FriendGraphQueryEvent();
+        event.begin();
+        List<Friendship> friendships = friendshipRepository.findCloseFriendshipsWithUsers(userId);
+        List<FriendDto> friends = convertAll(friendships, userId);
         
-        return friendships.stream()
-                .map(friendship -> {
-                    User friend = friendship.getUser().getId().equals(userId) ? 
-                            friendship.getFriend() : friendship.getUser();
-                    return new FriendDto(
-                            friend.getId(),
-                            friend.getName(),
-                            friend.getEmail(),
-                            friendship.getIsCloseFriend(),
-                            friendship.getCreatedAt()
-                    );
-                })
-                .collect(Collectors.toList());
+        event.operation = "closeFriends";
+        event.userId = userId;
+        event.resultCount = friends.size();
+        event.commit();
+        return friends;
     }
     
+    @Transactional(readOnly = true)
     public Map<String, Object> getDashboardStats(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        List<Friendship> allFriendships = friendshipRepository.findByUserOrFriend(user);
-        
-        long totalFriends = allFriendships.stream()
-                .filter(friendship -> friendship.getStatus() == Friendship.FriendshipStatus.ACCEPTED)
-                .count();
-        
-        long closeFriends = allFriendships.stream()
-                .filter(friendship -> friendship.getStatus() == Friendship.FriendshipStatus.ACCEPTED && friendship.getIsCloseFriend())
-                .count();
+        if (!userRepository.existsById(userId)) {
+            throw NotFoundException.USER;
+        }
         
-        long pendingRequests = allFriendships.stream()
-                .filter(friendship -> friendship.getFriend().getId().equals(userId) && 
-                        friendship.getStatus() == Friendship.FriendshipStatus.PENDING)
-                .count();
+        FriendGraphQueryEvent event = new FriendGraphQueryEvent();
+        event.begin();
+        Object[] counts = friendshipRepository.countFriendshipStats(userId).get(0);
+        long totalFriends = counts[0] != null ? ((Number) counts[0]).longValue() : 0;
+        long closeFriends = counts[1] != null ? ((Number) counts[1]).longValue() : 0;
+        long pendingRequests = counts[2] != null ? ((Number) counts[2]).longValue() : 0;
         
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalFriends", totalFriends);
         stats.put("closeFriends", closeFriends);
         stats.put("pendingRequests", pendingRequests);
         
+        event.operation = "stats";
+        event.userId = userId;
+        event.resultCount = stats.size();
+        event.commit();
         return stats;
     }
     
+    @Transactional
     public void addFriend(Long userId, String friendEmail) {
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> NotFoundException.USER);
         
         User friend = userRepository.findByEmail(friendEmail)
-                .orElseThrow(() -> new RuntimeException("Friend not found"));
+                .orElseThrow(() -> NotFoundException.FRIEND);
         
         if (user.getId().equals(friend.getId())) {
-            throw new RuntimeException("Cannot add yourself as a friend");
+            throw new InvalidRequestException("Cannot add yourself as a friend");
         }
         
         // Check if friendship already exists
         friendshipRepository.findByUserAndFriend(user, friend)
                 .ifPresent(friendship -> {
-                    throw new RuntimeException("Friendship already exists");
+                    throw ConflictException.FRIENDSHIP_EXISTS;
                 });
         
         friendshipRepository.findByUserAndFriend(friend, user)
                 .ifPresent(friendship -> {
-                    throw new RuntimeException("Friendship already exists");
+                    throw ConflictException.FRIENDSHIP_EXISTS;
                 });
         
         Friendship friendship = new Friendship(user, friend);
-        friendshipRepository.save(friendship);
+        friendship = friendshipRepository.save(friendship);
+        
+        changeEventBus.publish(ChangeEvent.Type.FRIEND_REQUEST_SENT, userId,
+                List.of(userId, friend.getId()), friendship.getId());
     }
     
+    @Transactional
     public void toggleCloseFriend(Long userId, Long friendId) {
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> NotFoundException.USER);
         
         User friend = userRepository.findById(friendId)
-                .orElseThrow(() -> new RuntimeException("Friend not found"));
+                .orElseThrow(() -> NotFoundException.FRIEND);
         
         // Find the friendship
         Friendship friendship = friendshipRepository.findByUserAndFriend(user, friend)
                 .orElseGet(() -> friendshipRepository.findByUserAndFriend(friend, user)
-                        .orElseThrow(() -> new RuntimeException("Friendship not found")));
+                        .orElseThrow(() -> NotFoundException.FRIENDSHIP));
         
         friendship.setIsCloseFriend(!friendship.getIsCloseFriend());
         friendshipRepository.save(friendship);
+        
+        changeEventBus.publish(ChangeEvent.Type.CLOSE_FRIEND_TOGGLED, userId,
+                List.of(userId, friendId), friendship.getId());
     }
     
+    @Transactional
     public void acceptFriendRequest(Long userId, Long friendId) {
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> NotFoundException.USER);
         
         User friend = userRepository.findById(friendId)
-                .orElseThrow(() -> new RuntimeException("Friend not found"));
+                .orElseThrow(() -> NotFoundException.FRIEND);
         
         Friendship friendship = friendshipRepository.findByUserAndFriend(friend, user)
-                .orElseThrow(() -> new RuntimeException("Friend request not found"));
+                .orElseThrow(() -> NotFoundException.FRIEND_REQUEST);
         
         friendship.setStatus(Friendship.FriendshipStatus.ACCEPTED);
         friendshipRepository.save(friendship);
+        
+        changeEventBus.publish(ChangeEvent.Type.FRIEND_REQUEST_ACCEPTED, userId,
+                List.of(userId, friendId), friendship.getId());
     }
     
+    @Transactional
     public void rejectFriendRequest(Long userId, Long friendId) {
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> NotFoundException.USER);
         
         User friend = userRepository.findById(friendId)
-                .orElseThrow(() -> new RuntimeException("Friend not found"));
+                .orElseThrow(() -> NotFoundException.FRIEND);
         
         Friendship friendship = friendshipRepository.findByUserAndFriend(friend, user)
-                .orElseThrow(() -> new RuntimeException("Friend request not found"));
+                .orElseThrow(() -> NotFoundException.FRIEND_REQUEST);
         
         friendship.setStatus(Friendship.FriendshipStatus.REJECTED);
         friendshipRepository.save(friendship);
+        
+        changeEventBus.publish(ChangeEvent.Type.FRIEND_REQUEST_REJECTED, userId,
+                List.of(userId, friendId), friendship.getId());
+    }
+    
+    @Transactional
+    public void removeFriend(Long userId, Long friendId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> NotFoundException.USER);
+        
+        User friend = userRepository.findById(friendId)
+                .orElseThrow(() -> NotFoundException.FRIEND);
+        
+        Friendship friendship = friendshipRepository.findByUserAndFriend(user, friend)
+                .orElseGet(() -> friendshipRepository.findByUserAndFriend(friend, user)
+                        .orElseThrow(() -> NotFoundException.FRIENDSHIP));
+        
+        friendshipRepository.delete(friendship);
+        
+        changeEventBus.publish(ChangeEvent.Type.FRIENDSHIP_REMOVED, userId,
+                List.of(userId, friendId), friendship.getId());
+    }
+    
+    private List<FriendDto> convertAll(List<Friendship> friendships, Long userId) {
+        DtoConversionEvent event = new DtoConversionEvent();
+        event.begin();
+        List<FriendDto> friends = friendships.stream()
+                .map(friendship -> {
+                    User friend = friendship.getUser().getId().equals(userId) ? 
+                            friendship.getFriend() : friendship.getUser();
+                    return new FriendDto(
+                            friend.getId(),
+                            friend.getName(),
+                            friend.getEmail(),
+                            friendship.getIsCloseFriend(),
+                            friendship.getCreatedAt()
+                    );
+                })
+                .collect(Collectors.toList());
+        event.dtoType = "FriendDto";
+        event.count = friends.size();
+        event.commit();
+        return friends;
     }
 }
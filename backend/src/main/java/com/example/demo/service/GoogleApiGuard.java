@@ -0,0 +1,231 @@
+package com.example.demo.service;
+
+import com.example.demo.resilience.Bulkhead;
+import com.example.demo.resilience.CircuitBreaker;
+import com.example.demo.resilience.TokenBucket;
+import com.example.demo.tracing.Tracer;
+import com.google.api.client.http.HttpResponseException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Protects outbound Google API calls with per-user and global rate limits, a bulkhead,
+ * a per-call timeout and a circuit breaker. When a call cannot be made or fails, the last
+ * successful result for the same request is served instead, if there is one; {@link #call}
+ * tells callers which one they got.
+ */
+@Component
+public class GoogleApiGuard {
+
+    private static final int MAX_LAST_KNOWN_RESULTS = 10_000;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${google.api.rate-limit.global-per-second:50}")
+    private double globalPerSecond;
+
+    @Value("${google.api.rate-limit.global-burst:100}")
+    private double globalBurst;
+
+    @Value("${google.api.rate-limit.user-per-second:2}")
+    private double userPerSecond;
+
+    @Value("${google.api.rate-limit.user-burst:10}")
+    private double userBurst;
+
+    @Value("${google.api.bulkhead.max-concurrent:20}")
+    private int maxConcurrentCalls;
+
+    @Value("${google.api.bulkhead.max-wait-ms:100}")
+    private long bulkheadMaxWaitMillis;
+
+    @Value("${google.api.timeout-ms:5000}")
+    private long callTimeoutMillis;
+
+    @Value("${google.api.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${google.api.circuit.open-duration-ms:30000}")
+    private long openDurationMillis;
+
+    private final Map<Long, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Object> lastKnownResults = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                    return size() > MAX_LAST_KNOWN_RESULTS;
+                }
+            });
+
+    private TokenBucket globalBucket;
+    private Bulkhead bulkhead;
+    private CircuitBreaker circuitBreaker;
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        globalBucket = new TokenBucket(globalPerSecond, globalBurst);
+        bulkhead = new Bulkhead(maxConcurrentCalls, bulkheadMaxWaitMillis);
+        circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMillis, (from, to) ->
+                meterRegistry.counter("google.api.circuit.transitions",
+                        "from", from.name(), "to", to.name()).increment());
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        Gauge.builder("google.api.circuit.state", () -> circuitBreaker.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+        Gauge.builder("google.api.bulkhead.available", bulkhead, Bulkhead::availablePermits)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public long getCallTimeoutMillis() {
+        return callTimeoutMillis;
+    }
+
+    /**
+     * A call's result, and whether it is the last known result served in place of a failed call.
+     */
+    public record Result<T>(T value, boolean stale) {}
+
+    public <T> T execute(Long userId, String requestKey, Callable<T> call) {
+        return this.<T>call(userId, requestKey, call).value();
+    }
+
+    public <T> Result<T> call(Long userId, String requestKey, Callable<T> call) {
+        String resultKey = userId + ":" + requestKey;
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return fallback(resultKey, "short_circuited", "Google Calendar is temporarily unavailable", null);
+        }
+        TokenBucket userBucket = userBucket(userId);
+        if (!userBucket.tryAcquire()) {
+            circuitBreaker.releasePermission();
+            return fallback(resultKey, "rate_limited", "Too many Google Calendar requests, try again shortly", null);
+        }
+        if (!globalBucket.tryAcquire()) {
+            // The call never happens, so it must not count against the user's own limit
+            userBucket.refund();
+            circuitBreaker.releasePermission();
+            return fallback(resultKey, "rate_limited", "Too many Google Calendar requests, try again shortly", null);
+        }
+        if (!bulkhead.tryAcquire()) {
+            userBucket.refund();
+            globalBucket.refund();
+            circuitBreaker.releasePermission();
+            return fallback(resultKey, "bulkhead_full", "Google Calendar is busy, try again shortly", null);
+        }
+
+        // The call runs on another thread; its spans still belong to this request's trace
+        Callable<T> tracedCall = Tracer.propagate(call);
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    return tracedCall.call();
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            circuitBreaker.releasePermission();
+            throw e;
+        }
+
+        try {
+            T result = future.get(callTimeoutMillis, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            lastKnownResults.put(resultKey, result);
+            outcome("success").increment();
+            return new Result<>(result, false);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            return fallback(resultKey, "timeout", "Google Calendar did not respond in time", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            circuitBreaker.releasePermission();
+            throw new GoogleApiUnavailableException("Interrupted while calling Google Calendar", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (isUpstreamFailure(cause)) {
+                circuitBreaker.onFailure();
+                return fallback(resultKey, "failure", "Google Calendar request failed", cause);
+            }
+            // Client errors such as an expired token say nothing about Google's health
+            circuitBreaker.onSuccess();
+            outcome("client_error").increment();
+            if (cause instanceof HttpResponseException responseException) {
+                throw GoogleApiRejectedException.forStatus(responseException.getStatusCode());
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new GoogleApiUnavailableException(cause.getMessage(), cause);
+        }
+    }
+
+    private boolean isUpstreamFailure(Throwable cause) {
+        if (cause instanceof HttpResponseException responseException) {
+            int status = responseException.getStatusCode();
+            return status == 429 || status >= 500;
+        }
+        return cause instanceof IOException;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Result<T> fallback(String resultKey, String outcome, String message, Throwable cause) {
+        outcome(outcome).increment();
+        Tracer.current().tag("google.fallback", outcome);
+        Object lastKnown = lastKnownResults.get(resultKey);
+        if (lastKnown != null) {
+            outcome("stale_served").increment();
+            return new Result<>((T) lastKnown, true);
+        }
+        throw new GoogleApiUnavailableException(message, cause);
+    }
+
+    private TokenBucket userBucket(Long userId) {
+        return userBuckets.computeIfAbsent(userId, id -> new TokenBucket(userPerSecond, userBurst));
+    }
+
+    /**
+     * Drops the buckets of users who have been idle long enough to refill; a new bucket starts
+     * full, so nothing is lost. Only users active since the last run are kept.
+     */
+    @Scheduled(fixedDelayString = "${google.api.rate-limit.bucket-eviction-ms:60000}")
+    public void evictIdleBuckets() {
+        userBuckets.values().removeIf(TokenBucket::isFull);
+    }
+
+    private Counter outcome(String outcome) {
+        return meterRegistry.counter("google.api.calls", "outcome", outcome);
+    }
+}
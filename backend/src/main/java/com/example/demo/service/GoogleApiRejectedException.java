@@ -0,0 +1,32 @@
+package com.example.demo.service;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A Google API call that Google answered with a 4xx other than 429. These are caused by the
+ * user's credentials or request rather than by Google being unavailable.
+ */
+public class GoogleApiRejectedException extends DomainException {
+
+    public static final GoogleApiRejectedException UNAUTHORIZED =
+            new GoogleApiRejectedException(HttpStatus.UNAUTHORIZED, "Google authorization has expired, sign in with Google again");
+    public static final GoogleApiRejectedException FORBIDDEN =
+            new GoogleApiRejectedException(HttpStatus.FORBIDDEN, "Google Calendar access was not granted");
+    public static final GoogleApiRejectedException NOT_FOUND =
+            new GoogleApiRejectedException(HttpStatus.NOT_FOUND, "Google Calendar resource not found");
+    public static final GoogleApiRejectedException BAD_REQUEST =
+            new GoogleApiRejectedException(HttpStatus.BAD_REQUEST, "Google Calendar rejected the request");
+
+    public GoogleApiRejectedException(HttpStatus status, String message) {
+        super(status, message);
+    }
+
+    public static GoogleApiRejectedException forStatus(int googleStatus) {
+        return switch (googleStatus) {
+            case 401 -> UNAUTHORIZED;
+            case 403 -> FORBIDDEN;
+            case 404, 410 -> NOT_FOUND;
+            default -> BAD_REQUEST;
+        };
+    }
+}
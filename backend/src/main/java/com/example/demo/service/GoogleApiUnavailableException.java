@@ -0,0 +1,12 @@
+package com.example.demo.service;
+
+public class GoogleApiUnavailableException extends RuntimeException {
+
+    public GoogleApiUnavailableException(String message) {
+        super(message);
+    }
+
+    public GoogleApiUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
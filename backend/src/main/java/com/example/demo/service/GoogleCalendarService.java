@@ -3,6 +3,8 @@ package com.example.demo.service;
 import com.google.api.client.auth.oauth2.BearerToken;
 import com.google.api.client.auth.oauth2.Credential;
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpResponse;
 import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
@@ -10,63 +12,148 @@ import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.Events;
 import com.example.demo.entity.User;
+import com.example.demo.profiling.CalendarFetchEvent;
+import com.example.demo.tracing.Span;
+import com.example.demo.tracing.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 @Service
 public class GoogleCalendarService {
 
+    private static final Logger log = LoggerFactory.getLogger(GoogleCalendarService.class);
+
     private static final String APPLICATION_NAME = "Friend Scheduler";
     private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+    // Google's largest page; a window with more pages than this is returned but not synced
+    private static final int PAGE_SIZE = 2500;
+    private static final int MAX_PAGES = 10;
+
+    @Autowired
+    private GoogleApiGuard googleApiGuard;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    // Set by tests; otherwise each call builds a trusted transport
+    private HttpTransport httpTransport;
+
+    // Only a fresh result that covers the whole window may replace the stored availability
+    private record Fetched(List<Event> items, boolean complete) {}
 
     public List<Event> getUserCalendarEvents(User user, LocalDateTime startTime, LocalDateTime endTime) 
             throws GeneralSecurityException, IOException {
         
         if (user.getAccessToken() == null) {
-            throw new IllegalArgumentException("User does not have Google access token");
+            throw InvalidRequestException.NO_GOOGLE_TOKEN;
         }
 
-        HttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
-        
-        Credential credential = new Credential.Builder(BearerToken.authorizationHeaderAccessMethod())
-                .setTransport(httpTransport)
-                .setJsonFactory(JSON_FACTORY)
-                .build()
-                .setAccessToken(user.getAccessToken());
-
-        Calendar service = new Calendar.Builder(httpTransport, JSON_FACTORY, credential)
-                .setApplicationName(APPLICATION_NAME)
-                .build();
-
         com.google.api.client.util.DateTime timeMin = new com.google.api.client.util.DateTime(
                 Date.from(startTime.atZone(ZoneId.systemDefault()).toInstant()));
         com.google.api.client.util.DateTime timeMax = new com.google.api.client.util.DateTime(
                 Date.from(endTime.atZone(ZoneId.systemDefault()).toInstant()));
 
-        Events events = service.events().list("primary")
-                .setTimeMin(timeMin)
-                .setTimeMax(timeMax)
-                .setOrderBy("startTime")
-                .setSingleEvents(true)
-                .execute();
-
-        return events.getItems();
+        GoogleApiGuard.Result<Fetched> result = googleApiGuard.call(user.getId(), "range:" + startTime + ":" + endTime,
+                () -> listAllEvents(user, startTime + "/" + endTime, buildCalendar(user).events().list("primary")
+                        .setTimeMin(timeMin)
+                        .setTimeMax(timeMax)
+                        .setMaxResults(PAGE_SIZE)
+                        .setOrderBy("startTime")
+                        .setSingleEvents(true)));
+        syncAvailability(user, startTime, endTime, result);
+        return result.value().items();
     }
 
     public List<Event> getUpcomingEvents(User user, int maxResults) 
             throws GeneralSecurityException, IOException {
         
         if (user.getAccessToken() == null) {
-            throw new IllegalArgumentException("User does not have Google access token");
+            throw InvalidRequestException.NO_GOOGLE_TOKEN;
         }
 
-        HttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
+        LocalDateTime syncStart = LocalDateTime.now();
+        GoogleApiGuard.Result<Fetched> result = googleApiGuard.call(user.getId(), "upcoming:" + maxResults, () -> {
+            com.google.api.client.util.DateTime now = new com.google.api.client.util.DateTime(System.currentTimeMillis());
+
+            Events events = listEvents(user, "next " + maxResults, buildCalendar(user).events().list("primary")
+                    .setTimeMin(now)
+                    .setMaxResults(maxResults)
+                    .setOrderBy("startTime")
+                    .setSingleEvents(true));
+
+            // Without a next page this holds every future event; otherwise it says nothing about what follows
+            return new Fetched(itemsOf(events), events.getNextPageToken() == null);
+        });
+        syncAvailability(user, syncStart, LocalDateTime.MAX, result);
+        return result.value().items();
+    }
+
+    // The heatmap is a by-product of the fetch: a failed update must not fail the request
+    private void syncAvailability(User user, LocalDateTime startTime, LocalDateTime endTime, GoogleApiGuard.Result<Fetched> result) {
+        if (result.stale() || !result.value().complete()) {
+            return;
+        }
+        try {
+            availabilityService.syncCalendar(user.getId(), startTime, endTime, result.value().items());
+        } catch (DataAccessException e) {
+            log.warn("Could not update availability for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    private Fetched listAllEvents(User user, String window, Calendar.Events.List request) throws IOException {
+        List<Event> items = new ArrayList<>();
+        for (int page = 0; page < MAX_PAGES; page++) {
+            Events events = listEvents(user, window, request);
+            items.addAll(itemsOf(events));
+            if (events.getNextPageToken() == null) {
+                return new Fetched(items, true);
+            }
+            request.setPageToken(events.getNextPageToken());
+        }
+        log.warn("Calendar window {} for user {} has more than {} pages; returning the first ones", window, user.getId(), MAX_PAGES);
+        return new Fetched(items, false);
+    }
+
+    private static List<Event> itemsOf(Events events) {
+        return events.getItems() != null ? events.getItems() : List.of();
+    }
+
+    private Events listEvents(User user, String window, Calendar.Events.List request) throws IOException {
+        CalendarFetchEvent event = new CalendarFetchEvent();
+        event.begin();
+        try (Span span = Tracer.start("google.calendar.events.list", Span.Kind.CLIENT)) {
+            span.tag("http.url", request.buildHttpRequestUrl());
+            HttpResponse response = request.executeUnparsed();
+            Long contentLength = response.getHeaders().getContentLength();
+            Events events = response.parseAs(Events.class);
+            
+            event.userId = user.getId();
+            event.window = window;
+            event.eventCount = events.getItems() != null ? events.getItems().size() : 0;
+            event.bytes = contentLength != null ? contentLength : -1;
+            event.commit();
+            return events;
+        }
+    }
+
+    private Calendar buildCalendar(User user) throws GeneralSecurityException, IOException {
+        HttpTransport httpTransport = this.httpTransport;
+        if (httpTransport == null) {
+            try (Span span = Tracer.start("google.transport", Span.Kind.INTERNAL)) {
+                httpTransport = GoogleNetHttpTransport.newTrustedTransport();
+            }
+        }
         
         Credential credential = new Credential.Builder(BearerToken.authorizationHeaderAccessMethod())
                 .setTransport(httpTransport)
@@ -74,19 +161,20 @@ public class GoogleCalendarService {
                 .build()
                 .setAccessToken(user.getAccessToken());
 
-        Calendar service = new Calendar.Builder(httpTransport, JSON_FACTORY, credential)
+        // Socket timeouts keep the worker thread bounded even after the guard has given up on it
+        int timeoutMillis = (int) googleApiGuard.getCallTimeoutMillis();
+        HttpRequestInitializer requestInitializer = request -> {
+            credential.initialize(request);
+            request.setConnectTimeout(timeoutMillis);
+            request.setReadTimeout(timeoutMillis);
+        };
+
+        return new Calendar.Builder(httpTransport, JSON_FACTORY, requestInitializer)
                 .setApplicationName(APPLICATION_NAME)
                 .build();
+    }
 
-        com.google.api.client.util.DateTime now = new com.google.api.client.util.DateTime(System.currentTimeMillis());
-
-        Events events = service.events().list("primary")
-                .setTimeMin(now)
-                .setMaxResults(maxResults)
-                .setOrderBy("startTime")
-                .setSingleEvents(true)
-                .execute();
-
-        return events.getItems();
+    void setHttpTransport(HttpTransport httpTransport) {
+        this.httpTransport = httpTransport;
     }
-}
\ No newline at end of file
+}
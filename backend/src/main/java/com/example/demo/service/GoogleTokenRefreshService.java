@@ -0,0 +1,152 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.UserRepository;
+import com.google.api.client.auth.oauth2.TokenResponseException;
+import com.google.api.client.googleapis.auth.oauth2.GoogleRefreshTokenRequest;
+import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
+import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Refreshes Google access tokens in the background shortly before they expire, so that
+ * calendar requests never pay for a token refresh or a new OAuth round trip.
+ *
+ * <p>One node at a time runs the sweep, elected through a {@link SchedulerLeaseService} lease.
+ * Due tokens come from the users table (indexed by expiry) a page at a time, so logins on any
+ * node are picked up, and each refresh writes back only the token columns, conditionally, so a
+ * token stored concurrently by a login is never overwritten. Each page is claimed by pushing its
+ * users' {@code next_refresh_attempt} past the retry delay before refreshing; a success clears it,
+ * so a failed refresh simply stays backed off, on whichever node runs the next sweep.
+ */
+@Service
+public class GoogleTokenRefreshService {
+
+    private static final Logger log = LoggerFactory.getLogger(GoogleTokenRefreshService.class);
+    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+    static final String LEASE_NAME = "google-token-refresh";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SchedulerLeaseService schedulerLeaseService;
+
+    @Value("${spring.security.oauth2.client.registration.google.client-id}")
+    private String googleClientId;
+
+    @Value("${spring.security.oauth2.client.registration.google.client-secret}")
+    private String googleClientSecret;
+
+    @Value("${google.token-refresh.lead-time-seconds:300}")
+    private long leadTimeSeconds;
+
+    @Value("${google.token-refresh.batch-size:100}")
+    private int batchSize;
+
+    @Value("${google.token-refresh.lease-ms:60000}")
+    private long leaseMillis;
+
+    private HttpTransport httpTransport;
+
+    /**
+     * Called after a successful Google login with the client that Spring Security just authorized.
+     */
+    public void onLogin(String email, OAuth2AuthorizedClient authorizedClient) {
+        if (!"google".equals(authorizedClient.getClientRegistration().getRegistrationId())) {
+            return;
+        }
+        OAuth2RefreshToken refreshToken = authorizedClient.getRefreshToken();
+        // Google only returns a refresh token on consent, so never overwrite one with null
+        if (refreshToken != null) {
+            userRepository.updateRefreshToken(email, refreshToken.getTokenValue());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${google.token-refresh.poll-interval-ms:15000}",
+            initialDelayString = "${google.token-refresh.initial-delay-ms:15000}")
+    public void refreshDueTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plusSeconds(leadTimeSeconds);
+        while (true) {
+            // Renewed per page so a long sweep keeps the lease; a node that lost it stops
+            if (!schedulerLeaseService.tryAcquire(LEASE_NAME, leaseMillis)) {
+                return;
+            }
+            List<Object[]> due = userRepository.findDueTokenRefreshes(horizon, now, PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                return;
+            }
+            // Claimed rows drop out of the query, so every page makes progress
+            userRepository.deferTokenRefresh(due.stream().map(row -> (Long) row[0]).toList(), retryAt());
+            refreshBatch(due);
+            if (due.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void refreshBatch(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            Long userId = (Long) row[0];
+            String refreshToken = (String) row[1];
+            LocalDateTime previousExpiresAt = (LocalDateTime) row[2];
+            try {
+                GoogleTokenResponse response = new GoogleRefreshTokenRequest(
+                        transport(), JSON_FACTORY, refreshToken, googleClientId, googleClientSecret)
+                        .execute();
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime expiresAt = response.getExpiresInSeconds() != null ?
+                        now.plusSeconds(response.getExpiresInSeconds()) : null;
+                int updated = userRepository.updateRefreshedToken(userId, refreshToken, previousExpiresAt,
+                        response.getAccessToken(), response.getRefreshToken(), expiresAt, now);
+                if (updated == 0) {
+                    log.debug("Google token of user {} changed during refresh; keeping the newer one", userId);
+                } else if (expiresAt == null || !expiresAt.isAfter(now.plusSeconds(leadTimeSeconds))) {
+                    // Otherwise it would be due again on the very next page or sweep
+                    userRepository.deferTokenRefresh(List.of(userId), retryAt());
+                }
+            } catch (TokenResponseException e) {
+                // Any other error leaves the claim in place as the backoff
+                if (e.getDetails() != null && "invalid_grant".equals(e.getDetails().getError())) {
+                    // Revoked or expired grant; the user has to log in again
+                    userRepository.clearRefreshToken(userId, refreshToken);
+                }
+                log.warn("Failed to refresh Google access token for user {}: {}", userId, e.getMessage());
+            } catch (IOException | GeneralSecurityException e) {
+                log.warn("Failed to refresh Google access token for user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    private LocalDateTime retryAt() {
+        return LocalDateTime.now().plusSeconds(leadTimeSeconds + 60);
+    }
+
+    private synchronized HttpTransport transport() throws GeneralSecurityException, IOException {
+        if (httpTransport == null) {
+            httpTransport = GoogleNetHttpTransport.newTrustedTransport();
+        }
+        return httpTransport;
+    }
+
+    // For tests that answer token requests without calling Google
+    synchronized void setHttpTransport(HttpTransport httpTransport) {
+        this.httpTransport = httpTransport;
+    }
+}
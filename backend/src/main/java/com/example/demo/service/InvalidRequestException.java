@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidRequestException extends DomainException {
+
+    public static final InvalidRequestException NO_GOOGLE_TOKEN =
+            new InvalidRequestException("User does not have Google access token");
+
+    public InvalidRequestException(String message) {
+        super(HttpStatus.BAD_REQUEST, message);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.MeetingConflictDto;
+
+import java.util.Map;
+
+public class MeetingConflictException extends ConflictException {
+
+    private final MeetingConflictDto conflict;
+
+    public MeetingConflictException(MeetingConflictDto conflict) {
+        super("Meeting overlaps " + conflict.getConflicts().size() + " existing meeting(s)");
+        this.conflict = conflict;
+    }
+
+    public MeetingConflictDto getConflict() {
+        return conflict;
+    }
+
+    @Override
+    public Map<String, Object> getBody() {
+        return Map.of(
+                "error", getMessage(),
+                "conflicts", conflict.getConflicts(),
+                "suggestions", conflict.getSuggestions());
+    }
+}
@@ -1,16 +1,36 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.MeetingConflictDto;
 import com.example.demo.dto.MeetingDto;
+import com.example.demo.dto.ParticipantDto;
+import com.example.demo.dto.TimeSlotDto;
 import com.example.demo.dto.UserDto;
 import com.example.demo.entity.Meeting;
+import com.example.demo.entity.MeetingParticipant;
 import com.example.demo.entity.User;
+import com.example.demo.events.ChangeEvent;
+import com.example.demo.events.ChangeEventBus;
+import com.example.demo.profiling.ConflictCheckEvent;
+import com.example.demo.profiling.DtoConversionEvent;
+import com.example.demo.repository.FriendshipRepository;
+import com.example.demo.repository.MeetingParticipantRepository;
 import com.example.demo.repository.MeetingRepository;
 import com.example.demo.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,68 +39,353 @@ public class MeetingService {
     @Autowired
     private MeetingRepository meetingRepository;
     
+    @Autowired
+    private MeetingParticipantRepository meetingParticipantRepository;
+    
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+    
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private AvailabilityService availabilityService;
+    
+    @Autowired
+    private ChangeEventBus changeEventBus;
+    
+    @Value("${app.meetings.max-duration-hours:24}")
+    private long maxDurationHours;
+    
+    @Value("${app.meetings.suggestion-window-days:7}")
+    private long suggestionWindowDays;
+    
+    @Value("${app.meetings.max-suggestions:3}")
+    private int maxSuggestions;
+    
+    @Value("${app.meetings.max-participants:100}")
+    private int maxParticipants;
+    
+    @Transactional(readOnly = true)
     public List<MeetingDto> getUpcomingMeetings(Long userId) {
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> NotFoundException.USER);
         
         List<Meeting> meetings = meetingRepository.findUpcomingMeetingsByUser(user, LocalDateTime.now());
         
-        return meetings.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertAll(meetings);
     }
     
+    @Transactional(readOnly = true)
     public List<MeetingDto> getMeetingsByDateRange(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                .orElseThrow(() -> NotFoundException.USER);
         
         List<Meeting> meetings = meetingRepository.findMeetingsByUserAndDateRange(user, startDate, endDate);
         
-        return meetings.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertAll(meetings);
+    }
+    
+    /**
+     * Meetings of either user that overlap the proposed time, with the nearest free slots of the same length.
+     */
+    @Transactional(readOnly = true)
+    public MeetingConflictDto checkConflicts(Long organizerId, Long friendId, LocalDateTime startTime, LocalDateTime endTime) {
+        return checkConflicts(List.of(organizerId, friendId), startTime, endTime);
+    }
+    
+    @Transactional(readOnly = true)
+    public MeetingConflictDto checkConflicts(List<Long> userIds, LocalDateTime startTime, LocalDateTime endTime) {
+        validateTimeRange(startTime, endTime);
+        return findConflicts(List.copyOf(new LinkedHashSet<>(userIds)), startTime, endTime);
     }
     
+    @Transactional
     public MeetingDto createMeeting(Long organizerId, Long friendId, String title, String description,
                                    LocalDateTime startTime, LocalDateTime endTime, String location) {
-        User organizer = userRepository.findById(organizerId)
-                .orElseThrow(() -> new RuntimeException("Organizer not found"));
+        return createMeeting(organizerId, List.of(friendId), title, description, startTime, endTime, location);
+    }
+    
+    /**
+     * Creates a meeting between the organizer and the invitees, who must all be the organizer's
+     * friends. The organizer is accepted; everyone else starts out invited, which already counts
+     * as busy: the booking holds their slot until they decline. The first invitee is also stored
+     * as the meeting's {@code friend}.
+     */
+    @Transactional
+    public MeetingDto createMeeting(Long organizerId, List<Long> inviteeIds, String title, String description,
+                                   LocalDateTime startTime, LocalDateTime endTime, String location) {
+        validateTimeRange(startTime, endTime);
+        Set<Long> distinctIds = new LinkedHashSet<>();
+        distinctIds.add(organizerId);
+        distinctIds.addAll(inviteeIds);
+        if (distinctIds.size() < 2) {
+            throw new InvalidRequestException("A meeting needs at least one invitee");
+        }
+        if (distinctIds.size() > maxParticipants) {
+            throw new InvalidRequestException("Meetings can have at most " + maxParticipants + " participants");
+        }
+        List<Long> participantIds = List.copyOf(distinctIds);
         
-        User friend = userRepository.findById(friendId)
-                .orElseThrow(() -> new RuntimeException("Friend not found"));
+        // Lock every participant so concurrent bookings for any of them are checked one at a time
+        Map<Long, User> users = userRepository.findAllByIdForUpdate(participantIds).stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+        User organizer = users.get(organizerId);
+        if (organizer == null) {
+            throw NotFoundException.ORGANIZER;
+        }
+        if (users.size() < participantIds.size()) {
+            throw NotFoundException.FRIEND;
+        }
+        List<Long> invitees = participantIds.subList(1, participantIds.size());
+        if (friendshipRepository.countAcceptedFriendsAmong(organizerId, invitees) < invitees.size()) {
+            throw ForbiddenException.NOT_FRIENDS;
+        }
         
-        Meeting meeting = new Meeting(title, description, startTime, endTime, location, organizer, friend);
+        MeetingConflictDto conflict = findConflicts(participantIds, startTime, endTime);
+        if (conflict.hasConflicts()) {
+            throw new MeetingConflictException(conflict);
+        }
+        
+        Meeting meeting = new Meeting(title, description, startTime, endTime, location, organizer,
+                users.get(participantIds.get(1)));
         meeting = meetingRepository.save(meeting);
         
+        // Sequence IDs and hibernate.jdbc.batch_size turn this into a few batched inserts
+        List<MeetingParticipant> participants = new ArrayList<>(participantIds.size());
+        for (Long userId : participantIds) {
+            participants.add(new MeetingParticipant(meeting, users.get(userId), userId.equals(organizerId)
+                    ? MeetingParticipant.RsvpStatus.ACCEPTED : MeetingParticipant.RsvpStatus.INVITED));
+        }
+        meetingParticipantRepository.saveAll(participants);
+        availabilityService.applyMeeting(participantIds, startTime, endTime, 1);
+        
+        changeEventBus.publish(ChangeEvent.Type.MEETING_CREATED, organizerId,
+                participantIds, meeting.getId());
+        
+        return convertToDto(meeting, participants, new HashMap<>());
+    }
+    
+    @Transactional
+    public MeetingDto respond(Long meetingId, Long userId, MeetingParticipant.RsvpStatus rsvpStatus) {
+        if (rsvpStatus == MeetingParticipant.RsvpStatus.INVITED) {
+            throw new InvalidRequestException("RSVP must be ACCEPTED, TENTATIVE or DECLINED");
+        }
+        Meeting meeting = meetingRepository.findById(meetingId)
+                .orElseThrow(() -> NotFoundException.MEETING);
+        MeetingParticipant participant = meetingParticipantRepository.findByMeetingIdAndUserId(meetingId, userId)
+                .orElseThrow(() -> NotFoundException.PARTICIPANT);
+        
+        boolean wasDeclined = participant.getRsvpStatus() == MeetingParticipant.RsvpStatus.DECLINED;
+        boolean declined = rsvpStatus == MeetingParticipant.RsvpStatus.DECLINED;
+        if (wasDeclined && !declined && meeting.getStatus() != Meeting.MeetingStatus.CANCELLED) {
+            requireFree(List.of(userId), meeting);
+        }
+        participant.setRsvpStatus(rsvpStatus);
+        participant.setRespondedAt(LocalDateTime.now());
+        meetingParticipantRepository.save(participant);
+        if (wasDeclined != declined && meeting.getStatus() != Meeting.MeetingStatus.CANCELLED) {
+            availabilityService.applyMeeting(List.of(userId), meeting.getStartTime(), meeting.getEndTime(), declined ? -1 : 1);
+        }
+        
+        changeEventBus.publish(ChangeEvent.Type.MEETING_RSVP_CHANGED, userId,
+                participantIds(meeting), meetingId);
+        
         return convertToDto(meeting);
     }
     
+    @Transactional
     public MeetingDto updateMeetingStatus(Long meetingId, Meeting.MeetingStatus status) {
         Meeting meeting = meetingRepository.findById(meetingId)
-                .orElseThrow(() -> new RuntimeException("Meeting not found"));
+                .orElseThrow(() -> NotFoundException.MEETING);
         
+        boolean wasCancelled = meeting.getStatus() == Meeting.MeetingStatus.CANCELLED;
+        boolean cancelled = status == Meeting.MeetingStatus.CANCELLED;
+        List<Long> attendingIds = wasCancelled != cancelled
+                ? meetingParticipantRepository.findAttendingUserIdsByMeetingId(meetingId) : List.of();
+        if (wasCancelled && !cancelled) {
+            requireFree(attendingIds, meeting);
+        }
         meeting.setStatus(status);
         meeting = meetingRepository.save(meeting);
+        if (wasCancelled != cancelled) {
+            availabilityService.applyMeeting(attendingIds, meeting.getStartTime(), meeting.getEndTime(), cancelled ? -1 : 1);
+        }
+        
+        changeEventBus.publish(ChangeEvent.Type.MEETING_STATUS_CHANGED, null,
+                participantIds(meeting), meeting.getId());
         
         return convertToDto(meeting);
     }
     
+    @Transactional
     public void deleteMeeting(Long meetingId) {
         Meeting meeting = meetingRepository.findById(meetingId)
-                .orElseThrow(() -> new RuntimeException("Meeting not found"));
+                .orElseThrow(() -> NotFoundException.MEETING);
         
+        List<Long> participantIds = participantIds(meeting);
+        if (meeting.getStatus() != Meeting.MeetingStatus.CANCELLED) {
+            availabilityService.applyMeeting(meetingParticipantRepository.findAttendingUserIdsByMeetingId(meetingId),
+                    meeting.getStartTime(), meeting.getEndTime(), -1);
+        }
+        meetingParticipantRepository.deleteByMeetingId(meetingId);
         meetingRepository.delete(meeting);
+        
+        changeEventBus.publish(ChangeEvent.Type.MEETING_DELETED, null,
+                participantIds, meetingId);
+    }
+    
+    private void validateTimeRange(LocalDateTime startTime, LocalDateTime endTime) {
+        if (!endTime.isAfter(startTime)) {
+            throw new InvalidRequestException("Meeting must end after it starts");
+        }
+        if (Duration.between(startTime, endTime).compareTo(Duration.ofHours(maxDurationHours)) > 0) {
+            throw new InvalidRequestException("Meetings can be at most " + maxDurationHours + " hours long");
+        }
+    }
+    
+    /**
+     * Puts users back into a meeting only if they are still free at its time, running the same
+     * check as {@link #createMeeting} under the same participant locks. The meeting itself is not
+     * found, because it is cancelled or the users have declined it.
+     */
+    private void requireFree(List<Long> userIds, Meeting meeting) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        userRepository.findAllByIdForUpdate(userIds);
+        MeetingConflictDto conflict = findConflicts(userIds, meeting.getStartTime(), meeting.getEndTime());
+        if (conflict.hasConflicts()) {
+            throw new MeetingConflictException(conflict);
+        }
+    }
+    
+    private MeetingConflictDto findConflicts(List<Long> userIds, LocalDateTime startTime, LocalDateTime endTime) {
+        ConflictCheckEvent event = new ConflictCheckEvent();
+        event.begin();
+        
+        List<Meeting> conflicts = findOverlapping(userIds, startTime, endTime);
+        MeetingConflictDto result = conflicts.isEmpty()
+                ? new MeetingConflictDto(List.of(), List.of())
+                : new MeetingConflictDto(convertAll(conflicts), suggestFreeSlots(userIds, startTime, endTime));
+        
+        event.userCount = userIds.size();
+        event.meetingLength = Duration.between(startTime, endTime).toSeconds();
+        event.conflicts = result.getConflicts().size();
+        event.suggestions = result.getSuggestions().size();
+        event.commit();
+        return result;
+    }
+    
+    /**
+     * Overlapping meetings that any of the users takes part in. Meetings are capped at
+     * {@code maxDurationHours}, so the lookup is a bounded range scan of the (user, start_time) index.
+     */
+    private List<Meeting> findOverlapping(List<Long> userIds, LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime earliestStart = startTime.minusHours(maxDurationHours);
+        return meetingRepository.findOverlappingByParticipants(userIds, earliestStart, startTime, endTime);
+    }
+    
+    /**
+     * Free slots of the requested length closest to the requested start. Candidates sit right
+     * before or right after each busy block in the surrounding window.
+     */
+    private List<TimeSlotDto> suggestFreeSlots(List<Long> userIds, LocalDateTime startTime, LocalDateTime endTime) {
+        Duration length = Duration.between(startTime, endTime);
+        LocalDateTime windowStart = startTime.minusDays(suggestionWindowDays);
+        LocalDateTime windowEnd = endTime.plusDays(suggestionWindowDays);
+        LocalDateTime now = LocalDateTime.now();
+        
+        List<LocalDateTime[]> busy = mergeBusyIntervals(findOverlapping(userIds, windowStart, windowEnd));
+        
+        TreeSet<LocalDateTime> candidates = new TreeSet<>();
+        for (LocalDateTime[] block : busy) {
+            candidates.add(block[1]);
+            candidates.add(block[0].minus(length));
+        }
+        
+        return candidates.stream()
+                .filter(candidate -> !candidate.isBefore(now) && !candidate.isBefore(windowStart)
+                        && !candidate.plus(length).isAfter(windowEnd))
+                .filter(candidate -> isFree(busy, candidate, candidate.plus(length)))
+                .sorted(Comparator.comparing(candidate -> Duration.between(candidate, startTime).abs()))
+                .limit(maxSuggestions)
+                .map(candidate -> new TimeSlotDto(candidate, candidate.plus(length)))
+                .collect(Collectors.toList());
+    }
+    
+    private static List<LocalDateTime[]> mergeBusyIntervals(List<Meeting> meetings) {
+        List<LocalDateTime[]> merged = new ArrayList<>();
+        for (Meeting meeting : meetings) {
+            LocalDateTime[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && !meeting.getStartTime().isAfter(last[1])) {
+                if (meeting.getEndTime().isAfter(last[1])) {
+                    last[1] = meeting.getEndTime();
+                }
+            } else {
+                merged.add(new LocalDateTime[] { meeting.getStartTime(), meeting.getEndTime() });
+            }
+        }
+        return merged;
+    }
+    
+    /**
+     * Binary search for the first busy block ending after {@code start}; the slot is free if it starts at or after {@code end}.
+     */
+    private static boolean isFree(List<LocalDateTime[]> busy, LocalDateTime start, LocalDateTime end) {
+        int low = 0;
+        int high = busy.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (busy.get(middle)[1].isAfter(start)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low == busy.size() || !busy.get(low)[0].isBefore(end);
+    }
+    
+    private List<Long> participantIds(Meeting meeting) {
+        return meetingParticipantRepository.findUserIdsByMeetingId(meeting.getId());
+    }
+    
+    /**
+     * Converts a page of meetings, loading the participants of all of them with one query.
+     */
+    private List<MeetingDto> convertAll(List<Meeting> meetings) {
+        DtoConversionEvent event = new DtoConversionEvent();
+        event.begin();
+        Map<Long, List<MeetingParticipant>> participantsByMeeting = meetings.isEmpty() ? Map.of()
+                : meetingParticipantRepository.findAllWithUsersByMeetingIds(meetings.stream().map(Meeting::getId).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(participant -> participant.getMeeting().getId()));
+        // Users recur across meetings (the viewer is in all of them); convert each once
+        Map<Long, UserDto> userDtos = new HashMap<>();
+        List<MeetingDto> dtos = meetings.stream()
+                .map(meeting -> convertToDto(meeting, participantsByMeeting.getOrDefault(meeting.getId(), List.of()), userDtos))
+                .collect(Collectors.toList());
+        event.dtoType = "MeetingDto";
+        event.count = dtos.size();
+        event.commit();
+        return dtos;
     }
     
     private MeetingDto convertToDto(Meeting meeting) {
-        UserDto organizerDto = userService.convertToDto(meeting.getOrganizer());
-        UserDto friendDto = userService.convertToDto(meeting.getFriend());
+        return convertAll(List.of(meeting)).get(0);
+    }
+    
+    private MeetingDto convertToDto(Meeting meeting, List<MeetingParticipant> participants, Map<Long, UserDto> userDtos) {
+        UserDto organizerDto = userDtos.computeIfAbsent(meeting.getOrganizer().getId(), id -> userService.convertToDto(meeting.getOrganizer()));
+        UserDto friendDto = userDtos.computeIfAbsent(meeting.getFriend().getId(), id -> userService.convertToDto(meeting.getFriend()));
+        List<ParticipantDto> participantDtos = new ArrayList<>(participants.size());
+        for (MeetingParticipant participant : participants) {
+            UserDto userDto = userDtos.computeIfAbsent(participant.getUser().getId(), id -> userService.convertToDto(participant.getUser()));
+            participantDtos.add(new ParticipantDto(userDto, participant.getRsvpStatus().toString(), participant.getRespondedAt()));
+        }
         
         return new MeetingDto(
                 meeting.getId(),
@@ -92,7 +397,8 @@ public class MeetingService {
                 organizerDto,
                 friendDto,
                 meeting.getStatus().toString(),
-                meeting.getCreatedAt()
+                meeting.getCreatedAt(),
+                participantDtos
         );
     }
 }
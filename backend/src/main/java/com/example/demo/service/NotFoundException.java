@@ -0,0 +1,18 @@
+package com.example.demo.service;
+
+import org.springframework.http.HttpStatus;
+
+public class NotFoundException extends DomainException {
+
+    public static final NotFoundException USER = new NotFoundException("User not found");
+    public static final NotFoundException FRIEND = new NotFoundException("Friend not found");
+    public static final NotFoundException ORGANIZER = new NotFoundException("Organizer not found");
+    public static final NotFoundException MEETING = new NotFoundException("Meeting not found");
+    public static final NotFoundException PARTICIPANT = new NotFoundException("Participant not found");
+    public static final NotFoundException FRIENDSHIP = new NotFoundException("Friendship not found");
+    public static final NotFoundException FRIEND_REQUEST = new NotFoundException("Friend request not found");
+
+    public NotFoundException(String message) {
+        super(HttpStatus.NOT_FOUND, message);
+    }
+}
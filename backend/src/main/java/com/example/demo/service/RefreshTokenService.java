@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.RefreshToken;
+import com.example.demo.entity.User;
+import com.example.demo.repository.RefreshTokenRepository;
+import com.example.demo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues the long-lived refresh tokens that go with stateless access tokens. They are random,
+ * stored only as hashes, and single-use: every refresh rotates the token. Presenting a token that
+ * was already rotated means it leaked, so the whole login (token family) is revoked. Logins end
+ * after {@code app.auth.max-session-age-hours} regardless of refreshes.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Idle limit: a token not used within this time expires
+    @Value("${app.auth.refresh-token-ttl-hours:24}")
+    private long refreshTokenTtlHours;
+
+    @Value("${app.auth.max-session-age-hours:168}")
+    private long maxSessionAgeHours;
+
+    public record Rotation(User user, String provider, LocalDateTime authTime, String refreshToken) {}
+
+    /**
+     * Starts a new token family for a fresh login and returns its first token.
+     */
+    public String issue(Long userId, String provider) {
+        LocalDateTime now = LocalDateTime.now();
+        return save(UUID.randomUUID().toString(), userId, provider, now, now);
+    }
+
+    /**
+     * Exchanges a refresh token for its successor. Empty if the token is unknown, expired, already
+     * used (which also revokes its family) or its user no longer exists.
+     */
+    public Optional<Rotation> rotate(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Optional<RefreshToken> stored = refreshTokenRepository.findByTokenHash(hash(token));
+        if (stored.isEmpty() || stored.get().getExpiresAt().isBefore(now)) {
+            return Optional.empty();
+        }
+        RefreshToken current = stored.get();
+        if (current.getUsedAt() != null || refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            log.warn("Refresh token reused for user {}; revoking the session", current.getUserId());
+            refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+            return Optional.empty();
+        }
+        Optional<User> user = userRepository.findById(current.getUserId());
+        if (user.isEmpty()) {
+            refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+            return Optional.empty();
+        }
+        String next = save(current.getFamilyId(), current.getUserId(), current.getProvider(), current.getAuthTime(), now);
+        return Optional.of(new Rotation(user.get(), current.getProvider(), current.getAuthTime(), next));
+    }
+
+    /**
+     * Ends the login the token belongs to, e.g. on logout. Unknown tokens are ignored.
+     */
+    public void revoke(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(stored -> refreshTokenRepository.deleteByFamilyId(stored.getFamilyId()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.refresh-token-purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private String save(String familyId, Long userId, String provider, LocalDateTime authTime, LocalDateTime now) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime idleExpiry = now.plusHours(refreshTokenTtlHours);
+        LocalDateTime sessionExpiry = authTime.plusHours(maxSessionAgeHours);
+        refreshTokenRepository.save(new RefreshToken(hash(token), familyId, userId, provider, authTime,
+                idleExpiry.isBefore(sessionExpiry) ? idleExpiry : sessionExpiry, now));
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
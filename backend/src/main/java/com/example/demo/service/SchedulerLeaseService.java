@@ -0,0 +1,31 @@
+package com.example.demo.service;
+
+import com.example.demo.events.ChangeEventBus;
+import com.example.demo.repository.SchedulerLeaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Elects a single node for cluster-wide background jobs through leases in the shared database.
+ * A job calls {@link #tryAcquire} before each run (and between long-running steps); the node
+ * that holds the lease keeps renewing it, and another node takes over once it lapses.
+ */
+@Service
+public class SchedulerLeaseService {
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    public boolean tryAcquire(String name, long durationMillis) {
+        try {
+            return schedulerLeaseRepository.tryAcquire(name, changeEventBus.getNodeId(), durationMillis) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lease at the same moment
+            return false;
+        }
+    }
+}
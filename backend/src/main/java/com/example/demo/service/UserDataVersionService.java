@@ -0,0 +1,121 @@
+package com.example.demo.service;
+
+import com.example.demo.events.ChangeEventBus;
+import com.example.demo.repository.UserDataVersionRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strong ETags for per-user data, so conditional GETs can answer 304 after a single
+ * primary-key lookup instead of loading friendships or meetings.
+ *
+ * <p>Versions restart from 0 when the version rows do (e.g. a fresh in-memory database), so
+ * every ETag also carries an epoch stored alongside them. All nodes on the same database
+ * share it, and an ETag from before a reset never matches again.
+ */
+@Service
+public class UserDataVersionService {
+
+    private static final long EPOCH_ROW = 0L;
+    // Encodings of these endpoints, in the order of their message converters
+    private static final Map<MediaType, String> ENCODINGS = new LinkedHashMap<>();
+
+    static {
+        ENCODINGS.put(MediaType.APPLICATION_JSON, "");
+        ENCODINGS.put(new MediaType("application", "x-jackson-smile"), "-smile");
+        ENCODINGS.put(MediaType.APPLICATION_CBOR, "-cbor");
+    }
+
+    @Autowired
+    private UserDataVersionRepository userDataVersionRepository;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ContentNegotiationManager contentNegotiationManager;
+
+    private String epoch;
+
+    @PostConstruct
+    void init() {
+        epoch = transactionTemplate.execute(status -> {
+            userDataVersionRepository.initEpoch(System.currentTimeMillis());
+            return Long.toString(userDataVersionRepository.findDataVersion(EPOCH_ROW).orElseThrow(), 36);
+        });
+
+        // Bumped in the writing transaction, so the new version commits (or not) with the data.
+        // Sorted so two writes touching the same users lock their rows in the same order.
+        changeEventBus.subscribeInTransaction(event ->
+                event.userIds().stream().distinct().sorted().forEach(userDataVersionRepository::bump));
+    }
+
+    public long getVersion(Long userId) {
+        return userDataVersionRepository.findDataVersion(userId).orElse(0L);
+    }
+
+    public String etag(Long userId, WebRequest request) {
+        return etag(userId, null, request);
+    }
+
+    /**
+     * ETag for one of several representations of the same data, such as a compact view.
+     */
+    public String etag(Long userId, String variant, WebRequest request) {
+        return "\"" + epoch + "-" + userId + "-" + getVersion(userId) + variantSuffix(variant)
+                + encodingSuffix(request) + "\"";
+    }
+
+    /**
+     * ETag for views filtered by the current time (e.g. upcoming meetings), which can change
+     * without a write. Valid for at most a minute.
+     */
+    public String timeBoundEtag(Long userId, String variant, WebRequest request) {
+        long minute = System.currentTimeMillis() / 60_000;
+        return "\"" + epoch + "-" + userId + "-" + getVersion(userId) + "-" + minute + variantSuffix(variant)
+                + encodingSuffix(request) + "\"";
+    }
+
+    private static String variantSuffix(String variant) {
+        return variant != null ? "-" + variant : "";
+    }
+
+    /**
+     * Strong ETags identify exact bytes, so each encoding of the same data needs its own. Picks
+     * the encoding the way Spring MVC does for these endpoints: acceptable types from most to
+     * least specific (and preferred), each matched against the encodings in converter order.
+     */
+    private String encodingSuffix(WebRequest request) {
+        List<MediaType> acceptable;
+        try {
+            acceptable = new ArrayList<>(contentNegotiationManager.resolveMediaTypes((NativeWebRequest) request));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return "";
+        }
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType type : acceptable) {
+            for (Map.Entry<MediaType, String> encoding : ENCODINGS.entrySet()) {
+                if (type.isCompatibleWith(encoding.getKey())) {
+                    return encoding.getValue();
+                }
+            }
+        }
+        return "";
+    }
+}
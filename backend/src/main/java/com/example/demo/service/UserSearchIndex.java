@@ -0,0 +1,372 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserSearchResultDto;
+import com.example.demo.entity.User;
+import com.example.demo.events.ChangeEvent;
+import com.example.demo.events.ChangeEventBus;
+import com.example.demo.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory type-ahead search over user names and emails.
+ *
+ * <p>Prefix matches come from a sorted term map, typo-tolerant matches from a trigram
+ * inverted index. Up to {@code MAX_FRIEND_CANDIDATES} of the searcher's friends are checked
+ * directly; everyone else, and the friends of larger networks, must come from those postings.
+ * A keystroke therefore scores a bounded number of candidates and reads their mutual friend
+ * counts under one lock; the only part that grows with the network is the copy of the
+ * searcher's friend set. Emails are only shown for friends.
+ *
+ * <p>Entries keep just the displayed fields; their terms and trigrams are recomputed when
+ * they are scored or re-indexed, which keeps a million users within a small heap.
+ */
+@Service
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    private static final int MAX_FRIEND_CANDIDATES = 1_000;
+    private static final int MAX_PREFIX_CANDIDATES = 1_000;
+    private static final int MAX_FUZZY_CANDIDATES = 2_000;
+    private static final double MIN_FUZZY_SIMILARITY = 0.5;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FriendSuggestionService friendSuggestionService;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> terms = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<Long>> trigrams = new ConcurrentHashMap<>();
+
+    private record Entry(Long id, String name, String email, String profilePictureUrl) {}
+
+    private record Match(Entry entry, double score, int mutualFriends, boolean friend) {}
+
+    @PostConstruct
+    void subscribe() {
+        // Local updates are indexed directly by the caller; other nodes reload the user
+        changeEventBus.subscribe(event -> {
+            if (event.type() == ChangeEvent.Type.USER_DELETED) {
+                remove(event.entityId());
+            } else if (event.type() == ChangeEvent.Type.USER_UPDATED
+                    && !changeEventBus.getNodeId().equals(event.originNode())) {
+                userRepository.findById(event.entityId()).ifPresent(this::index);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        long afterId = 0L;
+        int loaded = 0;
+        List<Object[]> page;
+        do {
+            page = userRepository.findSearchFieldsAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (Object[] row : page) {
+                index((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+                afterId = (Long) row[0];
+            }
+            loaded += page.size();
+        } while (page.size() == LOAD_PAGE_SIZE);
+        log.info("Indexed {} users for search in {} ms", loaded, System.currentTimeMillis() - start);
+    }
+
+    public void index(User user) {
+        index(user.getId(), user.getName(), user.getEmail(), user.getProfilePictureUrl());
+    }
+
+    /**
+     * Adds or re-indexes a user. A blank name or missing picture keeps the indexed value,
+     * matching how OAuth logins update the stored user.
+     */
+    public synchronized void index(Long id, String name, String email, String profilePictureUrl) {
+        Entry previous = entries.get(id);
+        if (previous != null) {
+            if (name == null || name.isBlank()) {
+                name = previous.name();
+            }
+            if (profilePictureUrl == null) {
+                profilePictureUrl = previous.profilePictureUrl();
+            }
+        }
+
+        Set<String> newTerms = termsOf(name, email);
+        Set<String> newTrigrams = trigramsOf(name, email);
+        for (String term : newTerms) {
+            terms.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        for (String trigram : newTrigrams) {
+            trigrams.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        entries.put(id, new Entry(id, name, email, profilePictureUrl));
+
+        if (previous != null) {
+            for (String term : termsOf(previous.name(), previous.email())) {
+                if (!newTerms.contains(term)) {
+                    removePosting(terms, term, id);
+                }
+            }
+            for (String trigram : trigramsOf(previous.name(), previous.email())) {
+                if (!newTrigrams.contains(trigram)) {
+                    removePosting(trigrams, trigram, id);
+                }
+            }
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            termsOf(previous.name(), previous.email()).forEach(term -> removePosting(terms, term, id));
+            trigramsOf(previous.name(), previous.email()).forEach(trigram -> removePosting(trigrams, trigram, id));
+        }
+    }
+
+    public List<UserSearchResultDto> search(Long userId, String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        Set<String> queryTrigrams = normalized.length() >= 3 ? queryTrigramsOf(normalized) : Set.of();
+
+        Set<Long> friendIds = friendSuggestionService.getFriendIds(userId);
+
+        // Text score of every candidate that matches at all
+        Map<Long, Double> scores = new HashMap<>();
+        if (friendIds.size() <= MAX_FRIEND_CANDIDATES) {
+            for (Long candidate : friendIds) {
+                consider(candidate, normalized, queryTrigrams, scores);
+            }
+        }
+
+        int scanned = 0;
+        prefixScan:
+        for (Set<Long> ids : terms.subMap(normalized, true, normalized + Character.MAX_VALUE, true).values()) {
+            for (Long candidate : ids) {
+                consider(candidate, normalized, queryTrigrams, scores);
+                if (++scanned >= MAX_PREFIX_CANDIDATES) {
+                    break prefixScan;
+                }
+            }
+        }
+
+        if (scores.size() < limit && !queryTrigrams.isEmpty()) {
+            for (Long candidate : fuzzyCandidates(queryTrigrams)) {
+                consider(candidate, normalized, queryTrigrams, scores);
+            }
+        }
+        scores.remove(userId);
+
+        Map<Long, Integer> mutualCounts = friendSuggestionService.getMutualFriendCounts(userId, scores.keySet());
+        List<Match> matches = new ArrayList<>(scores.size());
+        for (Map.Entry<Long, Double> scored : scores.entrySet()) {
+            Entry entry = entries.get(scored.getKey());
+            if (entry == null) {
+                continue;
+            }
+            boolean friend = friendIds.contains(entry.id());
+            int mutualFriends = mutualCounts.getOrDefault(entry.id(), 0);
+            double score = scored.getValue();
+            if (friend) {
+                score += 1.0;
+            } else if (mutualFriends > 0) {
+                score += 0.5 + Math.min(mutualFriends, 10) * 0.05;
+            }
+            matches.add(new Match(entry, score, mutualFriends, friend));
+        }
+
+        return top(matches, limit).stream()
+                .map(match -> new UserSearchResultDto(match.entry().id(), match.entry().name(),
+                        match.friend() ? match.entry().email() : null,
+                        match.entry().profilePictureUrl(),
+                        match.friend() ? "FRIEND" : match.mutualFriends() > 0 ? "FRIEND_OF_FRIEND" : "NONE",
+                        match.mutualFriends()))
+                .toList();
+    }
+
+    private void consider(Long candidate, String query, Set<String> queryTrigrams, Map<Long, Double> scores) {
+        if (scores.containsKey(candidate)) {
+            return;
+        }
+        Entry entry = entries.get(candidate);
+        if (entry == null) {
+            return;
+        }
+        double score = matchScore(entry, query, queryTrigrams);
+        if (score > 0) {
+            scores.put(candidate, score);
+        }
+    }
+
+    private double matchScore(Entry entry, String query, Set<String> queryTrigrams) {
+        double best = 0;
+        for (String term : termsOf(entry.name(), entry.email())) {
+            if (term.equals(query)) {
+                return 1.0;
+            }
+            if (term.startsWith(query)) {
+                best = 0.8;
+            }
+        }
+        if (best > 0 || queryTrigrams.isEmpty()) {
+            return best;
+        }
+        Set<String> entryTrigrams = trigramsOf(entry.name(), entry.email());
+        int shared = 0;
+        for (String trigram : queryTrigrams) {
+            if (entryTrigrams.contains(trigram)) {
+                shared++;
+            }
+        }
+        double similarity = (double) shared / queryTrigrams.size();
+        return similarity >= MIN_FUZZY_SIMILARITY ? 0.6 * similarity : 0;
+    }
+
+    /**
+     * Candidates from the rarest query trigrams first, so common trigrams don't blow up the scan.
+     */
+    private Set<Long> fuzzyCandidates(Set<String> queryTrigrams) {
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String trigram : queryTrigrams) {
+            Set<Long> ids = trigrams.get(trigram);
+            if (ids != null) {
+                postings.add(ids);
+            }
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> candidates = new LinkedHashSet<>();
+        for (Set<Long> ids : postings) {
+            for (Long id : ids) {
+                candidates.add(id);
+                if (candidates.size() >= MAX_FUZZY_CANDIDATES) {
+                    return candidates;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static List<Match> top(Iterable<Match> matches, int limit) {
+        Comparator<Match> byScore = Comparator.comparingDouble(Match::score);
+        PriorityQueue<Match> top = new PriorityQueue<>(byScore);
+        for (Match match : matches) {
+            if (top.size() < limit) {
+                top.add(match);
+            } else if (match.score() > top.peek().score()) {
+                top.poll();
+                top.add(match);
+            }
+        }
+        List<Match> ordered = new ArrayList<>(top);
+        ordered.sort(byScore.reversed());
+        return ordered;
+    }
+
+    private static void removePosting(Map<String, Set<Long>> index, String key, Long id) {
+        Set<Long> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(key, ids);
+            }
+        }
+    }
+
+    private static Set<String> termsOf(String name, String email) {
+        Set<String> result = new HashSet<>();
+        String normalizedName = normalize(name);
+        if (!normalizedName.isEmpty()) {
+            result.add(normalizedName);
+            for (String word : normalizedName.split(" ")) {
+                result.add(word);
+            }
+        }
+        String normalizedEmail = normalize(email);
+        if (!normalizedEmail.isEmpty()) {
+            result.add(normalizedEmail);
+            String localPart = localPart(normalizedEmail);
+            result.add(localPart);
+            for (String word : localPart.split("[._+-]")) {
+                if (!word.isEmpty()) {
+                    result.add(word);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Trigrams of each name word and the email local part. Email domains are left out:
+     * their trigrams are shared by most users and carry no signal.
+     */
+    private static Set<String> trigramsOf(String name, String email) {
+        Set<String> result = new HashSet<>();
+        for (String word : normalize(name).split(" ")) {
+            addTrigrams(" " + word + " ", result);
+        }
+        String normalizedEmail = normalize(email);
+        if (!normalizedEmail.isEmpty()) {
+            addTrigrams(" " + localPart(normalizedEmail) + " ", result);
+        }
+        return result;
+    }
+
+    private static Set<String> queryTrigramsOf(String query) {
+        // No trailing pad: the query is usually an unfinished word
+        Set<String> result = new HashSet<>();
+        for (String word : query.split(" ")) {
+            addTrigrams(" " + word, result);
+        }
+        return result;
+    }
+
+    private static void addTrigrams(String padded, Set<String> result) {
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+    }
+
+    private static String localPart(String email) {
+        int at = email.indexOf('@');
+        return at > 0 ? email.substring(0, at) : email;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+}
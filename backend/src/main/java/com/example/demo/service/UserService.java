@@ -2,10 +2,19 @@ package com.example.demo.service;
 
 import com.example.demo.dto.UserDto;
 import com.example.demo.entity.User;
+import com.example.demo.events.ChangeEvent;
+import com.example.demo.events.ChangeEventBus;
+import com.example.demo.repository.FriendshipRepository;
 import com.example.demo.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -14,16 +23,56 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+    
+    @Autowired
+    private ChangeEventBus changeEventBus;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
     
+    // Read-write transactions keep these lookups on the primary: they run right after login,
+    // before a replica may have the user (repository reads are otherwise read-only)
+    @Transactional
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
     }
     
+    @Transactional
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
     
     
+    /**
+     * Writes the user from an OAuth login with a single upsert and publishes the change, and
+     * returns its ID. Each attempt runs in its own transaction: after a unique-key violation the
+     * retry needs a fresh one.
+     */
+    public Long upsertOAuthUser(String email, String name, String provider, String oauthId,
+                                String accessToken, LocalDateTime tokenExpiresAt, String profilePictureUrl) {
+        try {
+            return transactionTemplate.execute(status -> upsertAndPublish(email, name, provider, oauthId,
+                    accessToken, tokenExpiresAt, profilePictureUrl));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent first login for the same email inserted the row; this attempt updates it
+            return transactionTemplate.execute(status -> upsertAndPublish(email, name, provider, oauthId,
+                    accessToken, tokenExpiresAt, profilePictureUrl));
+        }
+    }
+    
+    private Long upsertAndPublish(String email, String name, String provider, String oauthId,
+                                  String accessToken, LocalDateTime tokenExpiresAt, String profilePictureUrl) {
+        Long userId = userRepository.upsertOAuthUser(email, name, provider, oauthId,
+                accessToken, tokenExpiresAt, profilePictureUrl, LocalDateTime.now());
+        // Friend lists and requests show this user's name and picture
+        List<Long> affected = new ArrayList<>(friendshipRepository.findConnectedUserIds(userId));
+        affected.add(userId);
+        changeEventBus.publish(ChangeEvent.Type.USER_UPDATED, userId, affected, userId);
+        return userId;
+    }
+    
     public UserDto convertToDto(User user) {
         return new UserDto(user.getId(), user.getName(), user.getEmail(), user.getOauthProvider(), user.getProfilePictureUrl(), user.getCreatedAt());
     }
@@ -0,0 +1,116 @@
+package com.example.demo.tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One timed operation in a request's trace. Spans form a tree under the request's root span;
+ * children may be added from other threads when work fans out.
+ */
+public class Span implements AutoCloseable {
+
+    public enum Kind {
+        SERVER, CONTROLLER, SERVICE, SQL, CLIENT, INTERNAL
+    }
+
+    static final Span NOOP = new Span(null, null, "noop", Kind.INTERNAL, 0L);
+
+    private final Trace trace;
+    private final Span parent;
+    private final String id;
+    private volatile String name;
+    private final Kind kind;
+    private final long startNanos;
+    private final Map<String, String> tags = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final List<Span> children = Collections.synchronizedList(new ArrayList<>());
+    private volatile long durationNanos = -1;
+    private Span previous;
+
+    Span(Trace trace, Span parent, String name, Kind kind, long startNanos) {
+        this.trace = trace;
+        this.parent = parent;
+        this.id = String.format("%016x", ThreadLocalRandom.current().nextLong());
+        this.name = name;
+        this.kind = kind;
+        this.startNanos = startNanos;
+    }
+
+    public Span tag(String key, Object value) {
+        if (this != NOOP && value != null) {
+            tags.put(key, value.toString());
+        }
+        return this;
+    }
+
+    /**
+     * Ends the span and makes its parent current again on this thread.
+     */
+    @Override
+    public void close() {
+        if (this == NOOP || durationNanos >= 0) {
+            return;
+        }
+        finish();
+        Tracer.restore(this, previous);
+    }
+
+    void finish() {
+        durationNanos = System.nanoTime() - startNanos;
+    }
+
+    void rename(String name) {
+        this.name = name;
+    }
+
+    void setPrevious(Span previous) {
+        this.previous = previous;
+    }
+
+    void addChild(Span child) {
+        children.add(child);
+    }
+
+    public Trace getTrace() {
+        return trace;
+    }
+
+    public Span getParent() {
+        return parent;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public Map<String, String> getTags() {
+        synchronized (tags) {
+            return new LinkedHashMap<>(tags);
+        }
+    }
+
+    public List<Span> getChildren() {
+        synchronized (children) {
+            return new ArrayList<>(children);
+        }
+    }
+}
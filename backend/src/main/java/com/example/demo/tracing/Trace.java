@@ -0,0 +1,58 @@
+package com.example.demo.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The span tree of one request. Span start times are kept as {@link System#nanoTime()} values
+ * and converted to wall-clock time relative to when the trace started.
+ */
+public class Trace {
+
+    private static final int MAX_SPANS = 1_000;
+
+    private final String traceId;
+    private final long startEpochMicros;
+    private final long startNanos;
+    private final AtomicInteger spanCount = new AtomicInteger();
+    private final AtomicInteger droppedSpans = new AtomicInteger();
+    private volatile Span root;
+
+    Trace() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.traceId = String.format("%016x%016x", random.nextLong(), random.nextLong());
+        this.startEpochMicros = System.currentTimeMillis() * 1000;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Whether another span may be recorded; a runaway loop of queries must not grow a trace without bound.
+     */
+    boolean reserveSpan() {
+        if (spanCount.incrementAndGet() > MAX_SPANS) {
+            droppedSpans.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    void setRoot(Span root) {
+        this.root = root;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public Span getRoot() {
+        return root;
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans.get();
+    }
+
+    public long toEpochMicros(long nanos) {
+        return startEpochMicros + (nanos - startNanos) / 1000;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the most recent interesting traces. Whether a trace is kept is decided once the request
+ * has finished (tail sampling): slow and failed requests always are, others at a small random rate.
+ */
+@Component
+public class TraceBuffer {
+
+    @Value("${app.tracing.slow-threshold-ms:500}")
+    private long slowThresholdMillis;
+
+    @Value("${app.tracing.sample-rate:0.01}")
+    private double sampleRate;
+
+    private final AtomicReferenceArray<Trace> traces;
+    private final AtomicLong written = new AtomicLong();
+
+    public TraceBuffer(@Value("${app.tracing.buffer-size:200}") int capacity) {
+        this.traces = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Offers a finished trace; returns whether it was kept.
+     */
+    public boolean offer(Trace trace, int status) {
+        long durationNanos = trace.getRoot().getDurationNanos();
+        boolean keep = status >= 500
+                || durationNanos >= TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis)
+                || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (keep) {
+            traces.set((int) (written.getAndIncrement() % traces.length()), trace);
+        }
+        return keep;
+    }
+
+    /**
+     * Buffered traces, newest first.
+     */
+    public List<Trace> getTraces() {
+        List<Trace> result = new ArrayList<>(traces.length());
+        long newest = written.get();
+        for (long i = newest - 1; i >= Math.max(0, newest - traces.length()); i--) {
+            Trace trace = traces.get((int) (i % traces.length()));
+            if (trace != null) {
+                result.add(trace);
+            }
+        }
+        return result;
+    }
+
+    public Trace find(String traceId) {
+        for (int i = 0; i < traces.length(); i++) {
+            Trace trace = traces.get(i);
+            if (trace != null && trace.getTraceId().equals(traceId)) {
+                return trace;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.tracing;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Thread-bound access to the current request's trace. Outside a traced request every call is a
+ * no-op, so instrumented code doesn't need to check whether tracing is on.
+ *
+ * <pre>{@code
+ * try (Span span = Tracer.start("google.transport", Span.Kind.CLIENT)) {
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class Tracer {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private Tracer() {
+    }
+
+    public static Span current() {
+        Span span = CURRENT.get();
+        return span != null ? span : Span.NOOP;
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Starts a child of the current span and makes it current until it is closed.
+     */
+    public static Span start(String name, Span.Kind kind) {
+        Span parent = CURRENT.get();
+        if (parent == null || !parent.getTrace().reserveSpan()) {
+            return Span.NOOP;
+        }
+        Span span = new Span(parent.getTrace(), parent, name, kind, System.nanoTime());
+        parent.addChild(span);
+        span.setPrevious(parent);
+        CURRENT.set(span);
+        return span;
+    }
+
+    /**
+     * Records a span that already finished, such as one measured between two callbacks.
+     */
+    public static void record(String name, Span.Kind kind, long startNanos) {
+        Span parent = CURRENT.get();
+        if (parent == null || !parent.getTrace().reserveSpan()) {
+            return;
+        }
+        Span span = new Span(parent.getTrace(), parent, name, kind, startNanos);
+        parent.addChild(span);
+        span.finish();
+    }
+
+    static Span startTrace(String name) {
+        Trace trace = new Trace();
+        Span root = new Span(trace, null, name, Span.Kind.SERVER, System.nanoTime());
+        trace.setRoot(root);
+        root.setPrevious(CURRENT.get());
+        CURRENT.set(root);
+        return root;
+    }
+
+    static void restore(Span closed, Span previous) {
+        // Spans closed out of order leave the current span alone
+        if (CURRENT.get() == closed) {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Carries the current span to a task that runs on another thread, so its spans join this trace.
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(parent);
+            try {
+                return task.call();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+}
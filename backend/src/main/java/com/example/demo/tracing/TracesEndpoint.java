@@ -0,0 +1,123 @@
+package com.example.demo.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/traces} lists the buffered traces and {@code /actuator/traces/{traceId}} shows
+ * one as a span tree. With {@code ?format=zipkin} both return Zipkin v2 JSON spans, which the
+ * Zipkin UI and other trace viewers can import.
+ */
+@Component
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    @Autowired
+    private TraceBuffer traceBuffer;
+
+    @Value("${spring.application.name:friendscheduler}")
+    private String serviceName;
+
+    @ReadOperation
+    public List<Map<String, Object>> traces(@Nullable String format) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Trace trace : traceBuffer.getTraces()) {
+            if ("zipkin".equals(format)) {
+                addZipkinSpans(trace, trace.getRoot(), result);
+            } else {
+                Span root = trace.getRoot();
+                Map<String, Object> summary = new LinkedHashMap<>();
+                summary.put("traceId", trace.getTraceId());
+                summary.put("name", root.getName());
+                summary.put("startedAt", Instant.ofEpochMilli(trace.toEpochMicros(root.getStartNanos()) / 1000));
+                summary.put("durationMs", millis(root.getDurationNanos()));
+                summary.put("status", root.getTags().get("http.status_code"));
+                result.add(summary);
+            }
+        }
+        return result;
+    }
+
+    @ReadOperation
+    public Object trace(@Selector String traceId, @Nullable String format) {
+        Trace trace = traceBuffer.find(traceId);
+        if (trace == null) {
+            return null;
+        }
+        if ("zipkin".equals(format)) {
+            List<Map<String, Object>> spans = new ArrayList<>();
+            addZipkinSpans(trace, trace.getRoot(), spans);
+            return spans;
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("traceId", trace.getTraceId());
+        result.put("droppedSpans", trace.getDroppedSpans());
+        result.put("root", tree(trace.getRoot(), trace.getRoot().getStartNanos()));
+        return result;
+    }
+
+    private Map<String, Object> tree(Span span, long traceStartNanos) {
+        Map<String, Object> node = new LinkedHashMap<>();
+        node.put("name", span.getName());
+        node.put("kind", span.getKind());
+        node.put("offsetMs", millis(span.getStartNanos() - traceStartNanos));
+        node.put("durationMs", millis(span.getDurationNanos()));
+        Map<String, String> tags = span.getTags();
+        if (!tags.isEmpty()) {
+            node.put("tags", tags);
+        }
+        List<Span> children = span.getChildren();
+        if (!children.isEmpty()) {
+            node.put("children", children.stream().map(child -> tree(child, traceStartNanos)).toList());
+        }
+        return node;
+    }
+
+    private void addZipkinSpans(Trace trace, Span span, List<Map<String, Object>> result) {
+        Map<String, Object> zipkin = new LinkedHashMap<>();
+        zipkin.put("traceId", trace.getTraceId());
+        zipkin.put("id", span.getId());
+        if (span.getParent() != null) {
+            zipkin.put("parentId", span.getParent().getId());
+        }
+        zipkin.put("name", span.getName());
+        switch (span.getKind()) {
+            case SERVER -> zipkin.put("kind", "SERVER");
+            case SQL -> {
+                zipkin.put("kind", "CLIENT");
+                zipkin.put("remoteEndpoint", Map.of("serviceName", "database"));
+            }
+            case CLIENT -> {
+                zipkin.put("kind", "CLIENT");
+                zipkin.put("remoteEndpoint", Map.of("serviceName", "google"));
+            }
+            default -> { }
+        }
+        zipkin.put("timestamp", trace.toEpochMicros(span.getStartNanos()));
+        // Spans still running (e.g. an abandoned Google call) have no duration yet
+        if (span.getDurationNanos() >= 0) {
+            zipkin.put("duration", Math.max(1, span.getDurationNanos() / 1000));
+        }
+        zipkin.put("localEndpoint", Map.of("serviceName", serviceName));
+        zipkin.put("tags", span.getTags());
+        result.add(zipkin);
+        for (Span child : span.getChildren()) {
+            addZipkinSpans(trace, child, result);
+        }
+    }
+
+    private static Double millis(long nanos) {
+        return nanos >= 0 ? Math.round(nanos / 10_000.0) / 100.0 : null;
+    }
+}
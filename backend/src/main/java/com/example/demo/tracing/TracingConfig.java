@@ -0,0 +1,95 @@
+package com.example.demo.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Instruments controllers, services, SQL statements and response rendering for request tracing.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig implements WebMvcConfigurer {
+
+    /**
+     * A span per public method of every {@code @RestController} and {@code @Service}. Registered as
+     * an infrastructure advisor so the proxy creator that already applies {@code @Transactional}
+     * picks it up, without AspectJ.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor tracingAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(RestController.class, true))
+                .union(new AnnotationMatchingPointcut(Service.class, true));
+        MethodInterceptor interceptor = invocation -> {
+            if (!Tracer.isActive()) {
+                return invocation.proceed();
+            }
+            Class<?> type = AopUtils.getTargetClass(invocation.getThis());
+            Span.Kind kind = AnnotatedElementUtils.hasAnnotation(type, RestController.class)
+                    ? Span.Kind.CONTROLLER : Span.Kind.SERVICE;
+            try (Span span = Tracer.start(type.getSimpleName() + "." + invocation.getMethod().getName(), kind)) {
+                try {
+                    return invocation.proceed();
+                } catch (Throwable e) {
+                    span.tag("error", e.getClass().getSimpleName());
+                    throw e;
+                }
+            }
+        };
+        return new DefaultPointcutAdvisor(pointcut, interceptor);
+    }
+
+    @Bean
+    static BeanPostProcessor tracingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only the data source the application uses; with a replica the pools sit behind it
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+                // The response body is written after the controller method returns; time that as its own span
+                List<Span> children = Tracer.current().getChildren();
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    Span span = children.get(i);
+                    if (span.getKind() == Span.Kind.CONTROLLER && span.getDurationNanos() >= 0) {
+                        Tracer.record("render", Span.Kind.INTERNAL, span.getStartNanos() + span.getDurationNanos());
+                        return;
+                    }
+                }
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.tracing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Records a span for each SQL statement run on a connection taken during a traced request.
+ * Connections taken outside a trace are returned unwrapped.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    private static final int MAX_STATEMENT_LENGTH = 1_000;
+
+    public TracingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return traced(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return traced(super.getConnection(username, password));
+    }
+
+    private Connection traced(Connection connection) {
+        if (!Tracer.isActive()) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    return switch (method.getName()) {
+                        case "prepareCall" -> statement(CallableStatement.class, (Statement) result, (String) args[0]);
+                        case "prepareStatement" -> statement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                        case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                        default -> result;
+                    };
+                });
+    }
+
+    private static Statement statement(Class<? extends Statement> type, Statement statement, String sql) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute") || !Tracer.isActive()) {
+                return invoke(statement, method, args);
+            }
+            // Plain statements get their SQL with each execute call
+            String text = sql != null ? sql : args != null && args.length > 0 && args[0] instanceof String s ? s : "";
+            try (Span span = Tracer.start("sql " + operation(text), Span.Kind.SQL)) {
+                span.tag("db.statement", text.length() > MAX_STATEMENT_LENGTH ? text.substring(0, MAX_STATEMENT_LENGTH) : text);
+                try {
+                    Object result = invoke(statement, method, args);
+                    if (result instanceof int[] batch) {
+                        span.tag("db.batch_size", batch.length);
+                    }
+                    return result;
+                } catch (SQLException e) {
+                    span.tag("error", e.getMessage());
+                    throw e;
+                }
+            }
+        };
+        return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String operation(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return end > 0 ? trimmed.substring(0, end).toLowerCase() : "statement";
+    }
+}
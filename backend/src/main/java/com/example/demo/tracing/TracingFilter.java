@@ -0,0 +1,59 @@
+package com.example.demo.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens the root span of every API request, ahead of security so authentication time is included,
+ * and hands the finished trace to the {@link TraceBuffer}. The trace ID is returned in an
+ * {@code X-Trace-Id} header to look the trace up if it was kept.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "app.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    @Autowired
+    private TraceBuffer traceBuffer;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Span root = Tracer.startTrace(request.getMethod() + " " + request.getRequestURI());
+        root.tag("http.method", request.getMethod()).tag("http.path", request.getRequestURI());
+        // Known before the body is written, so the header can still be set
+        response.setHeader(TRACE_ID_HEADER, root.getTrace().getTraceId());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            root.close();
+            String route = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (route != null) {
+                root.rename(request.getMethod() + " " + route);
+            }
+            root.tag("http.status_code", response.getStatus());
+            // Long-lived streams (the change feed) would only crowd out real requests
+            if (!request.isAsyncStarted()) {
+                traceBuffer.offer(root.getTrace(), response.getStatus());
+            }
+        }
+    }
+}
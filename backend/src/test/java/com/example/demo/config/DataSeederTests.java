@@ -0,0 +1,74 @@
+package com.example.demo.config;
+
+import com.example.demo.service.MeetingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seed-tests;DB_CLOSE_DELAY=-1",
+        "app.seed.users=500",
+        "app.seed.friendships=4000",
+        "app.seed.meetings=1000",
+        "app.seed.group-meeting-percent=10",
+        "app.seed.batch-size=300",
+        "app.seed.anchor-date=2025-01-06"
+})
+@ActiveProfiles("seed")
+class DataSeederTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Test
+    void seedsDistinctPowerLawFriendshipsAndMeetingsBetweenFriends() {
+        assertThat(count("SELECT COUNT(*) FROM users")).isEqualTo(500);
+        assertThat(count("SELECT COUNT(*) FROM friendships")).isEqualTo(4000);
+        assertThat(count("SELECT COUNT(*) FROM meetings")).isEqualTo(1000);
+
+        assertThat(count("SELECT COUNT(*) FROM friendships WHERE user_id = friend_id")).isZero();
+        assertThat(count("SELECT COUNT(DISTINCT LEAST(user_id, friend_id) * 100000 + GREATEST(user_id, friend_id)) FROM friendships"))
+                .isEqualTo(4000);
+        assertThat(count("SELECT COUNT(*) FROM meetings m WHERE NOT EXISTS (SELECT 1 FROM friendships f WHERE f.status = 'ACCEPTED'"
+                + " AND ((f.user_id = m.organizer_id AND f.friend_id = m.friend_id) OR (f.user_id = m.friend_id AND f.friend_id = m.organizer_id)))"))
+                .isZero();
+
+        // Skewed degrees: the best-connected user has several times the average (16)
+        int maxDegree = count("SELECT MAX(degree) FROM (SELECT user_id AS u, COUNT(*) AS degree FROM "
+                + "(SELECT user_id FROM friendships UNION ALL SELECT friend_id FROM friendships) GROUP BY user_id)");
+        assertThat(maxDegree).isGreaterThan(64);
+    }
+
+    @Test
+    void seedsParticipantsForEveryMeetingAndLeavesTheSequenceAhead() {
+        assertThat(count("SELECT COUNT(*) FROM meetings m WHERE (SELECT COUNT(*) FROM meeting_participants p "
+                + "WHERE p.meeting_id = m.id AND p.user_id IN (m.organizer_id, m.friend_id)) <> 2")).isZero();
+        assertThat(count("SELECT COUNT(*) FROM meeting_participants")).isGreaterThan(2000);
+        assertThat(count("SELECT COUNT(*) FROM meeting_participants p JOIN meetings m ON m.id = p.meeting_id "
+                + "WHERE p.start_time <> m.start_time OR p.end_time <> m.end_time")).isZero();
+
+        // New participants get IDs past the seeded ones; seeded meetings are between friends
+        Map<String, Object> pair = jdbcTemplate.queryForMap("SELECT organizer_id, friend_id FROM meetings ORDER BY id LIMIT 1");
+        LocalDateTime start = LocalDateTime.of(2030, 1, 7, 9, 0);
+        Long meetingId = meetingService.createMeeting(((Number) pair.get("organizer_id")).longValue(),
+                ((Number) pair.get("friend_id")).longValue(), "After seeding", null,
+                start, start.plusHours(1), "Office").getId();
+        assertThat(count("SELECT COUNT(*) FROM meeting_participants WHERE meeting_id = " + meetingId)).isEqualTo(2);
+        // Leave the seeded data as it was for the other test
+        meetingService.deleteMeeting(meetingId);
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+}
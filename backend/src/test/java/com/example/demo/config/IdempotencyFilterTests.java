@@ -0,0 +1,159 @@
+package com.example.demo.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.idempotency.ttl-minutes=60",
+        "app.idempotency.wait-timeout-ms=5000",
+        "app.idempotency.max-keys-per-user=3"
+})
+class IdempotencyFilterTests {
+
+    @Autowired
+    private IdempotencyFilter filter;
+
+    // Keys are stored in the shared test database, so each test uses its own user
+    private final String principal = "idempotency-" + UUID.randomUUID();
+
+    @Test
+    void duplicatesWaitForTheOriginalAndReplayItsResponse() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain chain = (request, response) -> {
+            int execution = executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.setContentType("application/json");
+            response.getOutputStream().write(("{\"execution\":" + execution + "}").getBytes(StandardCharsets.UTF_8));
+        };
+
+        CompletableFuture<MockHttpServletResponse> original = CompletableFuture.supplyAsync(() -> send(chain, "key-1", "{}"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<MockHttpServletResponse> duplicate = CompletableFuture.supplyAsync(() -> send(chain, "key-1", "{}"));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(original.get(5, TimeUnit.SECONDS).getContentAsString()).isEqualTo("{\"execution\":1}");
+        MockHttpServletResponse replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertThat(replayed.getContentAsString()).isEqualTo("{\"execution\":1}");
+        assertThat(replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(send(chain, "key-1", "{}").getContentAsString()).isEqualTo("{\"execution\":1}");
+        assertThat(executions).hasValue(1);
+
+        assertThat(send(chain, "key-2", "{}").getContentAsString()).isEqualTo("{\"execution\":2}");
+    }
+
+    @Test
+    void aKeyReusedWithADifferentBodyIsRejected() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        FilterChain chain = (request, response) -> {
+            executions.incrementAndGet();
+            response.getOutputStream().write(request.getInputStream().readAllBytes());
+        };
+
+        assertThat(send(chain, "key-1", "{\"friendEmail\":\"a@example.com\"}").getContentAsString())
+                .isEqualTo("{\"friendEmail\":\"a@example.com\"}");
+        MockHttpServletResponse mismatch = send(chain, "key-1", "{\"friendEmail\":\"b@example.com\"}");
+
+        assertThat(mismatch.getStatus()).isEqualTo(422);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void serverErrorsAreNotReplayed() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        FilterChain chain = (request, response) -> {
+            if (executions.incrementAndGet() == 1) {
+                ((HttpServletResponse) response).setStatus(503);
+            }
+        };
+
+        assertThat(send(chain, "key-1", "{}").getStatus()).isEqualTo(503);
+        assertThat(send(chain, "key-1", "{}").getStatus()).isEqualTo(200);
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void eachUserHoldsABoundedNumberOfKeys() throws Exception {
+        FilterChain chain = (request, response) -> response.getOutputStream().write(request.getInputStream().readAllBytes());
+
+        for (int i = 1; i <= 3; i++) {
+            assertThat(send(chain, "key-" + i, "{}").getStatus()).isEqualTo(200);
+        }
+        assertThat(send(chain, "key-4", "{}").getStatus()).isEqualTo(429);
+        // Keys already held still replay
+        assertThat(send(chain, "key-1", "{}").getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void asyncReadersGetTheCachedBody() throws Exception {
+        AtomicReference<String> read = new AtomicReference<>();
+        FilterChain chain = (request, response) -> {
+            ServletInputStream input = request.getInputStream();
+            input.setReadListener(new ReadListener() {
+                private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (input.isReady() && !input.isFinished()) {
+                        body.write(input.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    read.set(body.toString(StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    read.set("error");
+                }
+            });
+        };
+
+        send(chain, "key-1", "{\"title\":\"Lunch\"}");
+
+        assertThat(read).hasValue("{\"title\":\"Lunch\"}");
+    }
+
+    private MockHttpServletResponse send(FilterChain chain, String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/friends/1/add");
+        request.setServletPath("/api/friends/1/add");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        request.setUserPrincipal(() -> principal);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.config;
+
+import com.example.demo.service.FriendshipService;
+import com.example.demo.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two embedded H2 databases stand in for primary and replica. A user row that exists only
+ * on the replica shows which one a query went to.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1"
+})
+class ReadReplicaRoutingTests {
+
+    private static final long REPLICA_ONLY_USER = 9001L;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private FriendshipService friendshipService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        Integer tables = replica.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'USERS'", Integer.class);
+        if (tables == 0) {
+            List<String> schema = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class);
+            schema.stream().filter(statement -> !statement.startsWith("CREATE USER")).forEach(replica::execute);
+            replica.update("INSERT INTO users (id, name, email) VALUES (?, 'Replica Only', 'replica-only@example.com')",
+                    REPLICA_ONLY_USER);
+        }
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndOtherCallsThePrimary() {
+        assertThat(friendshipService.getFriends(REPLICA_ONLY_USER)).isEmpty();
+        assertThat(userService.findById(REPLICA_ONLY_USER)).isEmpty();
+    }
+
+    @Test
+    void recentWritersArePinnedToThePrimary() throws Exception {
+        readYourWritesTracker.recordWrite(REPLICA_ONLY_USER);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE,
+                Map.of("userId", String.valueOf(REPLICA_ONLY_USER)));
+        readYourWritesTracker.preHandle(request, new MockHttpServletResponse(), null);
+        try {
+            assertThatThrownBy(() -> friendshipService.getFriends(REPLICA_ONLY_USER)).hasMessage("User not found");
+        } finally {
+            readYourWritesTracker.afterCompletion(request, new MockHttpServletResponse(), null, null);
+        }
+
+        assertThat(readYourWritesTracker.isSticky(REPLICA_ONLY_USER + 1)).isFalse();
+        assertThat(friendshipService.getFriends(REPLICA_ONLY_USER)).isEmpty();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.config;
+
+import com.example.demo.service.AccessTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Session mode is the default and must start without a token secret
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"app.auth.session-mode=session", "app.auth.token-secret="})
+class SessionModeTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Test
+    void bearerTokensAreNeitherIssuedNorAccepted() throws Exception {
+        assertThat(accessTokenService.isEnabled()).isFalse();
+
+        HttpResponse<String> api = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/friends/1"))
+                        .header("Authorization", "Bearer not-a-token").build(),
+                HttpResponse.BodyHandlers.ofString());
+        // Sent to the login page like any other unauthenticated request, not checked as a token
+        assertThat(api.statusCode()).isEqualTo(302);
+        assertThat(api.headers().firstValue("WWW-Authenticate")).isEmpty();
+
+        HttpResponse<String> refresh = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/token/refresh"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"refreshToken\":\"abc\"}")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(refresh.statusCode()).isEqualTo(404);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.AccessTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApiExceptionHandlerTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private CalendarController calendarController;
+
+    @Test
+    void badInputIsRejectedWithoutEchoingIt() throws Exception {
+        User user = userRepository.save(new User("Errors Alice", "errors-alice@example.com"));
+
+        assertError(send(user, "PUT", "/api/meetings/1/status", "{\"status\":\"<script>\"}"), 400, "Invalid status");
+        assertError(send(user, "POST", "/api/meetings/create",
+                "{\"organizerId\":\"abc\",\"friendId\":2,\"startTime\":\"2030-01-01T10:00:00\",\"endTime\":\"2030-01-01T11:00:00\"}"),
+                400, "Invalid organizerId");
+        assertError(send(user, "GET", "/api/meetings/conflicts?organizerId=1&friendId=2&startTime=tomorrow&endTime=later", null),
+                400, "Invalid date or time");
+        assertError(send(user, "GET", "/api/availability/abc", null), 400, "Invalid userId");
+    }
+
+    @Test
+    void domainExceptionsKeepTheirStatus() throws Exception {
+        User user = userRepository.save(new User("Errors Bob", "errors-bob@example.com"));
+
+        assertError(send(user, "DELETE", "/api/meetings/987654321", null), 404, "Meeting not found");
+        assertError(send(user, "GET", "/api/calendar/events/upcoming", null), 400, "User does not have Google access token");
+    }
+
+    @Test
+    void googleClientFailuresMapToGatewayErrors() {
+        ResponseEntity<Map<String, Object>> io = calendarController.handleGoogleIoFailure(new IOException("connection reset"));
+        assertThat(io.getStatusCode()).isEqualTo(HttpStatus.BAD_GATEWAY);
+        assertThat(io.getBody()).containsEntry("error", "Google Calendar request failed");
+
+        ResponseEntity<Map<String, Object>> security = calendarController.handleTransportFailure(new GeneralSecurityException("no trust store"));
+        assertThat(security.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private static void assertError(HttpResponse<String> response, int status, String error) {
+        assertThat(response.statusCode()).isEqualTo(status);
+        assertThat(response.body()).isEqualTo("{\"error\":\"" + error + "\"}");
+    }
+
+    private HttpResponse<String> send(User user, String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + accessTokenService.issue(user, "google"))
+                .header("Content-Type", "application/json")
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody())
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.AccessTokenService;
+import com.example.demo.service.FriendshipService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class FriendsControllerTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FriendshipService friendshipService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Test
+    void onlyTheOwnerCanRemoveAFriendship() throws Exception {
+        User alice = userRepository.save(new User("Remove Alice", "remove-alice@example.com"));
+        User bob = userRepository.save(new User("Remove Bob", "remove-bob@example.com"));
+        User mallory = userRepository.save(new User("Remove Mallory", "remove-mallory@example.com"));
+        friendshipService.addFriend(alice.getId(), bob.getEmail());
+        friendshipService.acceptFriendRequest(bob.getId(), alice.getId());
+
+        String path = "/api/friends/" + alice.getId() + "/remove/" + bob.getId();
+        assertThat(delete(mallory, path).statusCode()).isEqualTo(403);
+        assertThat(friendshipService.getFriends(alice.getId())).hasSize(1);
+
+        assertThat(delete(alice, path).statusCode()).isEqualTo(200);
+        assertThat(friendshipService.getFriends(alice.getId())).isEmpty();
+    }
+
+    private HttpResponse<String> delete(User user, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + accessTokenService.issue(user, "google"))
+                .DELETE()
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
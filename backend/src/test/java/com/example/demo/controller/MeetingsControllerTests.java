@@ -0,0 +1,135 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.Friendship;
+import com.example.demo.entity.User;
+import com.example.demo.repository.FriendshipRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.AccessTokenService;
+import com.example.demo.service.MeetingService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MeetingsControllerTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void compactViewExpandsToTheFullOneAndHasItsOwnEtag() throws Exception {
+        User alice = userRepository.save(new User("Compact Alice", "compact-alice@example.com"));
+        User bob = userRepository.save(new User("Compact Bob", "compact-bob@example.com"));
+        User carol = userRepository.save(new User("Compact Carol", "compact-carol@example.com"));
+        befriend(alice.getId(), bob.getId(), carol.getId());
+        LocalDateTime noon = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.DAYS).withHour(12);
+        meetingService.createMeeting(alice.getId(), List.of(bob.getId(), carol.getId()), "Lunch", "Tacos",
+                noon, noon.plusHours(1), "Cafe");
+        meetingService.createMeeting(bob.getId(), List.of(alice.getId()), "Coffee", null,
+                noon.plusHours(3), noon.plusHours(4), "Kitchen");
+
+        HttpResponse<String> full = get(alice, "/api/meetings/" + alice.getId() + "/upcoming", null);
+        HttpResponse<String> compact = get(alice, "/api/meetings/" + alice.getId() + "/upcoming?view=compact", null);
+
+        assertThat(expand(objectMapper.readTree(compact.body()))).isEqualTo(objectMapper.readTree(full.body()));
+
+        String fullEtag = full.headers().firstValue("ETag").orElseThrow();
+        String compactEtag = compact.headers().firstValue("ETag").orElseThrow();
+        assertThat(compactEtag).isNotEqualTo(fullEtag);
+        assertThat(get(alice, "/api/meetings/" + alice.getId() + "/upcoming?view=compact", fullEtag).statusCode())
+                .isEqualTo(200);
+        assertThat(get(alice, "/api/meetings/" + alice.getId() + "/upcoming?view=compact", compactEtag).statusCode())
+                .isEqualTo(304);
+    }
+
+    @Test
+    void rsvpChangesOnlyTheSignedInUsersResponse() throws Exception {
+        User dave = userRepository.save(new User("Rsvp Dave", "rsvp-dave@example.com"));
+        User erin = userRepository.save(new User("Rsvp Erin", "rsvp-erin@example.com"));
+        befriend(dave.getId(), erin.getId());
+        LocalDateTime nine = LocalDateTime.now().plusDays(4).truncatedTo(ChronoUnit.DAYS).withHour(9);
+        Long meetingId = meetingService.createMeeting(dave.getId(), List.of(erin.getId()), "Standup", null,
+                nine, nine.plusMinutes(30), "Office").getId();
+
+        // A userId in the body is ignored
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/meetings/" + meetingId + "/rsvp"))
+                .header("Authorization", "Bearer " + accessTokenService.issue(erin, "google"))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"userId\":" + dave.getId() + ",\"status\":\"DECLINED\"}"))
+                .build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        JsonNode participants = objectMapper.readTree(response.body()).get("participants");
+        assertThat(participants.get(0).get("rsvpStatus").asText()).isEqualTo("ACCEPTED");
+        assertThat(participants.get(1).get("rsvpStatus").asText()).isEqualTo("DECLINED");
+    }
+
+    // Puts each side-loaded user back where the full view embeds it
+    private JsonNode expand(JsonNode compact) {
+        JsonNode users = compact.get("users");
+        ArrayNode meetings = objectMapper.createArrayNode();
+        for (JsonNode meeting : compact.get("meetings")) {
+            ObjectNode expanded = meeting.deepCopy();
+            expanded.set("organizer", users.get(expanded.remove("organizerId").asText()));
+            expanded.set("friend", users.get(expanded.remove("friendId").asText()));
+            ArrayNode participants = objectMapper.createArrayNode();
+            for (JsonNode participant : meeting.get("participants")) {
+                ObjectNode expandedParticipant = participant.deepCopy();
+                expandedParticipant.set("user", users.get(expandedParticipant.remove("userId").asText()));
+                participants.add(expandedParticipant);
+            }
+            expanded.set("participants", participants);
+            meetings.add(expanded);
+        }
+        return meetings;
+    }
+
+    private HttpResponse<String> get(User user, String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + accessTokenService.issue(user, "google"));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void befriend(Long userId, Long... friendIds) {
+        for (Long friendId : friendIds) {
+            Friendship friendship = new Friendship(userRepository.findById(userId).orElseThrow(),
+                    userRepository.findById(friendId).orElseThrow());
+            friendship.setStatus(Friendship.FriendshipStatus.ACCEPTED);
+            friendshipRepository.save(friendship);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.events;
+
+import com.example.demo.entity.ChangeEventRecord;
+import com.example.demo.repository.ChangeEventRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ChangeEventBusTests {
+
+    @Autowired
+    private ChangeEventRecordRepository changeEventRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void inJvmTransportDeliversToLocalAndOtherNodesOnce() {
+        InJvmChangeEventTransport transport = new InJvmChangeEventTransport();
+        ChangeEventBus nodeA = new ChangeEventBus(transport);
+        ChangeEventBus nodeB = new ChangeEventBus(transport);
+        List<ChangeEvent> seenByA = new CopyOnWriteArrayList<>();
+        List<ChangeEvent> seenByB = new CopyOnWriteArrayList<>();
+        nodeA.subscribe(seenByA::add);
+        nodeB.subscribe(seenByB::add);
+
+        nodeA.publish(ChangeEvent.Type.MEETING_CREATED, 1L, List.of(1L, 2L), 10L);
+
+        assertThat(seenByA).hasSize(1);
+        assertThat(seenByB).singleElement().satisfies(event -> {
+            assertThat(event.originNode()).isEqualTo(nodeA.getNodeId());
+            assertThat(event.userIds()).containsExactly(1L, 2L);
+        });
+    }
+
+    @Test
+    void jdbcTransportDeliversRemoteEventsOnPollAndSkipsDuplicates() {
+        JdbcPollingChangeEventTransport transportA = new JdbcPollingChangeEventTransport(changeEventRecordRepository, 5000);
+        JdbcPollingChangeEventTransport transportB = new JdbcPollingChangeEventTransport(changeEventRecordRepository, 5000);
+        ChangeEventBus nodeA = new ChangeEventBus(transportA);
+        ChangeEventBus nodeB = new ChangeEventBus(transportB);
+        List<ChangeEvent> seenByA = new CopyOnWriteArrayList<>();
+        List<ChangeEvent> seenByB = new CopyOnWriteArrayList<>();
+        nodeA.subscribe(seenByA::add);
+        nodeB.subscribe(seenByB::add);
+
+        nodeA.publish(ChangeEvent.Type.FRIEND_REQUEST_ACCEPTED, 3L, List.of(3L, 4L), 20L);
+        assertThat(seenByA).hasSize(1);
+        assertThat(seenByB).isEmpty();
+
+        transportB.poll();
+        transportB.poll();
+        transportA.poll();
+
+        assertThat(seenByA).hasSize(1);
+        assertThat(seenByB).singleElement().satisfies(event -> {
+            assertThat(event.type()).isEqualTo(ChangeEvent.Type.FRIEND_REQUEST_ACCEPTED);
+            assertThat(event.actorId()).isEqualTo(3L);
+            assertThat(event.userIds()).containsExactly(3L, 4L);
+            assertThat(event.entityId()).isEqualTo(20L);
+        });
+    }
+
+    @Test
+    void jdbcTransportDeliversAnEventCommittedAfterALaterOne() throws Exception {
+        JdbcPollingChangeEventTransport transportA = new JdbcPollingChangeEventTransport(changeEventRecordRepository, 60_000);
+        JdbcPollingChangeEventTransport transportB = new JdbcPollingChangeEventTransport(changeEventRecordRepository, 60_000);
+        ChangeEventBus nodeA = new ChangeEventBus(transportA);
+        ChangeEventBus nodeB = new ChangeEventBus(transportB);
+        List<ChangeEvent> seenByB = new CopyOnWriteArrayList<>();
+        nodeB.subscribe(seenByB::add);
+
+        // A slow writer takes the lower ID but commits after a faster one
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        Thread slowWriter = new Thread(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            changeEventRecordRepository.save(new ChangeEventRecord(ChangeEvent.Type.MEETING_CREATED.name(), 5L, "5",
+                    30L, nodeA.getNodeId()));
+            inserted.countDown();
+            try {
+                commit.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        slowWriter.start();
+        assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        nodeA.publish(ChangeEvent.Type.MEETING_STATUS_CHANGED, 6L, List.of(6L), 31L);
+        transportB.poll();
+        assertThat(seenByB).extracting(ChangeEvent::entityId).containsExactly(31L);
+
+        commit.countDown();
+        slowWriter.join();
+        transportB.poll();
+        transportB.poll();
+        assertThat(seenByB).extracting(ChangeEvent::entityId).containsExactly(31L, 30L);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.events;
+
+import com.example.demo.entity.User;
+import com.example.demo.reminders.FeedReminderSink;
+import com.example.demo.reminders.Reminder;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.AccessTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.feed.max-pending-events=3")
+class ChangeFeedRegistryTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ChangeFeedRegistry changeFeedRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private FeedReminderSink feedReminderSink;
+
+    @Test
+    void onlyTheOwnerCanOpenAFeed() throws Exception {
+        User alice = userRepository.save(new User("Feed Alice", "feed-alice@example.com"));
+        User bob = userRepository.save(new User("Feed Bob", "feed-bob@example.com"));
+
+        HttpResponse<InputStream> foreign = open(alice, bob.getId());
+        assertThat(foreign.statusCode()).isEqualTo(403);
+        foreign.body().close();
+
+        HttpResponse<InputStream> own = open(alice, alice.getId());
+        assertThat(own.statusCode()).isEqualTo(200);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(own.body(), StandardCharsets.UTF_8))) {
+            assertThat(reader.readLine()).isEqualTo("event:connected");
+        }
+    }
+
+    @Test
+    void aClientThatStopsReadingIsDropped() throws Exception {
+        User carol = userRepository.save(new User("Feed Carol", "feed-carol@example.com"));
+        int before = changeFeedRegistry.getConnectionCount();
+
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(4096);
+            socket.connect(new InetSocketAddress("localhost", port));
+            socket.getOutputStream().write(("GET /api/feed/" + carol.getId() + " HTTP/1.1\r\n"
+                    + "Host: localhost\r\n"
+                    + "Accept: text/event-stream\r\n"
+                    + "Authorization: Bearer " + accessTokenService.issue(carol, "google") + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (changeFeedRegistry.getConnectionCount() == before && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(changeFeedRegistry.getConnectionCount()).isEqualTo(before + 1);
+
+            // The socket is never read, so sends block once the buffers are full and events pile up
+            String payload = "x".repeat(1024 * 1024);
+            deadline = System.currentTimeMillis() + 10000;
+            while (changeFeedRegistry.getConnectionCount() > before && System.currentTimeMillis() < deadline) {
+                changeFeedRegistry.sendToUser(carol.getId(), "bulk", payload);
+                Thread.sleep(50);
+            }
+            assertThat(changeFeedRegistry.getConnectionCount()).isEqualTo(before);
+        }
+    }
+
+    @Test
+    void remindersOnlyReachUsersWithAStreamOnThisNode() throws Exception {
+        User dave = userRepository.save(new User("Feed Dave", "feed-dave@example.com"));
+        LocalDateTime start = LocalDateTime.now().plusMinutes(15);
+        Reminder reminder = new Reminder(1L, dave.getId(), "Standup", start, start.minusMinutes(15));
+
+        assertThat(feedReminderSink.deliver(reminder)).isFalse();
+
+        HttpResponse<InputStream> stream = open(dave, dave.getId());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream.body(), StandardCharsets.UTF_8))) {
+            assertThat(reader.readLine()).isEqualTo("event:connected");
+            assertThat(feedReminderSink.deliver(reminder)).isTrue();
+        }
+    }
+
+    private HttpResponse<InputStream> open(User user, Long feedUserId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/feed/" + feedUserId))
+                .header("Authorization", "Bearer " + accessTokenService.issue(user, "google"))
+                .header("Accept", "text/event-stream")
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+    }
+}
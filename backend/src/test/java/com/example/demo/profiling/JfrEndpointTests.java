@@ -0,0 +1,59 @@
+package com.example.demo.profiling;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.FriendshipService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class JfrEndpointTests {
+
+    @Autowired
+    private JfrEndpoint jfrEndpoint;
+
+    @Autowired
+    private FriendshipService friendshipService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void continuousRecordingCapturesAppEvents() throws Exception {
+        User user = userRepository.save(new User("Recorded User", "recorded-user@example.com"));
+        friendshipService.getFriends(user.getId());
+
+        Resource download = jfrEndpoint.download("continuous");
+        Path file = download.getFile().toPath();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo("com.example.demo.FriendGraphQuery");
+            assertThat(event.getLong("userId")).isEqualTo(user.getId());
+            assertThat(event.getString("operation")).isEqualTo("friends");
+        });
+        assertThat(events).anyMatch(event -> event.getEventType().getName().equals("com.example.demo.DtoConversion"));
+        assertThat(events).extracting(event -> event.getEventType().getName())
+                .doesNotContain("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+
+        download.getInputStream().close();
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void profileDurationMustBePositive() {
+        assertThatThrownBy(() -> jfrEndpoint.start(-1L)).isInstanceOf(InvalidEndpointRequestException.class);
+        assertThatThrownBy(() -> jfrEndpoint.start(0L)).isInstanceOf(InvalidEndpointRequestException.class);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.reminders;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HierarchicalTimingWheelTests {
+
+    @Test
+    void firesEveryTimeoutOnceOnItsTickAcrossAllLevels() {
+        long start = 1_000_000;
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 3, start);
+        SplittableRandom random = new SplittableRandom(7);
+        Map<Long, Long> deadlines = new HashMap<>();
+        List<HierarchicalTimingWheel.Timeout<Long>> cancelled = new ArrayList<>();
+        for (long id = 0; id < 20_000; id++) {
+            // Spread over all three levels (64^3 ticks of 10 ms)
+            long deadline = start + 10 + random.nextLong(wheel.getMaxDelayMillis() - 10);
+            HierarchicalTimingWheel.Timeout<Long> timeout = wheel.schedule(id, deadline);
+            if (id % 10 == 0) {
+                cancelled.add(timeout);
+            } else {
+                deadlines.put(id, deadline);
+            }
+        }
+        cancelled.forEach(timeout -> assertThat(wheel.cancel(timeout)).isTrue());
+        assertThat(wheel.size()).isEqualTo(deadlines.size());
+
+        Map<Long, Long> firedAt = new HashMap<>();
+        long now = start;
+        while (now < start + wheel.getMaxDelayMillis() + 10) {
+            now += 1 + random.nextLong(5_000);
+            long current = now;
+            wheel.advanceTo(now, id -> assertThat(firedAt.put(id, current)).isNull());
+        }
+
+        assertThat(firedAt.keySet()).isEqualTo(deadlines.keySet());
+        assertThat(wheel.size()).isZero();
+        deadlines.forEach((id, deadline) -> assertThat(firedAt.get(id)).isGreaterThanOrEqualTo(deadline / 10 * 10));
+    }
+
+    @Test
+    void expiresOnTheTickOfTheDeadlineInOrder() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 4, 0);
+        wheel.schedule("hour", 3_600_000);
+        wheel.schedule("minute", 60_000);
+        wheel.schedule("overdue", -5_000);
+        HierarchicalTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 30_000);
+        wheel.cancel(cancelled);
+
+        List<String> fired = new ArrayList<>();
+        assertThat(wheel.advanceTo(59_999, fired::add)).isEqualTo(1);
+        assertThat(fired).containsExactly("overdue");
+        wheel.advanceTo(60_000, fired::add);
+        wheel.advanceTo(3_599_999, fired::add);
+        assertThat(fired).containsExactly("overdue", "minute");
+        wheel.advanceTo(3_600_000, fired::add);
+        assertThat(fired).containsExactly("overdue", "minute", "hour");
+        assertThat(cancelled.isPending()).isFalse();
+        assertThat(wheel.cancel(cancelled)).isFalse();
+
+        assertThatThrownBy(() -> wheel.schedule("too far", 3_600_000 + wheel.getMaxDelayMillis() + 1_000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
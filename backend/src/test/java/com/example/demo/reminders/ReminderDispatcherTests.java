@@ -0,0 +1,84 @@
+package com.example.demo.reminders;
+
+import com.example.demo.entity.Friendship;
+import com.example.demo.entity.User;
+import com.example.demo.repository.FriendshipRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.MeetingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.reminders.sink=recording",
+        "app.reminders.tick-ms=50",
+        "app.reminders.lead-minutes=15"
+})
+class ReminderDispatcherTests {
+
+    private static final BlockingQueue<Reminder> delivered = new LinkedBlockingQueue<>();
+
+    @TestConfiguration
+    static class RecordingSinkConfig {
+
+        @Bean
+        ReminderSink recordingReminderSink() {
+            return delivered::add;
+        }
+    }
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Test
+    void remindsAttendeesOfMeetingsCreatedAfterStartupButNotOfDeletedOnes() throws InterruptedException {
+        Long alice = userRepository.save(new User("Reminder Alice", "reminder-alice@example.com")).getId();
+        Long bob = userRepository.save(new User("Reminder Bob", "reminder-bob@example.com")).getId();
+        Long carol = userRepository.save(new User("Reminder Carol", "reminder-carol@example.com")).getId();
+        befriend(alice, bob, carol);
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusMinutes(15).plusSeconds(2);
+
+        Long droppedId = meetingService.createMeeting(alice, carol, "Dropped", null,
+                start, start.plusMinutes(30), "Cafe").getId();
+        meetingService.deleteMeeting(droppedId);
+        meetingService.createMeeting(alice, bob, "Coffee", null, start, start.plusMinutes(30), "Cafe");
+
+        Reminder first = delivered.poll(10, TimeUnit.SECONDS);
+        Reminder second = delivered.poll(2, TimeUnit.SECONDS);
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        assertThat(List.of(first, second)).extracting(Reminder::userId).containsExactlyInAnyOrder(alice, bob);
+        assertThat(List.of(first, second)).allSatisfy(reminder -> {
+            assertThat(reminder.title()).isEqualTo("Coffee");
+            assertThat(reminder.remindAt()).isEqualTo(start.minusMinutes(15));
+            assertThat(LocalDateTime.now()).isAfterOrEqualTo(reminder.remindAt());
+        });
+        assertThat(delivered.poll(1, TimeUnit.SECONDS)).isNull();
+    }
+
+    private void befriend(Long userId, Long... friendIds) {
+        for (Long friendId : friendIds) {
+            Friendship friendship = new Friendship(userRepository.findById(userId).orElseThrow(),
+                    userRepository.findById(friendId).orElseThrow());
+            friendship.setStatus(Friendship.FriendshipStatus.ACCEPTED);
+            friendshipRepository.save(friendship);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadTests {
+
+    @Test
+    void rejectsOnceFullAfterWaiting() {
+        Bulkhead bulkhead = new Bulkhead(2, 50);
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        assertThat(bulkhead.availablePermits()).isZero();
+
+        long started = System.nanoTime();
+        assertThat(bulkhead.tryAcquire()).isFalse();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isGreaterThanOrEqualTo(45);
+
+        bulkhead.release();
+        assertThat(bulkhead.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void waitingCallerGetsAReleasedSlot() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(1, 5000);
+        assertThat(bulkhead.tryAcquire()).isTrue();
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(bulkhead::tryAcquire);
+        Thread.sleep(50);
+        assertThat(waiting).isNotDone();
+        bulkhead.release();
+
+        assertThat(waiting.get(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(bulkhead.availablePermits()).isZero();
+    }
+
+    @Test
+    void interruptedCallerIsRejectedAndKeepsItsInterruptFlag() {
+        Bulkhead bulkhead = new Bulkhead(1, 5000);
+        assertThat(bulkhead.tryAcquire()).isTrue();
+
+        Thread.currentThread().interrupt();
+        assertThat(bulkhead.tryAcquire()).isFalse();
+        assertThat(Thread.interrupted()).isTrue();
+    }
+}
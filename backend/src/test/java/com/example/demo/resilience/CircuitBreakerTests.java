@@ -0,0 +1,72 @@
+package com.example.demo.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTests {
+
+    private final List<String> transitions = new ArrayList<>();
+
+    private final CircuitBreaker breaker = new CircuitBreaker(3, 50,
+            (from, to) -> transitions.add(from + "->" + to));
+
+    @Test
+    void opensAfterConsecutiveFailuresOnly() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        assertThat(transitions).containsExactly("CLOSED->OPEN");
+    }
+
+    @Test
+    void letsOneProbeThroughAfterTheOpenDuration() throws InterruptedException {
+        open();
+        Thread.sleep(60);
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        // A probe that never ran frees the slot for the next caller
+        breaker.releasePermission();
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+
+        breaker.onSuccess();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED");
+    }
+
+    @Test
+    void failedProbeReopensForAnotherFullDuration() throws InterruptedException {
+        open();
+        Thread.sleep(60);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+
+        breaker.onFailure();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        Thread.sleep(60);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN", "OPEN->HALF_OPEN");
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTests {
+
+    @Test
+    void allowsTheBurstThenRefillsAtTheRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 5);
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire()).isTrue();
+        }
+        assertThat(bucket.tryAcquire()).isFalse();
+        assertThat(bucket.isFull()).isFalse();
+
+        Thread.sleep(30);
+        assertThat(bucket.tryAcquire()).isTrue();
+        Thread.sleep(60);
+        assertThat(bucket.isFull()).isTrue();
+    }
+
+    @Test
+    void refundReturnsATokenWithoutExceedingCapacity() {
+        TokenBucket bucket = new TokenBucket(0.001, 2);
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        bucket.refund();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        bucket.refund();
+        bucket.refund();
+        bucket.refund();
+        assertThat(bucket.isFull()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void concurrentCallersNeverTakeMoreThanTheBurst() throws InterruptedException {
+        // Practically no refill during the test, so exactly the burst may succeed
+        TokenBucket bucket = new TokenBucket(0.001, 1000);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire()) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(granted.get()).isEqualTo(1000);
+    }
+}
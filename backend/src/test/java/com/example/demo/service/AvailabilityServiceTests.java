@@ -0,0 +1,113 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Friendship;
+import com.example.demo.entity.Meeting;
+import com.example.demo.entity.MeetingParticipant;
+import com.example.demo.entity.User;
+import com.example.demo.repository.FriendshipRepository;
+import com.example.demo.repository.UserRepository;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.EventDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AvailabilityServiceTests {
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Test
+    void meetingChangesApplyDeltasToEveryAttendee() {
+        Long alice = userRepository.save(new User("Heatmap Alice", "heatmap-alice@example.com")).getId();
+        Long bob = userRepository.save(new User("Heatmap Bob", "heatmap-bob@example.com")).getId();
+        befriend(alice, bob);
+        LocalDateTime day = LocalDateTime.now().plusDays(8).truncatedTo(ChronoUnit.DAYS);
+
+        Long meetingId = meetingService.createMeeting(alice, bob, "Brunch", null,
+                day.withHour(10).withMinute(15), day.withHour(11).withMinute(45), "Cafe").getId();
+        assertThat(busy(alice, day, 9, 13)).containsExactly(0, 45, 45, 0);
+        assertThat(busy(bob, day, 9, 13)).containsExactly(0, 45, 45, 0);
+
+        meetingService.updateMeetingStatus(meetingId, Meeting.MeetingStatus.CANCELLED);
+        assertThat(busy(alice, day, 9, 13)).containsOnly(0);
+        meetingService.updateMeetingStatus(meetingId, Meeting.MeetingStatus.CONFIRMED);
+        assertThat(busy(alice, day, 9, 13)).containsExactly(0, 45, 45, 0);
+
+        meetingService.respond(meetingId, bob, MeetingParticipant.RsvpStatus.DECLINED);
+        assertThat(busy(bob, day, 9, 13)).containsOnly(0);
+        assertThat(busy(alice, day, 9, 13)).containsExactly(0, 45, 45, 0);
+
+        meetingService.deleteMeeting(meetingId);
+        assertThat(busy(alice, day, 9, 13)).containsOnly(0);
+        assertThat(busy(bob, day, 9, 13)).containsOnly(0);
+    }
+
+    @Test
+    void calendarSyncRewritesOnlyItsShareOfTheWindow() {
+        Long carol = userRepository.save(new User("Heatmap Carol", "heatmap-carol@example.com")).getId();
+        Long dave = userRepository.save(new User("Heatmap Dave", "heatmap-dave@example.com")).getId();
+        befriend(carol, dave);
+        LocalDateTime day = LocalDateTime.now().plusDays(9).truncatedTo(ChronoUnit.DAYS);
+        meetingService.createMeeting(carol, dave, "Call", null, day.withHour(9), day.withHour(9).withMinute(30), "Online");
+
+        Event allDay = new Event().setStart(new EventDateTime().setDate(new DateTime(true, toMillis(day), 0)))
+                .setEnd(new EventDateTime().setDate(new DateTime(true, toMillis(day.plusDays(1)), 0)));
+        availabilityService.syncCalendar(carol, day, day.plusDays(1), List.of(
+                event(day.withHour(9).withMinute(15), day.withHour(10)),
+                // Overlapping events count once
+                event(day.withHour(14), day.withHour(14).withMinute(30)),
+                event(day.withHour(14).withMinute(15), day.withHour(15)),
+                allDay));
+        // The meeting and the calendar overlap at 9:15; the total is capped at an hour
+        assertThat(busy(carol, day, 9, 16)).containsExactly(60, 0, 0, 0, 0, 60, 0);
+
+        availabilityService.syncCalendar(carol, day, day.plusDays(1), List.of(
+                event(day.withHour(14), day.withHour(14).withMinute(20))));
+        assertThat(busy(carol, day, 9, 16)).containsExactly(30, 0, 0, 0, 0, 20, 0);
+    }
+
+    private int[] busy(Long userId, LocalDateTime day, int fromHour, int toHour) {
+        int[] busyMinutes = availabilityService.getAvailability(userId, day, 1).getBusyMinutes();
+        return Arrays.copyOfRange(busyMinutes, fromHour, toHour);
+    }
+
+    private static Event event(LocalDateTime start, LocalDateTime end) {
+        return new Event()
+                .setStart(new EventDateTime().setDateTime(new DateTime(new Date(toMillis(start)))))
+                .setEnd(new EventDateTime().setDateTime(new DateTime(new Date(toMillis(end)))));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void befriend(Long userId, Long... friendIds) {
+        for (Long friendId : friendIds) {
+            Friendship friendship = new Friendship(userRepository.findById(userId).orElseThrow(),
+                    userRepository.findById(friendId).orElseThrow());
+            friendship.setStatus(Friendship.FriendshipStatus.ACCEPTED);
+            friendshipRepository.save(friendship);
+        }
+    }
+}
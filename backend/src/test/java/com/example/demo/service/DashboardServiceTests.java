@@ -0,0 +1,89 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.dashboard.calendar-timeout-ms=300",
+        "app.dashboard.max-concurrent-sections=4"
+})
+class DashboardServiceTests {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private GoogleCalendarService googleCalendarService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        googleCalendarService.setHttpTransport(null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aSlowSectionTimesOutIsInterruptedAndFreesItsSlot() throws Exception {
+        User user = new User("Dashboard Dana", "dashboard-dana@example.com");
+        user.setAccessToken("google-token");
+        User saved = userRepository.save(user);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        googleCalendarService.setHttpTransport(new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                return new MockLowLevelHttpRequest(url) {
+                    @Override
+                    public LowLevelHttpResponse execute() throws IOException {
+                        try {
+                            new CountDownLatch(1).await(30, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            interrupted.countDown();
+                            throw new InterruptedIOException();
+                        }
+                        throw new IOException("Calendar never answered");
+                    }
+                };
+            }
+        });
+
+        Map<String, Object> dashboard = dashboardService.getDashboard(saved.getId(), saved, 10);
+
+        assertThat((Map<String, String>) dashboard.get("sections"))
+                .containsEntry("stats", "ok")
+                .containsEntry("friends", "ok")
+                .containsEntry("upcomingMeetings", "ok")
+                .containsEntry("calendarEvents", "timeout");
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (availableSections() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(availableSections()).isEqualTo(4);
+    }
+
+    private double availableSections() {
+        return meterRegistry.get("dashboard.sections.available").gauge().value();
+    }
+}
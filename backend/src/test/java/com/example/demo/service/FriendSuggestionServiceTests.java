@@ -0,0 +1,135 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.FriendSuggestionDto;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.suggestions.max-hub-degree=3")
+class FriendSuggestionServiceTests {
+
+    @Autowired
+    private FriendSuggestionService friendSuggestionService;
+
+    @Autowired
+    private FriendshipService friendshipService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void suggestionsFollowAcceptedAndRemovedFriendships() {
+        User alice = user("Suggest Alice");
+        User bob = user("Suggest Bob");
+        User carol = user("Suggest Carol");
+        User dave = user("Suggest Dave");
+        befriend(alice, bob);
+        befriend(alice, carol);
+        befriend(dave, bob);
+        befriend(dave, carol);
+
+        assertThat(friendSuggestionService.getSuggestions(alice.getId(), 10))
+                .singleElement().satisfies(suggestion -> {
+                    assertThat(suggestion.getId()).isEqualTo(dave.getId());
+                    assertThat(suggestion.getMutualFriends()).isEqualTo(2);
+                });
+
+        friendshipService.removeFriend(bob.getId(), alice.getId());
+
+        assertThat(friendSuggestionService.areFriends(alice.getId(), bob.getId())).isFalse();
+        assertThat(friendSuggestionService.getMutualFriendCount(alice.getId(), dave.getId())).isEqualTo(1);
+        assertThat(friendSuggestionService.getSuggestions(alice.getId(), 10))
+                .extracting(FriendSuggestionDto::getId).containsExactly(dave.getId());
+    }
+
+    @Test
+    void hubsAreNotExpanded() {
+        User alice = user("Hub Alice");
+        User hub = user("Hub Henry");
+        User quiet = user("Hub Quinn");
+        User erin = user("Hub Erin");
+        befriend(alice, quiet);
+        befriend(quiet, erin);
+        befriend(alice, hub);
+        for (int i = 0; i < 3; i++) {
+            befriend(hub, user("Hub Fan " + i));
+        }
+
+        assertThat(friendSuggestionService.getMutualFriendCounts(alice.getId()))
+                .containsOnlyKeys(erin.getId());
+        assertThat(friendSuggestionService.getMutualFriendCount(alice.getId(), erin.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void countsStayExactAsAFriendCrossesTheHubLimit() {
+        User alice = user("Limit Alice");
+        User quinn = user("Limit Quinn");
+        User hub = user("Limit Henry");
+        User frank = user("Limit Frank");
+        befriend(alice, quinn);
+        befriend(alice, hub);
+        befriend(frank, quinn);
+        befriend(frank, hub);
+        User firstFan = user("Limit Fan 0");
+        User secondFan = user("Limit Fan 1");
+        befriend(hub, firstFan);
+        befriend(hub, secondFan);
+
+        // Henry is now a hub: Frank still counts him, his fans are not suggested
+        assertThat(friendSuggestionService.getMutualFriendCounts(alice.getId()))
+                .containsEntry(frank.getId(), 2)
+                .doesNotContainKeys(firstFan.getId(), secondFan.getId());
+        assertThat(friendSuggestionService.getMutualFriendCount(alice.getId(), frank.getId())).isEqualTo(2);
+
+        friendshipService.removeFriend(hub.getId(), firstFan.getId());
+
+        Map<Long, Integer> incremental = friendSuggestionService.getMutualFriendCounts(alice.getId());
+        assertThat(incremental)
+                .containsEntry(frank.getId(), 2)
+                .containsEntry(secondFan.getId(), 1)
+                .doesNotContainKey(firstFan.getId());
+        friendSuggestionService.rebuild();
+        assertThat(friendSuggestionService.getMutualFriendCounts(alice.getId())).isEqualTo(incremental);
+    }
+
+    @Test
+    void changesDuringARebuildAreKept() {
+        long a = 9_100_001L;
+        long b = 9_100_002L;
+        long c = 9_100_003L;
+        friendSuggestionService.addFriendship(a, c);
+
+        friendSuggestionService.beginRebuild();
+        // The edge snapshot was read before these changes committed
+        Map<Long, Set<Long>> snapshot = new HashMap<>();
+        snapshot.put(a, new HashSet<>(Set.of(c)));
+        snapshot.put(c, new HashSet<>(Set.of(a)));
+        friendSuggestionService.addFriendship(a, b);
+        friendSuggestionService.removeFriendship(a, c);
+        friendSuggestionService.finishRebuild(snapshot);
+
+        assertThat(friendSuggestionService.getFriendIds(a)).containsExactly(b);
+        assertThat(friendSuggestionService.getFriendIds(c)).isEmpty();
+
+        // The snapshot replaced the whole graph; restore it for the other tests
+        friendSuggestionService.rebuild();
+    }
+
+    private User user(String name) {
+        return userRepository.save(new User(name, name.toLowerCase().replace(' ', '-') + "@example.com"));
+    }
+
+    private void befriend(User requester, User accepter) {
+        friendshipService.addFriend(requester.getId(), accepter.getEmail());
+        friendshipService.acceptFriendRequest(accepter.getId(), requester.getId());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.FriendDto;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class FriendshipServiceTests {
+
+    @Autowired
+    private FriendshipService friendshipService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void friendListsAndStatsReflectRequestsAndAcceptance() {
+        User alice = userRepository.save(new User("Stats Alice", "stats-alice@example.com"));
+        User bob = userRepository.save(new User("Stats Bob", "stats-bob@example.com"));
+        User carol = userRepository.save(new User("Stats Carol", "stats-carol@example.com"));
+
+        friendshipService.addFriend(alice.getId(), bob.getEmail());
+        friendshipService.addFriend(carol.getId(), alice.getEmail());
+        friendshipService.acceptFriendRequest(bob.getId(), alice.getId());
+        friendshipService.toggleCloseFriend(alice.getId(), bob.getId());
+
+        assertThat(friendshipService.getFriends(alice.getId()))
+                .extracting(FriendDto::getName).containsExactly("Stats Bob");
+        assertThat(friendshipService.getCloseFriends(bob.getId()))
+                .extracting(FriendDto::getName).containsExactly("Stats Alice");
+
+        Map<String, Object> stats = friendshipService.getDashboardStats(alice.getId());
+        assertThat(stats).containsEntry("totalFriends", 1L)
+                .containsEntry("closeFriends", 1L)
+                .containsEntry("pendingRequests", 1L);
+        assertThat(friendshipService.getDashboardStats(userRepository.save(
+                new User("Stats Dave", "stats-dave@example.com")).getId()))
+                .containsEntry("totalFriends", 0L);
+    }
+}
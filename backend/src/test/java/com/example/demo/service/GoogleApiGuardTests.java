@@ -0,0 +1,51 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "google.api.bulkhead.max-concurrent=1",
+        "google.api.bulkhead.max-wait-ms=0",
+        "google.api.rate-limit.user-burst=2",
+        "google.api.rate-limit.user-per-second=0.001",
+        "google.api.rate-limit.global-burst=2",
+        "google.api.rate-limit.global-per-second=0.001"
+})
+class GoogleApiGuardTests {
+
+    @Autowired
+    private GoogleApiGuard googleApiGuard;
+
+    @Test
+    void callsRejectedByTheBulkheadKeepTheirRateLimitTokens() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> googleApiGuard.execute(1L, "slow", () -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "slow";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> googleApiGuard.execute(1L, "busy", () -> "busy"))
+                    .isInstanceOf(GoogleApiUnavailableException.class)
+                    .hasMessageContaining("busy");
+        }
+        release.countDown();
+        assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+
+        // The second token of both the user and the global bucket is still there
+        assertThat(googleApiGuard.execute(1L, "after", () -> "after")).isEqualTo("after");
+        assertThatThrownBy(() -> googleApiGuard.execute(1L, "limited", () -> "limited"))
+                .hasMessageContaining("Too many");
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.EventDateTime;
+import com.google.api.services.calendar.model.Events;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class GoogleCalendarServiceTests {
+
+    @Autowired
+    private GoogleCalendarService googleCalendarService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final AtomicBoolean googleDown = new AtomicBoolean();
+
+    @AfterEach
+    void tearDown() {
+        googleCalendarService.setHttpTransport(null);
+    }
+
+    @Test
+    void followsEveryPageAndSyncsOnlyFreshResults() throws Exception {
+        User user = new User("Calendar Erin", "calendar-erin@example.com");
+        user.setAccessToken("google-token");
+        user = userRepository.save(user);
+        LocalDateTime day = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.DAYS);
+        googleCalendarService.setHttpTransport(calendar(
+                new Events().setItems(List.of(event(day.withHour(9), day.withHour(10)))).setNextPageToken("page-2"),
+                new Events().setItems(List.of(event(day.withHour(11), day.withHour(11).withMinute(30))))));
+
+        assertThat(googleCalendarService.getUserCalendarEvents(user, day, day.plusDays(1))).hasSize(2);
+        assertThat(busy(user.getId(), day)).containsExactly(60, 0, 30);
+
+        // The last known result is served while Google fails, but must not overwrite newer availability
+        availabilityService.syncCalendar(user.getId(), day, day.plusDays(1), List.of());
+        googleDown.set(true);
+        assertThat(googleCalendarService.getUserCalendarEvents(user, day, day.plusDays(1))).hasSize(2);
+        assertThat(busy(user.getId(), day)).containsOnly(0);
+    }
+
+    private int[] busy(Long userId, LocalDateTime day) {
+        return Arrays.copyOfRange(availabilityService.getAvailability(userId, day, 1).getBusyMinutes(), 9, 12);
+    }
+
+    // Serves the first page, or the second when asked for its token; fails everything while googleDown
+    private MockHttpTransport calendar(Events firstPage, Events secondPage) {
+        return new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                return new MockLowLevelHttpRequest(url) {
+                    @Override
+                    public LowLevelHttpResponse execute() throws IOException {
+                        if (googleDown.get()) {
+                            return new MockLowLevelHttpResponse().setStatusCode(503);
+                        }
+                        Events page = url.contains("pageToken=page-2") ? secondPage : firstPage;
+                        return new MockLowLevelHttpResponse()
+                                .setContentType(Json.MEDIA_TYPE)
+                                .setContent(GsonFactory.getDefaultInstance().toString(page));
+                    }
+                };
+            }
+        };
+    }
+
+    private static Event event(LocalDateTime start, LocalDateTime end) {
+        return new Event()
+                .setStart(new EventDateTime().setDateTime(new DateTime(Date.from(start.atZone(ZoneId.systemDefault()).toInstant()))))
+                .setEnd(new EventDateTime().setDateTime(new DateTime(Date.from(end.atZone(ZoneId.systemDefault()).toInstant()))));
+    }
+}
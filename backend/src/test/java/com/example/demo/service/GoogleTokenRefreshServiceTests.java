@@ -0,0 +1,152 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.SchedulerLeaseRepository;
+import com.example.demo.repository.UserRepository;
+import com.google.api.client.http.LowLevelHttpRequest;
+import com.google.api.client.http.LowLevelHttpResponse;
+import com.google.api.client.json.Json;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.client.testing.http.MockLowLevelHttpRequest;
+import com.google.api.client.testing.http.MockLowLevelHttpResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The test configuration keeps the scheduled sweep from running, so the tests drive every sweep
+@SpringBootTest
+class GoogleTokenRefreshServiceTests {
+
+    @Autowired
+    private GoogleTokenRefreshService googleTokenRefreshService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+
+    // Another node may still hold the lease from an earlier test
+    @BeforeEach
+    void setUp() {
+        schedulerLeaseRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        googleTokenRefreshService.setHttpTransport(null);
+    }
+
+    @Test
+    void onlyTheLeaseHolderRefreshesAndOnlyTokenColumnsAreWritten() {
+        User user = userWithToken("Refresh Alice", "refresh-alice@example.com", LocalDateTime.now().plusMinutes(1));
+        googleTokenRefreshService.setHttpTransport(tokenEndpoint(null));
+
+        assertThat(schedulerLeaseRepository.tryAcquire(GoogleTokenRefreshService.LEASE_NAME, "other-node", 60_000)).isEqualTo(1);
+        googleTokenRefreshService.refreshDueTokens();
+        assertThat(tokenRequests.get()).isZero();
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getAccessToken()).isEqualTo("stale-token");
+
+        schedulerLeaseRepository.deleteById(GoogleTokenRefreshService.LEASE_NAME);
+        googleTokenRefreshService.refreshDueTokens();
+        User refreshed = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(tokenRequests.get()).isEqualTo(1);
+        assertThat(refreshed.getAccessToken()).isEqualTo("fresh-token");
+        assertThat(refreshed.getRefreshToken()).isEqualTo("refresh-token");
+        assertThat(refreshed.getTokenExpiresAt()).isAfter(LocalDateTime.now().plusMinutes(59));
+        assertThat(refreshed.getName()).isEqualTo("Refresh Alice");
+    }
+
+    @Test
+    void tokenSavedByALoginDuringTheRefreshIsKept() {
+        LocalDateTime loginExpiry = LocalDateTime.now().plusHours(2).withNano(0);
+        User user = userWithToken("Refresh Bob", "refresh-bob@example.com", LocalDateTime.now().plusMinutes(2));
+        googleTokenRefreshService.setHttpTransport(tokenEndpoint(() -> userRepository.upsertOAuthUser(
+                "refresh-bob@example.com", "Refresh Bob", "google", "bob-sub", "login-token", loginExpiry, null,
+                LocalDateTime.now())));
+
+        googleTokenRefreshService.refreshDueTokens();
+
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(tokenRequests.get()).isEqualTo(1);
+        assertThat(stored.getAccessToken()).isEqualTo("login-token");
+        assertThat(stored.getTokenExpiresAt()).isEqualTo(loginExpiry);
+    }
+
+    @Test
+    void failedRefreshBacksOffInTheDatabase() {
+        User user = userWithToken("Refresh Carol", "refresh-carol@example.com", LocalDateTime.now().plusMinutes(3));
+        googleTokenRefreshService.setHttpTransport(failingTokenEndpoint());
+
+        googleTokenRefreshService.refreshDueTokens();
+        googleTokenRefreshService.refreshDueTokens();
+
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(tokenRequests.get()).isEqualTo(1);
+        assertThat(stored.getAccessToken()).isEqualTo("stale-token");
+        assertThat(stored.getNextRefreshAttempt()).isAfter(LocalDateTime.now().plusMinutes(5));
+
+        // A login clears the backoff along with the stale token
+        userRepository.upsertOAuthUser("refresh-carol@example.com", "Refresh Carol", "google", "carol-sub",
+                "login-token", LocalDateTime.now().plusHours(1), null, LocalDateTime.now());
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getNextRefreshAttempt()).isNull();
+    }
+
+    private User userWithToken(String name, String email, LocalDateTime expiresAt) {
+        User user = new User(name, email);
+        user.setAccessToken("stale-token");
+        user.setRefreshToken("refresh-token");
+        user.setTokenExpiresAt(expiresAt);
+        return userRepository.save(user);
+    }
+
+    // Fails every token request the way Google does when it is briefly unavailable
+    private MockHttpTransport failingTokenEndpoint() {
+        return new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                return new MockLowLevelHttpRequest(url) {
+                    @Override
+                    public LowLevelHttpResponse execute() {
+                        tokenRequests.incrementAndGet();
+                        return new MockLowLevelHttpResponse()
+                                .setStatusCode(503)
+                                .setContentType(Json.MEDIA_TYPE)
+                                .setContent("{\"error\":\"temporarily_unavailable\"}");
+                    }
+                };
+            }
+        };
+    }
+
+    // Answers every token request like Google would, after running duringRequest
+    private MockHttpTransport tokenEndpoint(Runnable duringRequest) {
+        return new MockHttpTransport() {
+            @Override
+            public LowLevelHttpRequest buildRequest(String method, String url) {
+                return new MockLowLevelHttpRequest(url) {
+                    @Override
+                    public LowLevelHttpResponse execute() throws IOException {
+                        tokenRequests.incrementAndGet();
+                        if (duringRequest != null) {
+                            duringRequest.run();
+                        }
+                        return new MockLowLevelHttpResponse()
+                                .setContentType(Json.MEDIA_TYPE)
+                                .setContent("{\"access_token\":\"fresh-token\",\"token_type\":\"Bearer\",\"expires_in\":3600}");
+                    }
+                };
+            }
+        };
+    }
+}
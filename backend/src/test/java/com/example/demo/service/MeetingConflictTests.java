@@ -0,0 +1,99 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.MeetingConflictDto;
+import com.example.demo.entity.Friendship;
+import com.example.demo.entity.Meeting;
+import com.example.demo.entity.MeetingParticipant;
+import com.example.demo.entity.User;
+import com.example.demo.repository.FriendshipRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class MeetingConflictTests {
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Test
+    void overlappingMeetingIsRejectedWithNearestFreeSlots() {
+        Long alice = userRepository.save(new User("Conflict Alice", "conflict-alice@example.com")).getId();
+        Long bob = userRepository.save(new User("Conflict Bob", "conflict-bob@example.com")).getId();
+        Long carol = userRepository.save(new User("Conflict Carol", "conflict-carol@example.com")).getId();
+        befriend(alice, bob);
+        befriend(carol, bob, alice);
+        LocalDateTime nine = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.DAYS).withHour(9);
+
+        meetingService.createMeeting(alice, bob, "Standup", null, nine, nine.plusHours(1), "Office");
+        // Back-to-back meetings do not overlap
+        meetingService.createMeeting(bob, carol, "Lunch", null, nine.plusHours(1), nine.plusHours(2), "Cafe");
+
+        assertThatThrownBy(() -> meetingService.createMeeting(carol, alice, "Coffee", null,
+                nine.plusMinutes(30), nine.plusMinutes(90), "Cafe"))
+                .isInstanceOfSatisfying(MeetingConflictException.class, e -> {
+                    MeetingConflictDto conflict = e.getConflict();
+                    assertThat(conflict.getConflicts()).hasSize(2);
+                    assertThat(conflict.getSuggestions()).isNotEmpty();
+                    assertThat(conflict.getSuggestions().get(0).getStartTime())
+                            .isIn(nine.minusHours(1), nine.plusHours(2));
+                });
+    }
+
+    @Test
+    void checkIgnoresOtherUsersMeetings() {
+        Long dave = userRepository.save(new User("Conflict Dave", "conflict-dave@example.com")).getId();
+        Long erin = userRepository.save(new User("Conflict Erin", "conflict-erin@example.com")).getId();
+        Long frank = userRepository.save(new User("Conflict Frank", "conflict-frank@example.com")).getId();
+        befriend(dave, erin);
+        LocalDateTime noon = LocalDateTime.now().plusDays(4).truncatedTo(ChronoUnit.DAYS).withHour(12);
+
+        meetingService.createMeeting(dave, erin, "Planning", null, noon, noon.plusHours(1), "Office");
+
+        assertThat(meetingService.checkConflicts(frank, frank, noon, noon.plusHours(1)).hasConflicts()).isFalse();
+        assertThat(meetingService.checkConflicts(frank, erin, noon, noon.plusHours(1)).getConflicts()).hasSize(1);
+    }
+
+    @Test
+    void reactivatingAMeetingOrADeclinedRsvpChecksForConflicts() {
+        Long gina = userRepository.save(new User("Conflict Gina", "conflict-gina@example.com")).getId();
+        Long hank = userRepository.save(new User("Conflict Hank", "conflict-hank@example.com")).getId();
+        Long ivy = userRepository.save(new User("Conflict Ivy", "conflict-ivy@example.com")).getId();
+        befriend(gina, hank, ivy);
+        befriend(ivy, hank);
+        LocalDateTime ten = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.DAYS).withHour(10);
+
+        Long review = meetingService.createMeeting(gina, hank, "Review", null, ten, ten.plusHours(1), "Office").getId();
+        meetingService.updateMeetingStatus(review, Meeting.MeetingStatus.CANCELLED);
+        Long retro = meetingService.createMeeting(gina, ivy, "Retro", null, ten, ten.plusHours(1), "Office").getId();
+        meetingService.respond(retro, ivy, MeetingParticipant.RsvpStatus.DECLINED);
+        meetingService.createMeeting(ivy, hank, "Pairing", null, ten.plusMinutes(30), ten.plusHours(2), "Office");
+
+        assertThatThrownBy(() -> meetingService.updateMeetingStatus(review, Meeting.MeetingStatus.SCHEDULED))
+                .isInstanceOf(MeetingConflictException.class);
+        assertThatThrownBy(() -> meetingService.respond(retro, ivy, MeetingParticipant.RsvpStatus.ACCEPTED))
+                .isInstanceOf(MeetingConflictException.class);
+    }
+
+    private void befriend(Long userId, Long... friendIds) {
+        for (Long friendId : friendIds) {
+            Friendship friendship = new Friendship(userRepository.findById(userId).orElseThrow(),
+                    userRepository.findById(friendId).orElseThrow());
+            friendship.setStatus(Friendship.FriendshipStatus.ACCEPTED);
+            friendshipRepository.save(friendship);
+        }
+    }
+}
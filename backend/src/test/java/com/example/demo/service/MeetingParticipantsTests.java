@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.MeetingDto;
+import com.example.demo.dto.ParticipantDto;
+import com.example.demo.entity.Friendship;
+import com.example.demo.entity.MeetingParticipant;
+import com.example.demo.entity.User;
+import com.example.demo.repository.FriendshipRepository;
+import com.example.demo.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The reminder ticker reloads new meetings in the background, which would add to the statement count
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.reminders.enabled=false"
+})
+class MeetingParticipantsTests {
+
+    @Autowired
+    private MeetingService meetingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void groupMeetingIsListedForEveryParticipantWithTheirRsvp() {
+        List<Long> group = createUsers("rsvp", 4);
+        befriend(group.get(0), group.subList(1, 4).toArray(Long[]::new));
+        LocalDateTime ten = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.DAYS).withHour(10);
+
+        MeetingDto meeting = meetingService.createMeeting(group.get(0), group.subList(1, 4), "Picnic", null,
+                ten, ten.plusHours(2), "Park");
+        assertThat(meeting.getParticipants()).extracting(ParticipantDto::getRsvpStatus)
+                .containsExactly("ACCEPTED", "INVITED", "INVITED", "INVITED");
+        assertThat(meeting.getFriend().getId()).isEqualTo(group.get(1));
+
+        meetingService.respond(meeting.getId(), group.get(3), MeetingParticipant.RsvpStatus.DECLINED);
+
+        List<MeetingDto> upcoming = meetingService.getUpcomingMeetings(group.get(3));
+        assertThat(upcoming).extracting(MeetingDto::getId).containsExactly(meeting.getId());
+        assertThat(upcoming.get(0).getParticipants().get(3).getRsvpStatus()).isEqualTo("DECLINED");
+
+        // Declining frees the slot; the invitees who haven't declined are still busy
+        assertThat(meetingService.checkConflicts(List.of(group.get(3)), ten, ten.plusHours(1)).hasConflicts()).isFalse();
+        assertThat(meetingService.checkConflicts(List.of(group.get(2)), ten, ten.plusHours(1)).hasConflicts()).isTrue();
+
+        assertThatThrownBy(() -> meetingService.respond(meeting.getId(), group.get(0) + 1000, MeetingParticipant.RsvpStatus.ACCEPTED))
+                .isSameAs(NotFoundException.PARTICIPANT);
+    }
+
+    @Test
+    void upcomingMeetingsLoadAllParticipantsInOneQuery() {
+        List<Long> group = createUsers("large", 60);
+        befriend(group.get(0), group.subList(1, 60).toArray(Long[]::new));
+        LocalDateTime nine = LocalDateTime.now().plusDays(6).truncatedTo(ChronoUnit.DAYS).withHour(9);
+        for (int i = 0; i < 3; i++) {
+            meetingService.createMeeting(group.get(0), group.subList(1, 60), "All hands " + i, null,
+                    nine.plusHours(2L * i), nine.plusHours(2L * i + 1), "Office");
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<MeetingDto> upcoming = meetingService.getUpcomingMeetings(group.get(59));
+
+        assertThat(upcoming).hasSize(3);
+        assertThat(upcoming).allSatisfy(meeting -> assertThat(meeting.getParticipants()).hasSize(60));
+        // The user, the meetings, and the participants of all three
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void inviteesMustBeTheOrganizersFriends() {
+        List<Long> group = createUsers("strangers", 3);
+        befriend(group.get(0), group.get(1));
+        LocalDateTime eleven = LocalDateTime.now().plusDays(7).truncatedTo(ChronoUnit.DAYS).withHour(11);
+
+        assertThatThrownBy(() -> meetingService.createMeeting(group.get(0), group.subList(1, 3), "Party", null,
+                eleven, eleven.plusHours(1), "Home"))
+                .isSameAs(ForbiddenException.NOT_FRIENDS);
+        assertThat(meetingService.getUpcomingMeetings(group.get(1))).isEmpty();
+    }
+
+    private List<Long> createUsers(String prefix, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(userRepository.save(new User("Participant " + prefix + " " + i, "participant-" + prefix + "-" + i + "@example.com")).getId());
+        }
+        return ids;
+    }
+
+    private void befriend(Long userId, Long... friendIds) {
+        for (Long friendId : friendIds) {
+            Friendship friendship = new Friendship(userRepository.findById(userId).orElseThrow(),
+                    userRepository.findById(friendId).orElseThrow());
+            friendship.setStatus(Friendship.FriendshipStatus.ACCEPTED);
+            friendshipRepository.save(friendship);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class RefreshTokenServiceTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void everyRefreshRotatesTheToken() {
+        User user = userRepository.save(new User("Rotate Alice", "rotate-alice@example.com"));
+        String first = refreshTokenService.issue(user.getId(), "google");
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first).orElseThrow();
+        assertThat(rotation.user().getId()).isEqualTo(user.getId());
+        assertThat(rotation.provider()).isEqualTo("google");
+        assertThat(rotation.refreshToken()).isNotEqualTo(first);
+
+        RefreshTokenService.Rotation next = refreshTokenService.rotate(rotation.refreshToken()).orElseThrow();
+        assertThat(next.authTime()).isEqualTo(rotation.authTime());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeLogin() {
+        User user = userRepository.save(new User("Rotate Bob", "rotate-bob@example.com"));
+        String stolen = refreshTokenService.issue(user.getId(), "google");
+        String successor = refreshTokenService.rotate(stolen).orElseThrow().refreshToken();
+
+        assertThat(refreshTokenService.rotate(stolen)).isEmpty();
+        assertThat(refreshTokenService.rotate(successor)).isEmpty();
+    }
+
+    @Test
+    void revokedAndUnknownTokensAreRejected() {
+        User user = userRepository.save(new User("Rotate Carol", "rotate-carol@example.com"));
+        String token = refreshTokenService.issue(user.getId(), "apple");
+        String otherLogin = refreshTokenService.issue(user.getId(), "apple");
+
+        refreshTokenService.revoke(token);
+
+        assertThat(refreshTokenService.rotate(token)).isEmpty();
+        assertThat(refreshTokenService.rotate("not-a-token")).isEmpty();
+        Optional<RefreshTokenService.Rotation> unaffected = refreshTokenService.rotate(otherLogin);
+        assertThat(unaffected).isPresent();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.User;
+import com.example.demo.events.ChangeEvent;
+import com.example.demo.events.ChangeEventBus;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UserDataVersionServiceTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserDataVersionService userDataVersionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private FriendshipService friendshipService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private ChangeEventBus changeEventBus;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void friendListIsNotModifiedUntilAFriendUpdatesTheirProfile() throws Exception {
+        User alice = userRepository.save(new User("Version Alice", "version-alice@example.com"));
+        User bob = userRepository.save(new User("Version Bob", "version-bob@example.com"));
+        friendshipService.addFriend(alice.getId(), bob.getEmail());
+        friendshipService.acceptFriendRequest(bob.getId(), alice.getId());
+
+        HttpResponse<String> first = getFriends(alice, null);
+        assertThat(first.statusCode()).isEqualTo(200);
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertThat(getFriends(alice, etag).statusCode()).isEqualTo(304);
+
+        userService.upsertOAuthUser(bob.getEmail(), "Version Robert", "google", "version-bob-sub",
+                "token", LocalDateTime.now().plusHours(1), null);
+
+        HttpResponse<String> afterRename = getFriends(alice, etag);
+        assertThat(afterRename.statusCode()).isEqualTo(200);
+        assertThat(afterRename.body()).contains("Version Robert");
+        assertThat(afterRename.headers().firstValue("ETag")).isPresent().get().isNotEqualTo(etag);
+    }
+
+    @Test
+    void versionsOnlyChangeWhenTheWriteCommits() {
+        User carol = userRepository.save(new User("Version Carol", "version-carol@example.com"));
+        long before = userDataVersionService.getVersion(carol.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            changeEventBus.publish(ChangeEvent.Type.CLOSE_FRIEND_TOGGLED, carol.getId(), List.of(carol.getId()), null);
+            status.setRollbackOnly();
+        });
+        assertThat(userDataVersionService.getVersion(carol.getId())).isEqualTo(before);
+
+        transactionTemplate.executeWithoutResult(status ->
+                changeEventBus.publish(ChangeEvent.Type.CLOSE_FRIEND_TOGGLED, carol.getId(), List.of(carol.getId()), null));
+        assertThat(userDataVersionService.getVersion(carol.getId())).isEqualTo(before + 1);
+    }
+
+    @Test
+    void etagsFollowTheNegotiatedEncodingAndCarryTheEpoch() {
+        assertThat(etag(null)).matches("\"[0-9a-z]+-42-\\d+\"");
+        assertThat(etag("application/cbor")).endsWith("-cbor\"");
+        assertThat(etag("application/x-jackson-smile, application/json")).endsWith("-smile\"");
+        assertThat(etag("application/cbor;q=0.5, application/json")).doesNotContain("cbor");
+        assertThat(etag("application/json, application/cbor")).doesNotContain("cbor");
+        // Not an encoding, just a parameter that happens to mention one
+        assertThat(etag("application/json;profile=cbor")).doesNotContain("cbor");
+        assertThat(etag("*/*")).isEqualTo(etag(null));
+    }
+
+    private String etag(String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/friends/42");
+        if (accept != null) {
+            request.addHeader("Accept", accept);
+        }
+        return userDataVersionService.etag(42L, new ServletWebRequest(request));
+    }
+
+    private HttpResponse<String> getFriends(User user, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/friends/" + user.getId()))
+                .header("Authorization", "Bearer " + accessTokenService.issue(user, "google"));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
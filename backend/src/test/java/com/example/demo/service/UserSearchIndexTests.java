@@ -0,0 +1,87 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserSearchResultDto;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class UserSearchIndexTests {
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private FriendshipService friendshipService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void friendsRankFirstThenFriendsOfFriendsAndOnlyFriendsShowEmails() {
+        User searcher = user("Quillon Searcher");
+        User friend = user("Zephyrine Friend");
+        User friendOfFriend = user("Zephyrine Mutual");
+        User stranger = user("Zephyrine Stranger");
+        befriend(searcher, friend);
+        befriend(friend, friendOfFriend);
+
+        assertThat(userSearchIndex.search(searcher.getId(), "zephyr", 10))
+                .extracting(UserSearchResultDto::getId, UserSearchResultDto::getRelationship, UserSearchResultDto::getEmail)
+                .containsExactly(
+                        tuple(friend.getId(), "FRIEND", friend.getEmail()),
+                        tuple(friendOfFriend.getId(), "FRIEND_OF_FRIEND", null),
+                        tuple(stranger.getId(), "NONE", null));
+    }
+
+    @Test
+    void theGraphOnlyReranksUsersMatchingTheQuery() {
+        User searcher = user("Quillon Seeker");
+        User friend = user("Bartholo Bridge");
+        User friendOfFriend = user("Cassiopée Far");
+        befriend(searcher, friend);
+        befriend(friend, friendOfFriend);
+
+        assertThat(userSearchIndex.search(searcher.getId(), "barth", 10))
+                .extracting(UserSearchResultDto::getId).containsExactly(friend.getId());
+        assertThat(userSearchIndex.search(searcher.getId(), "cassiop", 10))
+                .singleElement().satisfies(result -> {
+                    assertThat(result.getId()).isEqualTo(friendOfFriend.getId());
+                    assertThat(result.getMutualFriends()).isEqualTo(1);
+                });
+    }
+
+    @Test
+    void reindexingReplacesOldTermsAndRemovalDropsTheUser() {
+        User searcher = user("Quillon Finder");
+        User renamed = user("Oriabel Before");
+
+        userSearchIndex.index(renamed.getId(), "Marguerux After", "marguerux.after@example.com", null);
+
+        assertThat(userSearchIndex.search(searcher.getId(), "oriabel", 10)).isEmpty();
+        assertThat(userSearchIndex.search(searcher.getId(), "marguerux", 10))
+                .extracting(UserSearchResultDto::getName).containsExactly("Marguerux After");
+        // A blank name from a login keeps the indexed one
+        userSearchIndex.index(renamed.getId(), " ", "marguerux.after@example.com", null);
+        assertThat(userSearchIndex.search(searcher.getId(), "marguerux", 10)).hasSize(1);
+
+        userSearchIndex.remove(renamed.getId());
+        assertThat(userSearchIndex.search(searcher.getId(), "marguerux", 10)).isEmpty();
+    }
+
+    private User user(String name) {
+        User user = userRepository.save(new User(name, name.toLowerCase().replace(' ', '.') + "@example.com"));
+        userSearchIndex.index(user);
+        return user;
+    }
+
+    private void befriend(User requester, User accepter) {
+        friendshipService.addFriend(requester.getId(), accepter.getEmail());
+        friendshipService.acceptFriendRequest(accepter.getId(), requester.getId());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserServiceUpsertTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void upsertInsertsThenUpdatesWithoutClobberingStoredValues() {
+        Long id = userService.upsertOAuthUser("upsert@example.com", "Ada Lovelace", "google", "sub-1",
+                "token-1", LocalDateTime.now().plusHours(1), "https://example.com/ada.png");
+
+        Long sameId = userService.upsertOAuthUser("upsert@example.com", "", "google", "sub-1",
+                "token-2", LocalDateTime.now().plusHours(1), null);
+
+        assertThat(sameId).isEqualTo(id);
+        User user = userRepository.findById(id).orElseThrow();
+        assertThat(user.getName()).isEqualTo("Ada Lovelace");
+        assertThat(user.getAccessToken()).isEqualTo("token-2");
+        assertThat(user.getProfilePictureUrl()).isEqualTo("https://example.com/ada.png");
+        assertThat(user.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    void concurrentFirstLoginsForTheSameEmailResolveToOneUser() throws Exception {
+        int threads = 32;
+        int emails = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int e = 0; e < emails; e++) {
+                String email = "storm" + e + "@example.com";
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Long>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    String token = "token-" + t;
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return userService.upsertOAuthUser(email, "Storm User", "google", "sub",
+                                token, LocalDateTime.now().plusHours(1), null);
+                    }));
+                }
+                start.countDown();
+
+                Set<Long> ids = new HashSet<>();
+                for (Future<Long> result : results) {
+                    ids.add(result.get());
+                }
+                assertThat(ids).hasSize(1);
+                assertThat(userRepository.findByEmail(email)).get()
+                        .extracting(User::getId).isEqualTo(ids.iterator().next());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.tracing;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.AccessTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"app.tracing.sample-rate=1.0", "app.admin.emails=traces-admin@example.com"})
+class TracingTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccessTokenService accessTokenService;
+
+    @Autowired
+    private TraceBuffer traceBuffer;
+
+    @Autowired
+    private TracesEndpoint tracesEndpoint;
+
+    @Test
+    void requestsRecordControllerServiceSqlAndRenderSpans() throws Exception {
+        User user = userRepository.save(new User("Traced User", "traced-user@example.com"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/friends/" + user.getId()))
+                .header("Authorization", "Bearer " + accessTokenService.issue(user, "google"))
+                .build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+
+        Trace trace = traceBuffer.find(response.headers().firstValue(TracingFilter.TRACE_ID_HEADER).orElseThrow());
+        assertThat(trace.getRoot().getName()).isEqualTo("GET /api/friends/{userId}");
+
+        List<Span> spans = new ArrayList<>();
+        collect(trace.getRoot(), spans);
+        assertThat(spans).extracting(Span::getName)
+                .contains("FriendsController.getFriends", "FriendshipService.getFriends", "render");
+        Span service = spans.stream().filter(span -> span.getName().equals("FriendshipService.getFriends")).findFirst().orElseThrow();
+        assertThat(service.getParent().getKind()).isEqualTo(Span.Kind.CONTROLLER);
+        assertThat(service.getChildren()).anyMatch(span -> span.getKind() == Span.Kind.SQL
+                && span.getTags().get("db.statement").contains("friendships"));
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> zipkin = (List<Map<String, Object>>) tracesEndpoint.trace(trace.getTraceId(), "zipkin");
+        assertThat(zipkin).hasSize(spans.size());
+        assertThat(zipkin.get(0)).containsEntry("kind", "SERVER").doesNotContainKey("parentId");
+    }
+
+    @Test
+    void actuatorInternalsAreLimitedToAdmins() throws Exception {
+        User user = userRepository.save(new User("Traces User", "traces-user@example.com"));
+        User admin = userRepository.save(new User("Traces Admin", "traces-admin@example.com"));
+
+        assertThat(get("/actuator/health", null).statusCode()).isEqualTo(200);
+        assertThat(get("/actuator/traces", null).statusCode()).isEqualTo(302);
+        assertThat(get("/actuator/traces", user).statusCode()).isEqualTo(403);
+        assertThat(get("/actuator/metrics", user).statusCode()).isEqualTo(403);
+        assertThat(get("/actuator/jfr", user).statusCode()).isEqualTo(403);
+        assertThat(get("/actuator/traces", admin).statusCode()).isEqualTo(200);
+    }
+
+    private HttpResponse<String> get(String path, User user) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (user != null) {
+            request.header("Authorization", "Bearer " + accessTokenService.issue(user, "google"));
+        }
+        return HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void collect(Span span, List<Span> spans) {
+        spans.add(span);
+        span.getChildren().forEach(child -> collect(child, spans));
+    }
+}
@@ -39,9 +39,28 @@ export const AuthProvider = ({ children }) => {
     }
   };
 
+  // In stateless session mode the backend hands over an access and a refresh token in the URL fragment
+  const restoreAccessToken = async () => {
+    if (typeof window !== 'undefined' && window.location && window.location.hash) {
+      const params = new URLSearchParams(window.location.hash.substring(1));
+      const token = params.get('access_token');
+      if (token) {
+        await AsyncStorage.setItem('accessToken', token);
+        const refreshToken = params.get('refresh_token');
+        if (refreshToken) {
+          await AsyncStorage.setItem('refreshToken', refreshToken);
+        }
+        window.history.replaceState(null, '', window.location.pathname + window.location.search);
+      }
+    }
+    const storedToken = await AsyncStorage.getItem('accessToken');
+    apiService.setToken(storedToken);
+  };
+
   const checkAuthStatus = async () => {
     try {
       setIsLoading(true);
+      await restoreAccessToken();
       const userData = await apiService.getCurrentUser();
       if (userData && userData.id) {
         setUser(userData);
@@ -71,10 +90,13 @@ export const AuthProvider = ({ children }) => {
     window.location.href = authUrl;
   };
 
-  const logout = () => {
+  const logout = async () => {
     const apiBaseUrl = process.env.REACT_APP_API_URL || 'http://localhost:8080';
     setUser(null);
     setIsAuthenticated(false);
+    await apiService.revokeRefreshToken();
+    apiService.setToken(null);
+    AsyncStorage.removeItem('accessToken');
     window.location.href = `${apiBaseUrl}/logout`;
   };
 
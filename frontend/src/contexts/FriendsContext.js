@@ -19,6 +19,15 @@ export const FriendsProvider = ({ children }) => {
     loadFriends();
   }, []);
 
+  // Friendship changes made elsewhere (e.g. a request accepted) arrive over the change feed
+  useEffect(() => {
+    return apiService.subscribeToChanges(1, event => { // Using user ID 1 for now
+      if (event.type.startsWith('FRIEND') || event.type === 'CLOSE_FRIEND_TOGGLED' || event.type === 'RESYNC') {
+        loadFriends();
+      }
+    });
+  }, []);
+
   const loadFriends = async () => {
     try {
       setLoading(true);
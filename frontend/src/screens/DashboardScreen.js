@@ -43,6 +43,21 @@ const DashboardScreen = () => {
     }
   }, [user]);
 
+  // Refresh when friendships or meetings change instead of polling
+  useEffect(() => {
+    if (!user || !user.id) {
+      return undefined;
+    }
+    return apiService.subscribeToChanges(user.id, event => {
+      if (event.type === 'MEETING_REMINDER') {
+        const startTime = new Date(event.startTime);
+        Alert.alert('Upcoming meeting', `${event.title} starts at ${startTime.toLocaleTimeString([], { hour: '2-digit', minute: '2-digit' })}`);
+        return;
+      }
+      loadDashboardData();
+    });
+  }, [user]);
+
   // Update user profile when user data from AuthContext changes
   useEffect(() => {
     if (user) {
@@ -64,10 +79,14 @@ const DashboardScreen = () => {
       
       // Use user data from AuthContext
       if (user && user.id) {
-        const [dashboardStats, meetings] = await Promise.all([
-          apiService.getDashboardStats(user.id),
-          apiService.getUpcomingMeetings(user.id),
-        ]);
+        const dashboard = await apiService.getDashboard(user.id);
+        const meetings = dashboard.upcomingMeetings;
+        const dashboardStats = {
+          totalFriends: dashboard.stats?.totalFriends || 0,
+          closeFriends: dashboard.stats?.closeFriends || 0,
+          upcomingMeetings: meetings ? meetings.length : 0,
+          pendingRequests: dashboard.stats?.pendingRequests || 0,
+        };
         
         setStats(dashboardStats);
         setUpcomingMeetings(meetings || []);
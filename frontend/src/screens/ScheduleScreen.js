@@ -29,16 +29,17 @@ const ScheduleScreen = () => {
   const loadScheduleData = async () => {
     try {
       setLoading(true);
-      const [meetings, friendsList] = await Promise.all([
+      const [meetings, friendsList, availability] = await Promise.all([
         apiService.getUpcomingMeetings(1), // Using user ID 1 for now
         apiService.getFriends(1), // Using user ID 1 for now
+        apiService.getAvailability(1, 2).catch(() => null), // Using user ID 1 for now
       ]);
       
       setUpcomingMeetings(meetings);
       setFriends(friendsList);
       
-      // Generate suggested times based on current time
-      generateSuggestedTimes();
+      // Mark tomorrow's slots busy from the availability heatmap
+      generateSuggestedTimes(availability);
     } catch (error) {
       console.error('Failed to load schedule data:', error);
       // Fallback to empty arrays if API fails
@@ -50,18 +51,30 @@ const ScheduleScreen = () => {
     }
   };
 
-  const generateSuggestedTimes = () => {
-    const now = new Date();
+  const generateSuggestedTimes = (availability = null) => {
     const times = [];
     const timeSlots = [
-      '9:00 AM', '10:30 AM', '12:00 PM', '2:00 PM', '4:30 PM', '6:00 PM'
+      { time: '9:00 AM', hour: 9, minute: 0 },
+      { time: '10:30 AM', hour: 10, minute: 30 },
+      { time: '12:00 PM', hour: 12, minute: 0 },
+      { time: '2:00 PM', hour: 14, minute: 0 },
+      { time: '4:30 PM', hour: 16, minute: 30 },
+      { time: '6:00 PM', hour: 18, minute: 0 },
     ];
+    const from = availability ? new Date(availability.from) : null;
     
-    timeSlots.forEach((time, index) => {
+    timeSlots.forEach((slot, index) => {
+      const start = new Date();
+      start.setDate(start.getDate() + 1);
+      start.setHours(slot.hour, slot.minute, 0, 0);
+      // A slot is busy when at least half of the hour it starts in is taken
+      const bucket = from ? Math.floor((start - from) / 3600000) : -1;
+      const busyMinutes = bucket >= 0 ? availability.busyMinutes[bucket] || 0 : 0;
       times.push({
         id: index + 1,
-        time: time,
-        available: Math.random() > 0.3, // Random availability for demo
+        time: slot.time,
+        start,
+        available: busyMinutes < 30,
       });
     });
     
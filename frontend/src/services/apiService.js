@@ -1,9 +1,15 @@
+import AsyncStorage from '@react-native-async-storage/async-storage';
+
 // API service for authentication and API calls
 class ApiService {
   constructor() {
     const apiBaseUrl = process.env.REACT_APP_API_URL || 'http://localhost:8080';
     this.baseURL = `${apiBaseUrl}/api`; // Backend URL
     this.token = null;
+    // Refresh tokens are single-use, so concurrent 401s share one refresh
+    this.refreshPromise = null;
+    // Last response per GET URL, revalidated with If-None-Match
+    this.etagCache = new Map();
   }
 
   // Set authentication token
@@ -11,6 +17,59 @@ class ApiService {
     this.token = token;
   }
 
+  // Exchange the stored refresh token for a new access token and a rotated refresh token
+  refreshAccessToken() {
+    if (!this.refreshPromise) {
+      this.refreshPromise = this.rotateRefreshToken().finally(() => {
+        this.refreshPromise = null;
+      });
+    }
+    return this.refreshPromise;
+  }
+
+  async rotateRefreshToken() {
+    try {
+      const refreshToken = await AsyncStorage.getItem('refreshToken');
+      if (!refreshToken) {
+        return false;
+      }
+      const response = await fetch(`${this.baseURL}/auth/token/refresh`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({ refreshToken }),
+      });
+      if (!response.ok) {
+        await AsyncStorage.removeItem('refreshToken');
+        return false;
+      }
+      const data = await response.json();
+      this.setToken(data.accessToken);
+      await AsyncStorage.setItem('accessToken', data.accessToken);
+      await AsyncStorage.setItem('refreshToken', data.refreshToken);
+      return true;
+    } catch (error) {
+      return false;
+    }
+  }
+
+  // Ends the refresh token family server-side; the access token lapses on its own
+  async revokeRefreshToken() {
+    const refreshToken = await AsyncStorage.getItem('refreshToken');
+    await AsyncStorage.removeItem('refreshToken');
+    if (!refreshToken) {
+      return;
+    }
+    try {
+      await fetch(`${this.baseURL}/auth/token/revoke`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({ refreshToken }),
+      });
+    } catch (error) {
+      console.error('Failed to revoke refresh token:', error);
+    }
+  }
+
   // Get headers for API requests
   getHeaders() {
     const headers = {
@@ -24,24 +83,58 @@ class ApiService {
     return headers;
   }
 
+  // One key per user action; retries of that action reuse it
+  newIdempotencyKey() {
+    return `${Date.now().toString(36)}-${Math.random().toString(36).slice(2, 12)}`;
+  }
+
   // Make API request
-  async makeRequest(endpoint, options = {}) {
+  async makeRequest(endpoint, { idempotencyKey, ...options } = {}) {
     const url = `${this.baseURL}${endpoint}`;
+    const isGet = !options.method || options.method === 'GET';
+    const withValidator = (headers) => {
+      const cached = isGet && this.etagCache.get(url);
+      const validated = cached ? { ...headers, 'If-None-Match': cached.etag } : headers;
+      return idempotencyKey ? { ...validated, 'Idempotency-Key': idempotencyKey } : validated;
+    };
     const config = {
-      headers: this.getHeaders(),
+      headers: withValidator(this.getHeaders()),
       credentials: 'include', // Include cookies for authentication
       ...options,
     };
 
     try {
-      const response = await fetch(url, config);
+      let response;
+      try {
+        response = await fetch(url, config);
+      } catch (networkError) {
+        // A keyed request is safe to resend: the server replays the first result
+        if (!idempotencyKey) {
+          throw networkError;
+        }
+        response = await fetch(url, config);
+      }
+      
+      // Access tokens are short-lived; renew once and retry
+      if (response.status === 401 && this.token && await this.refreshAccessToken()) {
+        response = await fetch(url, { ...config, headers: withValidator(this.getHeaders()) });
+      }
+      
+      if (response.status === 304 && this.etagCache.has(url)) {
+        return this.etagCache.get(url).data;
+      }
       
       if (!response.ok) {
         const errorData = await response.json().catch(() => ({}));
         throw new Error(errorData.error || `HTTP error! status: ${response.status}`);
       }
       
-      return await response.json();
+      const data = await response.json();
+      const etag = response.headers.get('ETag');
+      if (isGet && etag) {
+        this.etagCache.set(url, { etag, data });
+      }
+      return data;
     } catch (error) {
       console.error('API request failed:', error);
       throw error;
@@ -73,6 +166,7 @@ class ApiService {
   async addFriend(userId, email) {
     return await this.makeRequest(`/friends/${userId}/add`, {
       method: 'POST',
+      idempotencyKey: this.newIdempotencyKey(),
       body: JSON.stringify({ email }),
     });
   }
@@ -98,6 +192,13 @@ class ApiService {
     });
   }
 
+  // Remove a friend or withdraw a friend request
+  async removeFriend(userId, friendId) {
+    return await this.makeRequest(`/friends/${userId}/remove/${friendId}`, {
+      method: 'DELETE',
+    });
+  }
+
   // Get upcoming meetings
   async getUpcomingMeetings(userId = 1) {
     return await this.makeRequest(`/meetings/${userId}/upcoming`);
@@ -113,10 +214,16 @@ class ApiService {
     return await this.makeRequest(`/meetings/${userId}/range?${params}`);
   }
 
+  // Hourly busy minutes for the next few days, from the server-side heatmap
+  async getAvailability(userId, days = 14) {
+    return await this.makeRequest(`/availability/${userId}?days=${days}`);
+  }
+
   // Create meeting
   async createMeeting(organizerId, friendId, title, description, startTime, endTime, location) {
     return await this.makeRequest('/meetings/create', {
       method: 'POST',
+      idempotencyKey: this.newIdempotencyKey(),
       body: JSON.stringify({
         organizerId,
         friendId,
@@ -129,6 +236,31 @@ class ApiService {
     });
   }
 
+  // Create meeting with several invitees
+  async createGroupMeeting(organizerId, participantIds, title, description, startTime, endTime, location) {
+    return await this.makeRequest('/meetings/create', {
+      method: 'POST',
+      idempotencyKey: this.newIdempotencyKey(),
+      body: JSON.stringify({
+        organizerId,
+        participantIds,
+        title,
+        description,
+        startTime: startTime.toISOString(),
+        endTime: endTime.toISOString(),
+        location,
+      }),
+    });
+  }
+
+  // Accept, tentatively accept or decline a meeting invitation as the signed-in user
+  async respondToMeeting(meetingId, status) {
+    return await this.makeRequest(`/meetings/${meetingId}/rsvp`, {
+      method: 'PUT',
+      body: JSON.stringify({ status }),
+    });
+  }
+
   // Update meeting status
   async updateMeetingStatus(meetingId, status) {
     return await this.makeRequest(`/meetings/${meetingId}/status`, {
@@ -165,6 +297,12 @@ class ApiService {
     }
   }
 
+  // Stats, friends, upcoming meetings and calendar events in one round trip.
+  // Sections that failed or timed out on the server come back null (see `sections`).
+  async getDashboard(userId, maxEvents = 10) {
+    return await this.makeRequest(`/dashboard/${userId}?maxEvents=${maxEvents}`);
+  }
+
   // Get dashboard stats
   async getDashboardStats(userId = 1) {
     try {
@@ -188,6 +326,83 @@ class ApiService {
     }
   }
 
+  // Stream friendship and meeting changes for a user (Server-Sent Events).
+  // XMLHttpRequest is used because React Native has no EventSource and fetch can't stream.
+  // Events missed while disconnected are not replayed: after a reconnect onEvent gets a RESYNC
+  // event and should reload what it shows. Returns a function that closes the stream.
+  subscribeToChanges(userId, onEvent) {
+    let xhr = null;
+    let closed = false;
+    let connectedBefore = false;
+    let retryDelay = 1000;
+    let reconnectTimer = null;
+
+    const connect = () => {
+      let parsed = 0;
+      let buffer = '';
+      xhr = new XMLHttpRequest();
+      xhr.open('GET', `${this.baseURL}/feed/${userId}`);
+      xhr.withCredentials = true;
+      xhr.setRequestHeader('Accept', 'text/event-stream');
+      if (this.token) {
+        xhr.setRequestHeader('Authorization', `Bearer ${this.token}`);
+      }
+      xhr.onprogress = () => {
+        retryDelay = 1000;
+        buffer += xhr.responseText.substring(parsed);
+        parsed = xhr.responseText.length;
+        const messages = buffer.split('\n\n');
+        buffer = messages.pop();
+        messages.forEach(message => {
+          let type = 'message';
+          const data = [];
+          message.split('\n').forEach(line => {
+            if (line.startsWith('event:')) {
+              type = line.substring(6).trim();
+            } else if (line.startsWith('data:')) {
+              data.push(line.substring(5).trim());
+            }
+          });
+          if (type === 'connected') {
+            if (connectedBefore) {
+              onEvent({ type: 'RESYNC' });
+            }
+            connectedBefore = true;
+          } else if (data.length > 0) {
+            try {
+              onEvent({ type, ...JSON.parse(data.join('\n')) });
+            } catch (error) {
+              console.error('Malformed change event:', error);
+            }
+          }
+        });
+      };
+      const reconnect = async () => {
+        // Another user's feed is never going to open
+        if (closed || xhr.status === 403) {
+          return;
+        }
+        if (xhr.status === 401) {
+          await this.refreshAccessToken();
+        }
+        reconnectTimer = setTimeout(connect, retryDelay);
+        retryDelay = Math.min(retryDelay * 2, 30000);
+      };
+      xhr.onload = reconnect;
+      xhr.onerror = reconnect;
+      xhr.send();
+    };
+
+    connect();
+    return () => {
+      closed = true;
+      clearTimeout(reconnectTimer);
+      if (xhr) {
+        xhr.abort();
+      }
+    };
+  }
+
   // Calendar API methods
   async getUpcomingCalendarEvents(maxResults = 10) {
     return await this.makeRequest(`/calendar/events/upcoming?maxResults=${maxResults}`, {
@@ -0,0 +1,96 @@
+#!/bin/bash
+set -e
+
+# Measures backend startup: wall time until /actuator/health reports UP, and the
+# resident set size at that moment. Each optimization is measured on its own and
+# combined, so their effects can be told apart:
+#   fat jar -> extracted jar -> + Spring AOT / + AppCDS -> + AppCDS + Spring AOT
+# The -Paot jar runs with or without its generated code (spring.aot.enabled), and
+# each AppCDS archive comes from a training run in the matching mode.
+#
+# Usage: ./startup-benchmark.sh [runs]
+#   Build:  (cd backend && ./gradlew bootJar -Paot) then ./startup-benchmark.sh --train
+
+RUNS=${1:-5}
+PORT=${BENCHMARK_PORT:-18080}
+JAVA=${JAVA:-java}
+HEAP_OPTS=${HEAP_OPTS:--Xmx512m}
+LIBS=backend/build/libs
+APP=backend/build/app
+JAR=demo-0.0.1-SNAPSHOT.jar
+
+if [ ! -f "$LIBS/$JAR" ]; then
+    echo "❌ $LIBS/$JAR not found - build the backend first"
+    exit 1
+fi
+
+if [ "$1" = "--train" ]; then
+    echo "🏋️ Extracting jar and running the AppCDS training runs..."
+    rm -rf "$APP"
+    $JAVA -Djarmode=tools -jar "$LIBS/$JAR" extract --destination "$APP"
+    $JAVA $HEAP_OPTS -XX:ArchiveClassesAtExit="$APP/app-cds.jsa" \
+        -Dspring.context.exit=onRefresh -jar "$APP/$JAR" > /dev/null
+    $JAVA $HEAP_OPTS -XX:ArchiveClassesAtExit="$APP/app-cds-aot.jsa" -Dspring.aot.enabled=true \
+        -Dspring.context.exit=onRefresh -jar "$APP/$JAR" > /dev/null
+    echo "✅ Archives written to $APP/app-cds.jsa and $APP/app-cds-aot.jsa"
+    exit 0
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints "<millis> <rss-kb>" for a single start of the given command
+measure() {
+    local start pid elapsed rss
+    start=$(now_ms)
+    "$@" --server.port=$PORT > /dev/null 2>&1 &
+    pid=$!
+
+    until curl -sf "http://localhost:$PORT/actuator/health" 2>/dev/null | grep -q '"status":"UP"'; do
+        if ! kill -0 $pid 2>/dev/null; then
+            echo "❌ Application exited before becoming healthy" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+
+    elapsed=$(( $(now_ms) - start ))
+    rss=$(ps -o rss= -p $pid | tr -d ' ')
+    kill $pid
+    wait $pid 2>/dev/null || true
+    echo "$elapsed $rss"
+}
+
+benchmark() {
+    local label=$1
+    shift
+    local results=()
+
+    echo "⏱️  $label ($RUNS runs)"
+    for i in $(seq 1 "$RUNS"); do
+        read -r ms rss <<< "$(measure "$@")"
+        echo "   run $i: ${ms} ms to UP, RSS $(( rss / 1024 )) MB"
+        results+=("$ms $rss")
+    done
+
+    printf '%s\n' "${results[@]}" | sort -n | awk -v label="$label" '
+        { ms[NR] = $1; rss[NR] = $2 }
+        END {
+            mid = int((NR + 1) / 2)
+            printf "   median: %d ms to UP, RSS %d MB\n\n", ms[mid], rss[mid] / 1024
+        }'
+}
+
+benchmark "fat jar" $JAVA $HEAP_OPTS -jar "$LIBS/$JAR"
+
+if [ ! -f "$APP/app-cds.jsa" ] || [ ! -f "$APP/app-cds-aot.jsa" ]; then
+    echo "ℹ️  No AppCDS archives in $APP - run with --train after an -Paot build to compare the optimizations"
+    exit 0
+fi
+
+benchmark "extracted jar" $JAVA $HEAP_OPTS -jar "$APP/$JAR"
+benchmark "extracted jar + Spring AOT" $JAVA $HEAP_OPTS -Dspring.aot.enabled=true -jar "$APP/$JAR"
+benchmark "extracted jar + AppCDS" $JAVA $HEAP_OPTS -XX:SharedArchiveFile="$APP/app-cds.jsa" -jar "$APP/$JAR"
+benchmark "extracted jar + AppCDS + Spring AOT" \
+    $JAVA $HEAP_OPTS -XX:SharedArchiveFile="$APP/app-cds-aot.jsa" -Dspring.aot.enabled=true -jar "$APP/$JAR"